@@ -0,0 +1,80 @@
+package com.api.digicell.benchmarks;
+
+import com.api.digicell.dto.AliasCreateDTO;
+import com.api.digicell.dto.AliasResponseDTO;
+import com.api.digicell.dto.AliasUpdateDTO;
+import com.api.digicell.entities.Alias;
+import com.api.digicell.mapper.AliasMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Alias entity and DTO mapping, per alias and for a page of aliases as listed by the alias endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class AliasMapperBenchmark {
+
+    @Param({"50", "500"})
+    public int pageSize;
+
+    @Param({"32", "1024"})
+    public int valueSize;
+
+    private final AliasMapper mapper = new AliasMapper();
+    private List<Alias> page;
+    private AliasCreateDTO createDTO;
+    private AliasUpdateDTO updateDTO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Alias alias = new Alias();
+            alias.setAliasId((long) i);
+            alias.setKey("k" + i);
+            alias.setValue(ChatHistoryFixtures.content(i, valueSize));
+            page.add(alias);
+        }
+        createDTO = new AliasCreateDTO();
+        createDTO.setKey("wlc");
+        createDTO.setValue(ChatHistoryFixtures.content(0, valueSize));
+        updateDTO = new AliasUpdateDTO(ChatHistoryFixtures.content(1, valueSize));
+    }
+
+    @Benchmark
+    public List<AliasResponseDTO> toResponsePage() {
+        return page.stream().map(mapper::toResponseDTO).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Alias toEntity() {
+        return mapper.toEntity(createDTO);
+    }
+
+    @Benchmark
+    public Alias updateEntity() {
+        Alias alias = page.get(0);
+        mapper.updateEntity(alias, updateDTO);
+        return alias;
+    }
+}
@@ -0,0 +1,86 @@
+package com.api.digicell.benchmarks;
+
+import com.api.digicell.converters.ChatHistoryCodec;
+import com.api.digicell.converters.ChatHistoryConverter;
+import com.api.digicell.entities.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ObjectMapper data binding the chat history converter used to do against the streaming
+ * converter, for plain JSON and Smile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class ChatHistoryConverterBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Param({"JSON", "SMILE"})
+    public ChatHistoryCodec codec;
+
+    @Param({"1", "10"})
+    public int sessions;
+
+    @Param({"20", "100"})
+    public int messagesPerSession;
+
+    @Param({"64", "1024"})
+    public int contentSize;
+
+    private final ChatHistoryConverter converter = new ChatHistoryConverter();
+    private List<List<ChatMessage>> history;
+    private String json;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ChatHistoryConverter.configure(codec, 0);
+        history = ChatHistoryFixtures.history(sessions, messagesPerSession, contentSize);
+        json = OBJECT_MAPPER.writeValueAsString(history);
+        stored = converter.convertToDatabaseColumn(history);
+    }
+
+    @Benchmark
+    public String writeObjectMapper() throws Exception {
+        return OBJECT_MAPPER.writeValueAsString(history);
+    }
+
+    @Benchmark
+    public Object readObjectMapper() throws Exception {
+        return OBJECT_MAPPER.readValue(json, OBJECT_MAPPER.getTypeFactory().constructCollectionType(List.class,
+                OBJECT_MAPPER.getTypeFactory().constructCollectionType(List.class, ChatMessage.class)));
+    }
+
+    @Benchmark
+    public String writeConverter() {
+        return converter.convertToDatabaseColumn(history);
+    }
+
+    @Benchmark
+    public List<List<ChatMessage>> readConverter() {
+        return converter.convertToEntityAttribute(stored);
+    }
+}
@@ -0,0 +1,41 @@
+package com.api.digicell.benchmarks;
+
+import com.api.digicell.entities.ChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic chat histories for the benchmarks, shaped by sessions x messages per session x content size.
+ */
+final class ChatHistoryFixtures {
+
+    private static final String CONTENT =
+            "I was charged twice for my prepaid top-up, can you check the last invoice and refund the duplicate? ";
+
+    private ChatHistoryFixtures() {
+    }
+
+    static List<List<ChatMessage>> history(int sessions, int messagesPerSession, int contentSize) {
+        List<List<ChatMessage>> history = new ArrayList<>(sessions);
+        LocalDateTime start = LocalDateTime.of(2024, 3, 20, 10, 0);
+        int n = 0;
+        for (int s = 0; s < sessions; s++) {
+            List<ChatMessage> session = new ArrayList<>(messagesPerSession);
+            for (int m = 0; m < messagesPerSession; m++, n++) {
+                session.add(new ChatMessage(n % 2 == 0 ? "user" : "agent", content(n, contentSize), start.plusSeconds(n * 7L)));
+            }
+            history.add(session);
+        }
+        return history;
+    }
+
+    static String content(int n, int size) {
+        StringBuilder content = new StringBuilder(size).append("Message ").append(n).append(": ");
+        while (content.length() < size) {
+            content.append(CONTENT, 0, Math.min(CONTENT.length(), size - content.length()));
+        }
+        return content.toString();
+    }
+}
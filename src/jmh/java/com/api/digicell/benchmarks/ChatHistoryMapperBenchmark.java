@@ -0,0 +1,62 @@
+package com.api.digicell.benchmarks;
+
+import com.api.digicell.dtos.ChatHistoryDTO;
+import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.Conversation;
+import com.api.digicell.mapper.ChatHistoryMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversation to {@link ChatHistoryDTO} mapping of the chat history endpoints, without the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class ChatHistoryMapperBenchmark {
+
+    @Param({"1", "10"})
+    public int sessions;
+
+    @Param({"20", "100"})
+    public int messagesPerSession;
+
+    @Param({"64", "1024"})
+    public int contentSize;
+
+    private final ChatHistoryMapper mapper = new ChatHistoryMapper();
+    private Conversation conversation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Agent agent = new Agent();
+        agent.setAgentId(7L);
+        agent.setName("Agent Smith");
+        conversation = new Conversation();
+        conversation.setConversationId(42L);
+        conversation.setAgent(agent);
+        conversation.setIntent("billing");
+        conversation.setChatSummary("Duplicate top-up charge refunded");
+        conversation.setChatHistory(ChatHistoryFixtures.history(sessions, messagesPerSession, contentSize));
+    }
+
+    @Benchmark
+    public ChatHistoryDTO toChatHistoryDTO() {
+        return mapper.toChatHistoryDTO(conversation);
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.digicell.benchmarks;
+
+import com.api.digicell.converters.StringListConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agent label lists through the JSON column converter, as on every agent load and save.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(3)
+public class StringListConverterBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int labels;
+
+    @Param({"8", "64"})
+    public int labelSize;
+
+    private final StringListConverter converter = new StringListConverter();
+    private List<String> list;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = new ArrayList<>(labels);
+        for (int i = 0; i < labels; i++) {
+            list.add(ChatHistoryFixtures.content(i, labelSize));
+        }
+        stored = converter.convertToDatabaseColumn(list);
+    }
+
+    @Benchmark
+    public String write() {
+        return converter.convertToDatabaseColumn(list);
+    }
+
+    @Benchmark
+    public List<String> read() {
+        return converter.convertToEntityAttribute(stored);
+    }
+}
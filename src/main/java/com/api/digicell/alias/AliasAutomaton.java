@@ -0,0 +1,201 @@
+package com.api.digicell.alias;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Immutable Aho-Corasick automaton over alias keys, expanding every key found in a text in one pass.
+ * <p>
+ * Keys only match as whole words: the characters around a match must not be letters or digits, so
+ * {@code ty} expands in "ok ty!" but not in "party". Overlapping matches are resolved leftmost first, the
+ * longest key winning at the same start, and expanded values are not scanned again. Matching is case
+ * sensitive, like the unique key column.
+ * </p>
+ * Expansion is linear in the text length plus the number of key occurrences, whatever the number of keys.
+ * Transitions are stored per state as sorted character arrays, searched by binary search.
+ */
+public final class AliasAutomaton {
+    private static final AliasAutomaton EMPTY = new AliasAutomaton(Map.of());
+
+    private final char[][] labels;
+    private final int[][] targets;
+    private final int[] fail;
+    /** Nearest state on the fail chain, itself included, that ends a key; -1 if none. */
+    private final int[] output;
+    private final int[] keyLength;
+    private final String[] values;
+
+    private AliasAutomaton(Map<String, String> aliases) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        List<String> valueList = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        lengths.add(0);
+        valueList.add(null);
+        for (Map.Entry<String, String> alias : aliases.entrySet()) {
+            String key = alias.getKey();
+            if (key == null || key.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                Integer next = trie.get(state).get(key.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    lengths.add(0);
+                    valueList.add(null);
+                    trie.get(state).put(key.charAt(i), next);
+                }
+                state = next;
+            }
+            lengths.set(state, key.length());
+            valueList.set(state, alias.getValue());
+        }
+
+        int size = trie.size();
+        labels = new char[size][];
+        targets = new int[size][];
+        fail = new int[size];
+        output = new int[size];
+        keyLength = lengths.stream().mapToInt(Integer::intValue).toArray();
+        values = valueList.toArray(new String[0]);
+        for (int state = 0; state < size; state++) {
+            Map<Character, Integer> edges = trie.get(state);
+            labels[state] = new char[edges.size()];
+            targets[state] = new int[edges.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                labels[state][i] = edge.getKey();
+                targets[state][i++] = edge.getValue();
+            }
+        }
+
+        // Breadth-first, so fail links always point at states whose own links are already set.
+        Queue<Integer> queue = new ArrayDeque<>();
+        output[0] = -1;
+        for (int child : targets[0]) {
+            fail[child] = 0;
+            output[child] = keyLength[child] > 0 ? child : -1;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = targets[state][i];
+                int fallback = fail[state];
+                int next;
+                while ((next = step(fallback, labels[state][i])) < 0 && fallback != 0) {
+                    fallback = fail[fallback];
+                }
+                fail[child] = Math.max(next, 0);
+                output[child] = keyLength[child] > 0 ? child : output[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Compiles the aliases, key to value. Blank keys are ignored.
+     */
+    public static AliasAutomaton compile(Map<String, String> aliases) {
+        return aliases.isEmpty() ? EMPTY : new AliasAutomaton(new HashMap<>(aliases));
+    }
+
+    public int stateCount() {
+        return fail.length;
+    }
+
+    /**
+     * @return the text with every whole-word key replaced by its value, and the number of replacements
+     */
+    public Expansion expand(String text) {
+        return expand(text, null);
+    }
+
+    /**
+     * Like {@link #expand(String)}, also passing every replaced key to {@code onMatch} when it is not null.
+     */
+    public Expansion expand(String text, Consumer<String> onMatch) {
+        if (text == null || fail.length == 1) {
+            return new Expansion(text, 0);
+        }
+        // Longest whole-word key starting at each position.
+        int[] longest = null;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+            if (output[state] < 0 || (i + 1 < text.length() && isWordChar(text.charAt(i + 1)))) {
+                continue;
+            }
+            for (int match = output[state]; match >= 0; match = output[fail[match]]) {
+                int start = i + 1 - keyLength[match];
+                if (start > 0 && isWordChar(text.charAt(start - 1))) {
+                    continue;
+                }
+                if (longest == null) {
+                    longest = new int[text.length()];
+                }
+                longest[start] = Math.max(longest[start], keyLength[match]);
+            }
+        }
+        if (longest == null) {
+            return new Expansion(text, 0);
+        }
+
+        StringBuilder expanded = new StringBuilder(text.length() + 64);
+        int replacements = 0;
+        int i = 0;
+        while (i < text.length()) {
+            if (longest[i] > 0) {
+                expanded.append(values[stateOf(text, i, longest[i])]);
+                if (onMatch != null) {
+                    onMatch.accept(text.substring(i, i + longest[i]));
+                }
+                i += longest[i];
+                replacements++;
+            } else {
+                expanded.append(text.charAt(i++));
+            }
+        }
+        return new Expansion(expanded.toString(), replacements);
+    }
+
+    /**
+     * Trie state of the key {@code text[start, start + length)}, which is known to be a key.
+     */
+    private int stateOf(String text, int start, int length) {
+        int state = 0;
+        for (int i = start; i < start + length; i++) {
+            state = step(state, text.charAt(i));
+        }
+        return state;
+    }
+
+    private int step(int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * An expanded text and how many keys were replaced in it.
+     */
+    public record Expansion(String text, int replacements) {
+    }
+}
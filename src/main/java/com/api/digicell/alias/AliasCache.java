@@ -0,0 +1,97 @@
+package com.api.digicell.alias;
+
+import com.api.digicell.repository.AliasRepository;
+import com.api.digicell.repository.AliasVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * In-memory near-cache of all aliases, so composer lookups, suggestions and expansion never query the
+ * database.
+ * <p>
+ * The current {@link AliasSnapshot} is immutable and swapped copy-on-write through a volatile field. It is
+ * rebuilt after every alias change committed by this instance and, for changes made by other instances,
+ * whenever the shared {@link com.api.digicell.entities.AliasVersion} row polled every
+ * {@code digicell.aliases.poll-interval-ms} no longer matches its version. The version and the aliases
+ * are read in one read-only transaction, so a snapshot never mixes two versions.
+ * </p>
+ */
+@Component
+public class AliasCache {
+    private static final Logger logger = LoggerFactory.getLogger(AliasCache.class);
+
+    private final AliasRepository aliasRepository;
+    private final AliasVersionRepository versionRepository;
+    private final AliasUsageCounters usageCounters;
+    private final TransactionTemplate readOnlyTransaction;
+    private volatile AliasSnapshot snapshot = AliasSnapshot.of(-1L, List.of());
+
+    public AliasCache(AliasRepository aliasRepository,
+                      AliasVersionRepository versionRepository,
+                      AliasUsageCounters usageCounters,
+                      PlatformTransactionManager transactionManager) {
+        this.aliasRepository = aliasRepository;
+        this.versionRepository = versionRepository;
+        this.usageCounters = usageCounters;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAliasesChanged(AliasesChangedEvent event) {
+        logger.debug("Alias {} changed, reloading aliases", event.key());
+        rebuild();
+    }
+
+    /**
+     * Reloads the aliases if another instance changed them since the current snapshot.
+     */
+    @Scheduled(fixedDelayString = "${digicell.aliases.poll-interval-ms:2000}")
+    public void poll() {
+        long current = versionRepository.findCurrent().orElse(0L);
+        if (current != snapshot.version()) {
+            logger.debug("Alias version moved from {} to {}, reloading aliases", snapshot.version(), current);
+            rebuild();
+        }
+    }
+
+    public AliasSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Expands the aliases in the text, counting a use of every expanded alias.
+     */
+    public AliasAutomaton.Expansion expand(String text) {
+        AliasSnapshot current = snapshot;
+        return current.automaton().expand(text, key -> usageCounters.increment(current.aliasId(key)));
+    }
+
+    /**
+     * Builds a new snapshot; synchronized so a slow rebuild cannot overwrite a newer one.
+     */
+    private synchronized void rebuild() {
+        long started = System.nanoTime();
+        AliasSnapshot next = readOnlyTransaction.execute(status -> {
+            long version = versionRepository.findCurrent().orElse(0L);
+            return AliasSnapshot.of(version, aliasRepository.findAll());
+        });
+        snapshot = next;
+        logger.info("Loaded {} aliases at version {} ({} automaton states) in {} ms", next.size(), next.version(),
+                next.automaton().stateCount(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
@@ -0,0 +1,94 @@
+package com.api.digicell.alias;
+
+import com.api.digicell.dto.AliasResponseDTO;
+import com.api.digicell.entities.Alias;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable copy of all aliases at one {@link com.api.digicell.entities.AliasVersion}: key lookups,
+ * prefix suggestions over the sorted keys and the expansion automaton, all without the database.
+ */
+public final class AliasSnapshot {
+
+    private final long version;
+    private final NavigableMap<String, String> aliases;
+    private final Map<String, Long> idsByKey;
+    private final Map<Long, String> keysById;
+    private final AliasAutomaton automaton;
+
+    private AliasSnapshot(long version, Collection<Alias> aliases) {
+        NavigableMap<String, String> values = new TreeMap<>();
+        Map<String, Long> ids = new HashMap<>();
+        Map<Long, String> keys = new HashMap<>();
+        for (Alias alias : aliases) {
+            values.put(alias.getKey(), alias.getValue());
+            ids.put(alias.getKey(), alias.getAliasId());
+            keys.put(alias.getAliasId(), alias.getKey());
+        }
+        this.version = version;
+        this.aliases = Collections.unmodifiableNavigableMap(values);
+        this.idsByKey = ids;
+        this.keysById = keys;
+        this.automaton = AliasAutomaton.compile(values);
+    }
+
+    public static AliasSnapshot of(long version, Collection<Alias> aliases) {
+        return new AliasSnapshot(version, aliases);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return aliases.size();
+    }
+
+    public AliasAutomaton automaton() {
+        return automaton;
+    }
+
+    /**
+     * @return the value of the key, or null if there is no such alias
+     */
+    public String get(String key) {
+        return aliases.get(key);
+    }
+
+    /**
+     * @return the id of the alias with the key, or null if there is none
+     */
+    public Long aliasId(String key) {
+        return idsByKey.get(key);
+    }
+
+    /**
+     * @return the key of the alias with the id, or null if there is none
+     */
+    public String key(Long aliasId) {
+        return keysById.get(aliasId);
+    }
+
+    /**
+     * Up to {@code limit} aliases whose key starts with the prefix, in key order; an empty prefix lists
+     * the first keys.
+     */
+    public List<AliasResponseDTO> suggest(String prefix, int limit) {
+        List<AliasResponseDTO> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, String> alias : aliases.tailMap(prefix, true).entrySet()) {
+            if (result.size() == limit || !alias.getKey().startsWith(prefix)) {
+                break;
+            }
+            result.add(new AliasResponseDTO(alias.getKey(), alias.getValue()));
+        }
+        return result;
+    }
+}
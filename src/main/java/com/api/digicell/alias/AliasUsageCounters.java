@@ -0,0 +1,120 @@
+package com.api.digicell.alias;
+
+import com.api.digicell.repository.AliasUsageRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Counts alias lookups and expansions per alias id.
+ * <p>
+ * A use only increments a {@link LongAdder}, whose cells are striped across threads, so the hot alias path
+ * never contends or touches the database. Every {@code digicell.aliases.usage-flush-interval-ms} the
+ * counts are drained into one batched UPDATE of {@code aliases.usage_count}, after which the stored counts
+ * of all instances are read back. Top-N queries combine those stored counts with the uses not flushed yet.
+ * </p>
+ */
+@Component
+public class AliasUsageCounters {
+    private static final Logger logger = LoggerFactory.getLogger(AliasUsageCounters.class);
+
+    private final AliasUsageRepository usageRepository;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> stored = Map.of();
+    /** Deltas drained from {@link #pending} whose write is not yet reflected in {@link #stored}. */
+    private volatile Map<Long, Long> inFlight = Map.of();
+
+    public AliasUsageCounters(AliasUsageRepository usageRepository) {
+        this.usageRepository = usageRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        stored = usageRepository.findUsageCounts();
+    }
+
+    public void increment(Long aliasId) {
+        LongAdder counter = pending.get(aliasId);
+        if (counter == null) {
+            counter = pending.computeIfAbsent(aliasId, id -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Uses of the alias, stored and not yet flushed.
+     */
+    public long count(Long aliasId) {
+        LongAdder counter = pending.get(aliasId);
+        return stored.getOrDefault(aliasId, 0L) + inFlight.getOrDefault(aliasId, 0L) + (counter == null ? 0L : counter.sum());
+    }
+
+    /**
+     * The {@code limit} most used alias ids accepted by {@code include}, with their counts, most used first.
+     */
+    public List<Map.Entry<Long, Long>> top(int limit, Predicate<Long> include) {
+        Map<Long, Long> counts = new HashMap<>(stored);
+        inFlight.forEach((id, delta) -> counts.merge(id, delta, Long::sum));
+        pending.forEach((id, counter) -> counts.merge(id, counter.sum(), Long::sum));
+        Comparator<Map.Entry<Long, Long>> byCount = Map.Entry.comparingByValue();
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(limit + 1, byCount);
+        for (Map.Entry<Long, Long> entry : counts.entrySet()) {
+            if (!include.test(entry.getKey())) {
+                continue;
+            }
+            heap.add(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Map.Entry<Long, Long>> top = new ArrayList<>(heap);
+        top.sort(byCount.reversed().thenComparing(Map.Entry.comparingByKey()));
+        return top;
+    }
+
+    @Scheduled(fixedDelayString = "${digicell.aliases.usage-flush-interval-ms:10000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = new HashMap<>();
+        pending.forEach((id, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta > 0) {
+                deltas.put(id, delta);
+            }
+        });
+        inFlight = deltas;
+        try {
+            usageRepository.addUsage(deltas);
+        } catch (DataAccessException e) {
+            // Keep the uses for the next flush rather than losing them.
+            deltas.forEach((id, delta) -> pending.computeIfAbsent(id, key -> new LongAdder()).add(delta));
+            inFlight = Map.of();
+            logger.warn("Alias usage flush of {} aliases failed, retrying next time: {}", deltas.size(), e.getMessage());
+            return;
+        }
+        stored = usageRepository.findUsageCounts();
+        inFlight = Map.of();
+        Map<Long, Long> current = stored;
+        pending.entrySet().removeIf(entry -> !current.containsKey(entry.getKey()) && entry.getValue().sum() == 0);
+        logger.debug("Flushed usage of {} aliases", deltas.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
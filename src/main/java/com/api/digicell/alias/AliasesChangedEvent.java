@@ -0,0 +1,7 @@
+package com.api.digicell.alias;
+
+/**
+ * Published by {@link com.api.digicell.services.AliasService} when an alias is created, updated or deleted.
+ */
+public record AliasesChangedEvent(String key) {
+}
@@ -0,0 +1,33 @@
+package com.api.digicell.config;
+
+import com.api.digicell.converters.ChatHistoryCodec;
+import com.api.digicell.converters.ChatHistoryConverter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the chat history compression settings to {@link ChatHistoryConverter}.
+ */
+@Configuration
+public class ChatHistoryCodecConfig {
+
+    @Value("${digicell.chat-history.codec:json}")
+    private ChatHistoryCodec codec;
+
+    @Value("${digicell.chat-history.compression-threshold:4096}")
+    private int compressionThreshold;
+
+    @PostConstruct
+    public void configureConverter() {
+        ChatHistoryConverter.configure(codec, compressionThreshold);
+    }
+
+    public ChatHistoryCodec getCodec() {
+        return codec;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+}
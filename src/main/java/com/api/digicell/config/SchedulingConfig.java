@@ -0,0 +1,12 @@
+package com.api.digicell.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs. Each job checks its own enabled flag.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,19 +1,30 @@
 package com.api.digicell.controllers;
 
+import com.api.digicell.dto.AgentBulkStatusDTO;
+import com.api.digicell.dto.AgentBulkUpdateDTO;
 import com.api.digicell.dto.AgentCreateDTO;
 import com.api.digicell.dto.AgentDetailsResponseDTO;
+import com.api.digicell.dto.AgentPresenceDTO;
+import com.api.digicell.dto.AgentPresenceStatsDTO;
 import com.api.digicell.dto.AgentStatusDTO;
 import com.api.digicell.dto.AgentUpdateDTO;
+import com.api.digicell.dto.AgentWorkloadDTO;
+import com.api.digicell.dto.BulkItemResultDTO;
+import com.api.digicell.dto.ConversationResponseDTO;
 import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.AgentStatus;
 import com.api.digicell.entities.Client;
 import com.api.digicell.exceptions.InvalidAgentStatusException;
 import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.pagination.CursorPage;
 import com.api.digicell.responses.ApiResponse;
+import com.api.digicell.services.AgentBulkService;
 import com.api.digicell.services.AgentService;
 import com.api.digicell.services.ClientService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -27,6 +38,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -38,6 +50,7 @@ import java.util.List;
 public class AgentController {
 
     private final AgentService agentService;
+    private final AgentBulkService agentBulkService;
     private final ClientService clientService;
     private final AgentMapper agentMapper;
     private static final Logger logger = LoggerFactory.getLogger(AgentController.class);
@@ -70,19 +83,32 @@ public class AgentController {
     }
 
     /**
-     * List all agents.
+     * List agents, one keyset page at a time.
      */
     @GetMapping
     @Operation(
         summary = "Get all agents",
-        description = "Retrieves a list of all agents"
+        description = "Retrieves a page of agents, optionally only those with all of the given labels and the given status. Sort by id, name or createdAt (prefix '-' for descending); pass the X-Next-Cursor header value as cursor to get the next page"
     )
-    public ResponseEntity<ApiResponse<List<Agent>>> getAllAgents() {
-        logger.info("Fetching all agents");
+    public ResponseEntity<ApiResponse<List<Agent>>> getAllAgents(
+            @RequestParam(value = "labels", required = false) List<String> labels,
+            @RequestParam(value = "status", required = false) AgentStatus status,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        logger.info("Fetching agents page");
         try {
-            List<Agent> agents = agentService.getAllAgents();
-            logger.info("Successfully retrieved {} agents", agents.size());
-            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agents retrieved successfully", agents));
+            CursorPage<Agent> page = agentService.getAgents(labels, status, sort, cursor, limit);
+            logger.info("Successfully retrieved {} agents", page.getItems().size());
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                ok.header(ResponseUtil.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return ok.body(new ApiResponse<>(HttpStatus.OK.value(), "Agents retrieved successfully", page.getItems()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid agent page request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
         } catch (Exception e) {
             logger.error("Error fetching agents: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -90,6 +116,39 @@ public class AgentController {
         }
     }
 
+    /**
+     * Create agents in bulk.
+     */
+    @PostMapping("/bulk")
+    @Operation(summary = "Create agents in bulk", description = "Creates many agents in chunked JDBC batches and returns one result per item, in request order")
+    public ResponseEntity<ApiResponse<List<BulkItemResultDTO>>> createAgents(@RequestBody List<AgentCreateDTO> items) {
+        logger.info("Bulk creating {} agents", items.size());
+        List<BulkItemResultDTO> results = agentBulkService.createAgents(items);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Bulk agent create processed", results));
+    }
+
+    /**
+     * Update agents in bulk.
+     */
+    @PutMapping("/bulk")
+    @Operation(summary = "Update agents in bulk", description = "Updates many agents in chunked JDBC batches and returns one result per item, in request order")
+    public ResponseEntity<ApiResponse<List<BulkItemResultDTO>>> updateAgents(@RequestBody List<AgentBulkUpdateDTO> items) {
+        logger.info("Bulk updating {} agents", items.size());
+        List<BulkItemResultDTO> results = agentBulkService.updateAgents(items);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Bulk agent update processed", results));
+    }
+
+    /**
+     * Change the status of agents in bulk.
+     */
+    @PatchMapping("/bulk/status")
+    @Operation(summary = "Update agent statuses in bulk", description = "Changes the status of many agents and returns one result per item, in request order")
+    public ResponseEntity<ApiResponse<List<BulkItemResultDTO>>> updateAgentStatuses(@RequestBody List<AgentBulkStatusDTO> items) {
+        logger.info("Bulk updating status of {} agents", items.size());
+        List<BulkItemResultDTO> results = agentBulkService.updateStatuses(items);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Bulk agent status update processed", results));
+    }
+
     /**
      * Get agent by ID.
      */
@@ -147,19 +206,60 @@ public class AgentController {
         }
     }
 
+    /**
+     * Get agent time-in-state statistics.
+     */
+    @GetMapping("/{id}/presence-stats")
+    @Operation(summary = "Get agent presence statistics", description = "Returns the seconds the agent spent in each status on the given day (default today)")
+    public ResponseEntity<ApiResponse<AgentPresenceStatsDTO>> getAgentPresenceStats(
+            @PathVariable @Positive Long id,
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        AgentPresenceStatsDTO stats = agentService.getAgentPresenceStats(id, date);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent presence statistics retrieved successfully", stats));
+    }
+
+    /**
+     * Get workload of all agents.
+     */
+    @GetMapping("/workload")
+    @Operation(summary = "Get agent workloads", description = "Returns open and closed-today conversation counts of every agent that has any")
+    public ResponseEntity<ApiResponse<List<AgentWorkloadDTO>>> getAgentWorkloads() {
+        List<AgentWorkloadDTO> workloads = agentService.getAgentWorkloads();
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent workloads retrieved successfully", workloads));
+    }
+
+    /**
+     * Get agent workload.
+     */
+    @GetMapping("/{id}/workload")
+    @Operation(summary = "Get agent workload", description = "Returns the agent's open and closed-today conversation counts")
+    public ResponseEntity<ApiResponse<AgentWorkloadDTO>> getAgentWorkload(@PathVariable @Positive Long id) {
+        AgentWorkloadDTO workload = agentService.getAgentWorkload(id);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent workload retrieved successfully", workload));
+    }
+
+    /**
+     * Get agent presence.
+     */
+    @GetMapping("/{id}/presence")
+    @Operation(summary = "Get agent presence", description = "Returns the agent's current status, when it changed and its active conversation load")
+    public ResponseEntity<ApiResponse<AgentPresenceDTO>> getAgentPresence(@PathVariable @Positive Long id) {
+        AgentPresenceDTO presence = agentService.getAgentPresence(id);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent presence retrieved successfully", presence));
+    }
+
     /**
      * Update agent status.
      */
     @PatchMapping("/{id}/status")
-    @Transactional
-    public ResponseEntity<ApiResponse<Agent>> updateAgentStatus(
+    public ResponseEntity<ApiResponse<AgentPresenceDTO>> updateAgentStatus(
             @PathVariable @Positive Long id,
             @Valid @RequestBody AgentStatusDTO statusDTO) {
-        logger.info("Updating status for agent with id: {}", id);
+        logger.debug("Updating status for agent with id: {}", id);
         try {
-            Agent updatedAgent = agentService.updateAgentStatus(id, statusDTO);
-            logger.info("Successfully updated agent status to: {} for agent id: {}", statusDTO.getStatus(), id);
-            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent status updated successfully", updatedAgent));
+            AgentPresenceDTO presence = agentService.updateAgentStatus(id, statusDTO);
+            logger.debug("Successfully updated agent status to: {} for agent id: {}", statusDTO.getStatus(), id);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent status updated successfully", presence));
         } catch (ResourceNotFoundException e) {
             logger.error("Agent not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -210,6 +310,27 @@ public class AgentController {
         return ResponseUtil.listResponse(clients, "clients for agent");
     }
 
+    /**
+     * List summaries of the conversations handled by an agent, without chat history.
+     */
+    @GetMapping("/{agentId}/conversations")
+    @Operation(
+        summary = "Get agent conversation summaries",
+        description = "Retrieves ids, client names, times and intent of the agent's conversations without chat history"
+    )
+    public ResponseEntity<ApiResponse<List<ConversationResponseDTO>>> listAgentConversations(
+            @PathVariable @Positive(message = "agentId must be positive") Long agentId) {
+        logger.info("Received request to list conversations for agent: {}", agentId);
+        try {
+            List<ConversationResponseDTO> conversations = agentService.getAgentConversations(agentId);
+            return ResponseUtil.listResponse(conversations, "conversations for agent");
+        } catch (ResourceNotFoundException e) {
+            logger.error("Agent not found with id: {}", agentId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(HttpStatus.NOT_FOUND.value(), e.getMessage(), null));
+        }
+    }
+
     /**
      * Fetch agent details including all conversations.
      */
@@ -245,14 +366,13 @@ public class AgentController {
      * Set agent status to AVAILABLE.
      */
     @PatchMapping("/{id}/available")
-    @Transactional
-    public ResponseEntity<ApiResponse<Agent>> setAgentAvailable(
+    public ResponseEntity<ApiResponse<AgentPresenceDTO>> setAgentAvailable(
             @PathVariable @Positive Long id) {
-        logger.info("Setting agent with id: {} to AVAILABLE", id);
+        logger.debug("Setting agent with id: {} to AVAILABLE", id);
         try {
-            Agent updatedAgent = agentService.setAgentAvailable(id);
-            logger.info("Successfully set agent status to AVAILABLE for agent id: {}", id);
-            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent status set to AVAILABLE", updatedAgent));
+            AgentPresenceDTO presence = agentService.setAgentAvailable(id);
+            logger.debug("Successfully set agent status to AVAILABLE for agent id: {}", id);
+            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Agent status set to AVAILABLE", presence));
         } catch (ResourceNotFoundException e) {
             logger.error("Agent not found with id: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
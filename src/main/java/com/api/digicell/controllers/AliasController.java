@@ -1,8 +1,14 @@
 package com.api.digicell.controllers;
 
+import com.api.digicell.alias.AliasAutomaton;
+import com.api.digicell.alias.AliasCache;
+import com.api.digicell.alias.AliasSnapshot;
 import com.api.digicell.dto.AliasCreateDTO;
+import com.api.digicell.dto.AliasExpandDTO;
 import com.api.digicell.dto.AliasResponseDTO;
 import com.api.digicell.dto.AliasUpdateDTO;
+import com.api.digicell.dto.AliasUsageDTO;
+import com.api.digicell.pagination.CursorPage;
 import com.api.digicell.responses.ApiResponse;
 import com.api.digicell.services.AliasService;
 import lombok.RequiredArgsConstructor;
@@ -11,9 +17,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import com.api.digicell.responses.ResponseUtil;
 
 import java.util.List;
@@ -26,6 +35,9 @@ import java.util.List;
  * GET    /api/v1/aliases/wlc
  * PUT    /api/v1/aliases/wlc  {"value": "Welcome to Digicell"}
  * DELETE /api/v1/aliases/wlc
+ * POST   /api/v1/aliases/expand  {"text": "ty, wlc"}
+ * GET    /api/v1/aliases/suggest?prefix=w
+ * GET    /api/v1/aliases/usage?limit=20
  * </p>
  */
 @RestController
@@ -35,6 +47,7 @@ import java.util.List;
 public class AliasController {
     private static final Logger logger = LoggerFactory.getLogger(AliasController.class);
     private final AliasService aliasService;
+    private final AliasCache aliasCache;
 
     /**
      * Create a new alias.
@@ -53,17 +66,59 @@ public class AliasController {
     }
 
     /**
-     * Retrieve all aliases.
+     * Expand every alias key in the text, matched as whole words, in one pass over it.
+     */
+    @PostMapping("/expand")
+    public ResponseEntity<ApiResponse<AliasAutomaton.Expansion>> expandAliases(@Valid @RequestBody AliasExpandDTO expandDTO) {
+        AliasAutomaton.Expansion expansion = aliasCache.expand(expandDTO.getText());
+        logger.debug("Expanded {} aliases", expansion.replacements());
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Aliases expanded successfully", expansion));
+    }
+
+    /**
+     * Retrieve aliases, one keyset page at a time. Sort by id or key.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<AliasResponseDTO>>> listAliases() {
-        logger.info("Received request to fetch all aliases");
-        List<AliasResponseDTO> aliases = aliasService.getAllAliases();
-        logger.info("Successfully retrieved {} aliases", aliases.size());
-        logger.debug("Retrieved aliases - count: {}, keys: {}", 
-            aliases.size(), aliases.stream().map(AliasResponseDTO::getKey).collect(java.util.stream.Collectors.toList()));
+    public ResponseEntity<ApiResponse<List<AliasResponseDTO>>> listAliases(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        logger.info("Received request to fetch aliases page");
+        CursorPage<AliasResponseDTO> aliases = aliasService.getAliases(sort, cursor, limit);
+        logger.info("Successfully retrieved {} aliases", aliases.getItems().size());
         
-        return ResponseUtil.listResponse(aliases, "aliases");
+        return ResponseUtil.pageResponse(aliases, "aliases");
+    }
+
+    /**
+     * Aliases whose key starts with the prefix, for composer autocomplete. Served from memory; the ETag is
+     * the alias version, so an unchanged alias set answers 304 to If-None-Match.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<AliasResponseDTO>>> suggestAliases(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Positive(message = "limit must be positive")
+            @Max(value = 100, message = "limit must be at most 100") int limit,
+            WebRequest request) {
+        AliasSnapshot snapshot = aliasCache.snapshot();
+        String eTag = "\"" + snapshot.version() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<AliasResponseDTO> aliases = snapshot.suggest(prefix, limit);
+        return ResponseEntity.ok().eTag(eTag)
+                .body(new ApiResponse<>(HttpStatus.OK.value(), "Aliases fetched successfully", aliases));
+    }
+
+    /**
+     * Most used aliases, by lookups and expansions, from in-memory counters.
+     */
+    @GetMapping("/usage")
+    public ResponseEntity<ApiResponse<List<AliasUsageDTO>>> getAliasUsage(
+            @RequestParam(value = "limit", defaultValue = "20") @Positive(message = "limit must be positive")
+            @Max(value = 1000, message = "limit must be at most 1000") int limit) {
+        List<AliasUsageDTO> usage = aliasService.getTopUsage(limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Alias usage fetched successfully", usage));
     }
 
     /**
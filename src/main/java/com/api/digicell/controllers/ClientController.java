@@ -1,21 +1,35 @@
 package com.api.digicell.controllers;
 
+import com.api.digicell.dto.ClientImportResultDTO;
+import com.api.digicell.dto.ClientSuggestionDTO;
 import com.api.digicell.dto.ConvoDto;
 import com.api.digicell.entities.Client;
+import com.api.digicell.pagination.CursorPage;
+import com.api.digicell.services.ClientDetailsService;
+import com.api.digicell.services.ClientImportService;
+import com.api.digicell.services.ClientLookupService;
 import com.api.digicell.services.ClientService;
 import com.api.digicell.responses.ApiResponse;
 import com.api.digicell.responses.ClientDetailsResponse;
+import com.api.digicell.search.ClientSearchIndex;
 import com.api.digicell.responses.ResponseUtil;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.validation.annotation.Validated;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/clients")
@@ -24,17 +38,32 @@ import java.util.List;
 public class ClientController {
     private static final Logger logger = LoggerFactory.getLogger(ClientController.class);
     private final ClientService clientService;
+    private final ClientDetailsService clientDetailsService;
+    private final ClientLookupService clientLookupService;
+    private final ClientImportService clientImportService;
+    private final ClientSearchIndex clientSearchIndex;
 
     /**
-     * List all clients.
+     * List clients, one keyset page at a time. The next page's cursor is returned in the X-Next-Cursor header.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Client>>> listAllClients() {
-        logger.info("Received request to list all clients");
+    public ResponseEntity<ApiResponse<List<Client>>> listAllClients(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        logger.info("Received request to list clients");
         try {
-            List<Client> clients = clientService.getAllClients();
-            logger.debug("Found {} clients", clients.size());
-            return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Clients fetched successfully", clients));
+            CursorPage<Client> page = clientService.getClients(null, sort, cursor, limit);
+            logger.debug("Found {} clients", page.getItems().size());
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                ok.header(ResponseUtil.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return ok.body(new ApiResponse<>(HttpStatus.OK.value(), "Clients fetched successfully", page.getItems()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid client page request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
         } catch (Exception e) {
             logger.error("Error fetching clients: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError()
@@ -42,6 +71,59 @@ public class ClientController {
         }
     }
 
+    /**
+     * Autocomplete: clients whose name (any word of it) or email starts with the prefix, served from memory.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<ClientSuggestionDTO>>> searchClients(
+            @RequestParam("prefix") @NotBlank(message = "prefix is required") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") @Positive(message = "limit must be positive")
+            @Max(value = 50, message = "limit must be at most 50") int limit) {
+        List<ClientSuggestionDTO> clients = clientSearchIndex.search(prefix, limit);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Clients fetched successfully", clients));
+    }
+
+    /**
+     * Find clients by phone (any common format, matched on its E.164 form) or by email. Exactly one of the
+     * two must be given; no match is a 404.
+     */
+    @GetMapping("/lookup")
+    public ResponseEntity<ApiResponse<List<Client>>> lookupClients(@RequestParam(value = "phone", required = false) String phone,
+                                                                   @RequestParam(value = "email", required = false) String email) {
+        if ((phone == null) == (email == null)) {
+            throw new IllegalArgumentException("Exactly one of phone or email is required");
+        }
+        List<Client> clients = phone != null
+                ? clientLookupService.findByPhone(phone)
+                : List.of(clientLookupService.findByEmail(email));
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Clients fetched successfully", clients));
+    }
+
+    /**
+     * Bulk upsert clients from CSV or NDJSON, streamed and written in batches. The format follows the
+     * Content-Type unless {@code format} is given.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ApiResponse<ClientImportResultDTO>> importClients(
+            @RequestParam(value = "importId", required = false) @Size(max = 100, message = "importId must be at most 100 characters") String importId,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        String id = importId != null && !importId.isBlank() ? importId : UUID.randomUUID().toString();
+        String resolvedFormat = format != null ? format : contentType.toLowerCase().contains("csv") ? "csv" : "ndjson";
+        ClientImportResultDTO result = clientImportService.importClients(id, resolvedFormat, body);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Client import completed", result));
+    }
+
+    /**
+     * Progress of a running or recent client import.
+     */
+    @GetMapping("/import/{import_id}")
+    public ResponseEntity<ApiResponse<ClientImportResultDTO>> getImportProgress(@PathVariable("import_id") String importId) {
+        ClientImportResultDTO result = clientImportService.getProgress(importId);
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Client import progress fetched successfully", result));
+    }
+
     /**
      * Get client by id.
      */
@@ -53,27 +135,36 @@ public class ClientController {
     }
 
     /**
-     * Get clients filtered by assignment status.
+     * Get clients filtered by assignment status, one keyset page at a time.
      */
     @GetMapping("/assigned")
-    public ResponseEntity<ApiResponse<List<Client>>> listClientsByAssignment(@RequestParam("status") boolean status) {
-        List<Client> clients = clientService.getClientsByAssignmentStatus(status);
-        return ResponseUtil.listResponse(clients, status? "assigned clients" : "unassigned clients");
+    public ResponseEntity<ApiResponse<List<Client>>> listClientsByAssignment(@RequestParam("status") boolean status,
+                                                                             @RequestParam(value = "sort", required = false) String sort,
+                                                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        CursorPage<Client> page = clientService.getClients(status, sort, cursor, limit);
+        return ResponseUtil.pageResponse(page, status? "assigned clients" : "unassigned clients");
     }
 
     /**
-     * Fetch a client along with all conversation details.
+     * Fetch a client along with all conversation details. With {@code mode=composed} the independent
+     * queries run concurrently under a deadline and the response may be partial.
      */
     @GetMapping("/{client_id}/details")
     public ResponseEntity<ApiResponse<ClientDetailsResponse>> getClientDetails(
-            @PathVariable("client_id") @Positive(message = "client_id must be positive") Long clientId) {
-        logger.info("Received request to get details for client: {}", clientId);
+            @PathVariable("client_id") @Positive(message = "client_id must be positive") Long clientId,
+            @RequestParam(value = "mode", required = false, defaultValue = "sequential") String mode) {
+        logger.info("Received request to get details for client: {} (mode {})", clientId, mode);
         try {
-            ClientDetailsResponse details = clientService.getClientDetails(clientId);
+            ClientDetailsResponse details = switch (mode) {
+                case "sequential" -> clientService.getClientDetails(clientId);
+                case "composed" -> clientDetailsService.getClientDetails(clientId);
+                default -> throw new IllegalArgumentException("mode must be 'sequential' or 'composed'");
+            };
             logger.debug("Successfully fetched details for client: {}", clientId);
             return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Client details fetched successfully", details));
         } catch (IllegalArgumentException e) {
-            logger.warn("Invalid client ID provided: {}", clientId);
+            logger.warn("Invalid client details request for {}: {}", clientId, e.getMessage());
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
         } catch (Exception e) {
@@ -1,19 +1,34 @@
 package com.api.digicell.controllers;
 
 import com.api.digicell.dto.ConversationDTO;
+import com.api.digicell.dto.ConversationImportResultDTO;
+import com.api.digicell.dto.MessageAppendDTO;
+import com.api.digicell.dto.MessageBatchDTO;
+import com.api.digicell.dto.MessagePageDTO;
 import com.api.digicell.entities.Conversation;
 import com.api.digicell.responses.ApiResponse;
 import com.api.digicell.responses.ResponseUtil;
+import com.api.digicell.services.ConversationImportService;
+import com.api.digicell.services.ConversationMessageService;
 import com.api.digicell.services.ConversationService;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.UUID;
 
 import com.api.digicell.dtos.ChatHistoryDTO;
 import io.swagger.v3.oas.annotations.Operation;
@@ -29,24 +44,50 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Conversation", description = "Conversation management APIs")
 public class ConversationController {
 
+    private static final Logger logger = LoggerFactory.getLogger(ConversationController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ConversationService conversationService;
+    private final ConversationMessageService conversationMessageService;
+    private final ConversationImportService conversationImportService;
 
     /**
-     * List all conversations.
+     * List conversations, one keyset page at a time. Sort by id or startTime.
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Conversation>>> listAll() {
-        return ResponseUtil.listResponse(conversationService.getAllConversations(), "conversations");
+    @Operation(summary = "List conversations", description = "Retrieves a page of conversations; pass the X-Next-Cursor header value as cursor to get the next page")
+    public ResponseEntity<ApiResponse<List<Conversation>>> listAll(
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        return ResponseUtil.pageResponse(conversationService.getConversations(sort, cursor, limit), "conversations");
+    }
+
+    /**
+     * Stream all conversations as newline-delimited JSON, one conversation per line, for exports.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export conversations", description = "Streams every conversation as NDJSON while it is read from the database")
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = out -> {
+            long written = conversationService.exportConversations(out);
+            logger.info("Exported {} conversations", written);
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
-     * Get conversation by id.
+     * Get conversation by id, optionally with only the last sessions or messages of its chat history.
      */
     @GetMapping("/{conversation_id}")
-    @Operation(summary = "Get conversation by ID", description = "Retrieves a conversation by its ID")
+    @Operation(summary = "Get conversation by ID", description = "Retrieves a conversation by its ID. lastSessions/lastMessages limit the returned chat history to its end")
     public ResponseEntity<ApiResponse<Conversation>> getById(
-            @PathVariable("conversation_id") @Positive(message = "conversation_id must be positive") Long conversationId) {
-        Conversation conv = conversationService.getConversationById(conversationId);
+            @PathVariable("conversation_id") @Positive(message = "conversation_id must be positive") Long conversationId,
+            @RequestParam(value = "lastSessions", required = false) @Positive(message = "lastSessions must be positive") Integer lastSessions,
+            @RequestParam(value = "lastMessages", required = false) @Positive(message = "lastMessages must be positive") Integer lastMessages) {
+        Conversation conv = lastSessions == null && lastMessages == null
+                ? conversationService.getConversationById(conversationId)
+                : conversationService.getConversationTail(conversationId, lastSessions, lastMessages);
         ApiResponse<Conversation> response = new ApiResponse<>(HttpStatus.OK.value(), "Conversation fetched successfully", conv);
         return ResponseEntity.ok(response);
     }
@@ -94,6 +135,20 @@ public class ConversationController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Bulk import conversations from NDJSON. Re-post with the returned importId to resume an interrupted import.
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Import conversations", description = "Inserts one conversation per NDJSON line in JDBC batches, checkpointing progress under importId")
+    public ResponseEntity<ApiResponse<ConversationImportResultDTO>> importConversations(
+            @RequestParam(value = "importId", required = false) @Size(max = 100, message = "importId must be at most 100 characters") String importId,
+            InputStream body) throws IOException {
+        String id = importId != null && !importId.isBlank() ? importId : UUID.randomUUID().toString();
+        ConversationImportResultDTO result = conversationImportService.importConversations(id, body);
+        ApiResponse<ConversationImportResultDTO> response = new ApiResponse<>(HttpStatus.OK.value(), "Conversation import completed", result);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Update existing conversation.
      */
@@ -105,6 +160,55 @@ public class ConversationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Append a single message to the current session of a conversation.
+     */
+    @PostMapping("/{conversation_id}/messages")
+    @Operation(summary = "Append message", description = "Appends a message to the current session without rewriting prior history")
+    public ResponseEntity<ApiResponse<Void>> appendMessage(@PathVariable("conversation_id") @Positive(message = "conversation_id must be positive") Long conversationId,
+                                                           @Valid @RequestBody MessageAppendDTO message) {
+        conversationService.appendMessages(conversationId, List.of(message), false);
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.CREATED.value(), "Message appended successfully", null);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Append a batch of messages to the current session, or to a new session.
+     */
+    @PostMapping("/{conversation_id}/messages/batch")
+    @Operation(summary = "Append messages", description = "Appends a batch of messages to the current or a new session without rewriting prior history")
+    public ResponseEntity<ApiResponse<Void>> appendMessages(@PathVariable("conversation_id") @Positive(message = "conversation_id must be positive") Long conversationId,
+                                                            @Valid @RequestBody MessageBatchDTO batch) {
+        int appended = conversationService.appendMessages(conversationId, batch.getMessages(), batch.isNewSession());
+        ApiResponse<Void> response = new ApiResponse<>(HttpStatus.CREATED.value(), appended + " messages appended successfully", null);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * Keyset-paginated read of a conversation's messages.
+     */
+    @GetMapping("/{conversation_id}/messages")
+    @Operation(summary = "Get messages", description = "Reads a page of messages after (or before) a sequence number")
+    public ResponseEntity<ApiResponse<MessagePageDTO>> getMessages(@PathVariable("conversation_id") @Positive(message = "conversation_id must be positive") Long conversationId,
+                                                                   @RequestParam(value = "afterSeq", required = false) @PositiveOrZero(message = "afterSeq must not be negative") Long afterSeq,
+                                                                   @RequestParam(value = "beforeSeq", required = false) @Positive(message = "beforeSeq must be positive") Long beforeSeq,
+                                                                   @RequestParam(value = "limit", required = false) @Positive(message = "limit must be positive") Integer limit) {
+        MessagePageDTO page = conversationService.getMessages(conversationId, afterSeq, beforeSeq, limit);
+        ApiResponse<MessagePageDTO> response = new ApiResponse<>(HttpStatus.OK.value(), "Messages fetched successfully", page);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Copy JSON chat histories into the message table.
+     */
+    @PostMapping("/messages/backfill")
+    @Operation(summary = "Backfill message table", description = "Copies JSON chat histories of conversations without message rows into the message table")
+    public ResponseEntity<ApiResponse<Long>> backfillMessages() {
+        long migrated = conversationMessageService.backfill();
+        ApiResponse<Long> response = new ApiResponse<>(HttpStatus.OK.value(), "Chat history backfill completed", migrated);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Delete conversation.
      */
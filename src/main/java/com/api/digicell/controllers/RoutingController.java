@@ -0,0 +1,57 @@
+package com.api.digicell.controllers;
+
+import com.api.digicell.dto.RoutingRequestDTO;
+import com.api.digicell.dto.RoutingResultDTO;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.responses.ApiResponse;
+import com.api.digicell.routing.RoutingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Endpoints for routing waiting clients to agents.
+ * <p>
+ * Example usage:
+ * POST   /api/v1/routing/requests  {"clientId": 3, "intent": "billing"}
+ * DELETE /api/v1/routing/requests/3
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/routing")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "Routing", description = "Client to agent routing APIs")
+public class RoutingController {
+
+    private final RoutingService routingService;
+
+    /**
+     * Route a client to an available agent with a matching label, or queue it until one frees up.
+     */
+    @PostMapping("/requests")
+    @Operation(summary = "Route client", description = "Assigns the client to the least loaded available agent whose labels match the intent, or queues it")
+    public ResponseEntity<ApiResponse<RoutingResultDTO>> route(@Valid @RequestBody RoutingRequestDTO request) {
+        RoutingResultDTO result = routingService.route(request.getClientId(), request.getIntent());
+        HttpStatus status = result.getStatus() == RoutingResultDTO.Status.ASSIGNED ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        String message = result.getStatus() == RoutingResultDTO.Status.ASSIGNED ? "Client assigned to agent" : "Client queued for routing";
+        return ResponseEntity.status(status).body(new ApiResponse<>(status.value(), message, result));
+    }
+
+    /**
+     * Remove a queued client.
+     */
+    @DeleteMapping("/requests/{client_id}")
+    public ResponseEntity<ApiResponse<Void>> cancel(@PathVariable("client_id") @Positive(message = "client_id must be positive") Long clientId) {
+        if (!routingService.cancel(clientId)) {
+            throw new ResourceNotFoundException("No routing request waiting for client " + clientId);
+        }
+        return ResponseEntity.ok(new ApiResponse<>(HttpStatus.OK.value(), "Routing request cancelled", null));
+    }
+}
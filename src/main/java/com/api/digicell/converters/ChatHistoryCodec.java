@@ -0,0 +1,155 @@
+package com.api.digicell.converters;
+
+import net.jpountz.lz4.LZ4Factory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codecs used to store chat history. An encoded payload is framed as
+ * {@code [codec id (1 byte)][uncompressed length (4 bytes)][body]}, so every row records how it was
+ * written and rows keep reading correctly after the configured codec changes.
+ * <p>
+ * {@link #JSON} means "no compression": such histories are stored as a plain JSON array and carry no frame.
+ * {@link #SMILE} is not a byte compressor: its body is the history written in the binary Smile format,
+ * which is smaller than JSON text and cheaper to parse.
+ * </p>
+ */
+public enum ChatHistoryCodec {
+    JSON((byte) 0) {
+        @Override
+        byte[] compress(byte[] raw) {
+            return raw;
+        }
+
+        @Override
+        byte[] decompress(byte[] body, int offset, int originalLength) {
+            byte[] raw = new byte[originalLength];
+            System.arraycopy(body, offset, raw, 0, originalLength);
+            return raw;
+        }
+    },
+    DEFLATE((byte) 1) {
+        @Override
+        byte[] compress(byte[] raw) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+            try {
+                deflater.setInput(raw);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+                byte[] buffer = new byte[8192];
+                while (!deflater.finished()) {
+                    out.write(buffer, 0, deflater.deflate(buffer));
+                }
+                return out.toByteArray();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        @Override
+        byte[] decompress(byte[] body, int offset, int originalLength) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(body, offset, body.length - offset);
+                byte[] raw = new byte[originalLength];
+                int read = 0;
+                while (read < originalLength && !inflater.finished()) {
+                    int n = inflater.inflate(raw, read, originalLength - read);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read != originalLength) {
+                    throw new IllegalArgumentException("Truncated deflate chat history payload");
+                }
+                return raw;
+            } catch (DataFormatException e) {
+                throw new IllegalArgumentException("Corrupt deflate chat history payload", e);
+            } finally {
+                inflater.end();
+            }
+        }
+    },
+    LZ4((byte) 2) {
+        @Override
+        byte[] compress(byte[] raw) {
+            return LZ4_FACTORY.fastCompressor().compress(raw);
+        }
+
+        @Override
+        byte[] decompress(byte[] body, int offset, int originalLength) {
+            byte[] raw = new byte[originalLength];
+            LZ4_FACTORY.fastDecompressor().decompress(body, offset, raw, 0, originalLength);
+            return raw;
+        }
+    },
+    SMILE((byte) 3) {
+        @Override
+        byte[] compress(byte[] raw) {
+            return raw;
+        }
+
+        @Override
+        byte[] decompress(byte[] body, int offset, int originalLength) {
+            return JSON.decompress(body, offset, originalLength);
+        }
+    };
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+    private static final int HEADER_LENGTH = 5;
+
+    private final byte id;
+
+    ChatHistoryCodec(byte id) {
+        this.id = id;
+    }
+
+    abstract byte[] compress(byte[] raw);
+
+    abstract byte[] decompress(byte[] body, int offset, int originalLength);
+
+    /**
+     * Compresses the raw bytes and prepends the codec header.
+     */
+    public byte[] encode(byte[] raw) {
+        byte[] body = compress(raw);
+        return ByteBuffer.allocate(HEADER_LENGTH + body.length)
+                .put(id)
+                .putInt(raw.length)
+                .put(body)
+                .array();
+    }
+
+    /**
+     * Decodes a framed payload with whichever codec its header names.
+     */
+    public static byte[] decode(byte[] payload) {
+        ChatHistoryCodec codec = of(payload);
+        int originalLength = ByteBuffer.wrap(payload, 1, 4).getInt();
+        return codec.decompress(payload, HEADER_LENGTH, originalLength);
+    }
+
+    /**
+     * The codec named in a framed payload's header.
+     */
+    public static ChatHistoryCodec of(byte[] payload) {
+        if (payload.length < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Chat history payload is too short to contain a codec header");
+        }
+        return fromId(payload[0]);
+    }
+
+    public static ChatHistoryCodec fromId(byte id) {
+        for (ChatHistoryCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown chat history codec id: " + id);
+    }
+}
@@ -1,28 +1,76 @@
 package com.api.digicell.converters;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.api.digicell.entities.ChatMessage;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * JPA converter that converts List<List<ChatMessage>> to JSON String for persistence
  * and vice-versa.
+ * <p>
+ * Histories whose JSON is at least the configured threshold are compressed with the configured
+ * {@link ChatHistoryCodec} and stored as a JSON string holding the base64 of the framed payload, so the
+ * column keeps its {@code json} type. Plain JSON arrays (all rows written before compression existed)
+ * are read as before. Histories of open conversations are kept plain (see
+ * {@link #convertToDatabaseColumn(List, boolean)}), since MySQL can only append to a stored JSON array. Reading and writing go through {@link ChatHistoryStreams} rather than an ObjectMapper.
+ * </p>
  */
 @Converter
 public class ChatHistoryConverter implements AttributeConverter<List<List<ChatMessage>>, String> {
     private static final Logger logger = LoggerFactory.getLogger(ChatHistoryConverter.class);
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule())
-            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+
+    private static volatile ChatHistoryCodec codec = ChatHistoryCodec.JSON;
+    private static volatile int compressionThreshold = Integer.MAX_VALUE;
+
+    /**
+     * Sets the codec used for new writes and the minimum JSON size (in bytes) that gets compressed.
+     * Hibernate instantiates converters itself, so the settings are applied statically at startup.
+     */
+    public static void configure(ChatHistoryCodec newCodec, int thresholdBytes) {
+        codec = newCodec;
+        compressionThreshold = thresholdBytes;
+        logger.info("Chat history codec set to {} for histories of at least {} bytes", newCodec, thresholdBytes);
+    }
+
+    /**
+     * Whether new writes may be compressed at all.
+     */
+    public static boolean isCompressionEnabled() {
+        return codec != ChatHistoryCodec.JSON;
+    }
+
+    /**
+     * Encodes the history of a conversation that is {@code open} as plain JSON whatever the codec, so
+     * appends keep taking the SQL-side path instead of decoding and re-encoding the whole history. Closed
+     * conversations go through the configured codec; open ones are compressed once closed, or later by
+     * the re-encode job.
+     */
+    public String convertToDatabaseColumn(List<List<ChatMessage>> attribute, boolean open) {
+        if (!open || attribute == null || attribute.isEmpty()) {
+            return convertToDatabaseColumn(attribute);
+        }
+        try {
+            return new String(writeJson(attribute), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Error converting chat history to JSON: {}", e.getMessage(), e);
+            throw new IllegalArgumentException("Unable to convert chat history to JSON", e);
+        }
+    }
 
     @Override
     public String convertToDatabaseColumn(List<List<ChatMessage>> attribute) {
@@ -32,8 +80,8 @@ public class ChatHistoryConverter implements AttributeConverter<List<List<ChatMe
         }
         try {
             logger.debug("Converting chat history with {} sessions to JSON", attribute.size());
-            return objectMapper.writeValueAsString(attribute);
-        } catch (JsonProcessingException e) {
+            return encode(attribute);
+        } catch (IOException e) {
             logger.error("Error converting chat history to JSON: {}", e.getMessage(), e);
             throw new IllegalArgumentException("Unable to convert chat history to JSON", e);
         }
@@ -47,12 +95,106 @@ public class ChatHistoryConverter implements AttributeConverter<List<List<ChatMe
         }
         try {
             logger.debug("Converting JSON to chat history");
-            return objectMapper.readValue(dbData, 
-                objectMapper.getTypeFactory().constructCollectionType(List.class, 
-                    objectMapper.getTypeFactory().constructCollectionType(List.class, ChatMessage.class)));
-        } catch (JsonProcessingException e) {
+            return read(dbData);
+        } catch (IOException | RuntimeException e) {
             logger.error("Error converting JSON to chat history: {}", e.getMessage(), e);
             throw new IllegalArgumentException("Unable to convert JSON to chat history", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Serializes a flat list of messages to a JSON array, using the same date handling as the
+     * chat history column. Used by SQL-side appends that splice the array into the stored document.
+     */
+    public static String toJsonArray(List<ChatMessage> messages) {
+        try {
+            ByteArrayBuilder out = new ByteArrayBuilder();
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+                ChatHistoryStreams.writeMessages(generator, messages);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Error converting chat messages to JSON: {}", e.getMessage(), e);
+            throw new IllegalArgumentException("Unable to convert chat messages to JSON", e);
+        }
+    }
+
+    /**
+     * Encodes a stored plain JSON chat history with the configured codec, leaving it unchanged when
+     * compression is disabled or the document is below the threshold. Used to re-encode existing rows.
+     */
+    public static String encode(String json) throws IOException {
+        ChatHistoryCodec current = codec;
+        if (current == ChatHistoryCodec.JSON || json.length() < compressionThreshold) {
+            return json;
+        }
+        byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < compressionThreshold) {
+            return json;
+        }
+        if (current == ChatHistoryCodec.SMILE) {
+            return frame(current, writeSmile(read(json)));
+        }
+        return frame(current, raw);
+    }
+
+    /**
+     * Whether a stored column value is a compressed payload rather than a plain JSON array.
+     */
+    public static boolean isEncoded(String dbData) {
+        return dbData != null && dbData.strip().startsWith("\"");
+    }
+
+    /**
+     * For {@link ChatHistoryCodec#SMILE} the threshold is compared with the Smile size, so the history
+     * is only serialized once in the common (large) case.
+     */
+    static String encode(List<List<ChatMessage>> history) throws IOException {
+        ChatHistoryCodec current = codec;
+        if (current == ChatHistoryCodec.SMILE) {
+            byte[] smile = writeSmile(history);
+            if (smile.length >= compressionThreshold) {
+                return frame(current, smile);
+            }
+        }
+        byte[] json = writeJson(history);
+        if (current == ChatHistoryCodec.JSON || current == ChatHistoryCodec.SMILE || json.length < compressionThreshold) {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+        return frame(current, json);
+    }
+
+    static List<List<ChatMessage>> read(String dbData) throws IOException {
+        String value = dbData.strip();
+        if (value.isEmpty() || value.charAt(0) != '"') {
+            try (JsonParser parser = JSON_FACTORY.createParser(value)) {
+                return ChatHistoryStreams.readHistory(parser);
+            }
+        }
+        byte[] payload = Base64.getDecoder().decode(value.substring(1, value.length() - 1));
+        JsonFactory factory = ChatHistoryCodec.of(payload) == ChatHistoryCodec.SMILE ? SMILE_FACTORY : JSON_FACTORY;
+        try (JsonParser parser = factory.createParser(ChatHistoryCodec.decode(payload))) {
+            return ChatHistoryStreams.readHistory(parser);
+        }
+    }
+
+    private static String frame(ChatHistoryCodec current, byte[] body) {
+        return '"' + Base64.getEncoder().encodeToString(current.encode(body)) + '"';
+    }
+
+    private static byte[] writeJson(List<List<ChatMessage>> history) throws IOException {
+        ByteArrayBuilder out = new ByteArrayBuilder();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            ChatHistoryStreams.writeHistory(generator, history);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] writeSmile(List<List<ChatMessage>> history) throws IOException {
+        ByteArrayBuilder out = new ByteArrayBuilder();
+        try (JsonGenerator generator = SMILE_FACTORY.createGenerator(out)) {
+            ChatHistoryStreams.writeHistory(generator, history);
+        }
+        return out.toByteArray();
+    }
+}
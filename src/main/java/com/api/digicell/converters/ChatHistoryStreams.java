@@ -0,0 +1,198 @@
+package com.api.digicell.converters;
+
+import com.api.digicell.entities.ChatMessage;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written streaming reader and writer for chat histories. Works token by token on any Jackson
+ * parser or generator (JSON text or Smile), so no tree or bean introspection is involved.
+ * <p>
+ * The output is identical to the ObjectMapper with JavaTimeModule used before, including field order:
+ * timestamps are ISO-8601 local date-times, null fields are written as nulls. Unknown fields are skipped when reading.
+ * </p>
+ */
+final class ChatHistoryStreams {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private ChatHistoryStreams() {
+    }
+
+    static void writeHistory(JsonGenerator generator, List<List<ChatMessage>> history) throws IOException {
+        generator.writeStartArray(history, history.size());
+        for (List<ChatMessage> session : history) {
+            writeMessages(generator, session);
+        }
+        generator.writeEndArray();
+    }
+
+    static void writeMessages(JsonGenerator generator, List<ChatMessage> messages) throws IOException {
+        if (messages == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartArray(messages, messages.size());
+        for (ChatMessage message : messages) {
+            if (message == null) {
+                generator.writeNull();
+                continue;
+            }
+            generator.writeStartObject();
+            generator.writeStringField("content", message.getContent());
+            if (message.getTimestamp() != null) {
+                generator.writeStringField("timestamp", formatTimestamp(message.getTimestamp()));
+            } else {
+                generator.writeNullField("timestamp");
+            }
+            generator.writeStringField("role", message.getRole());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    static List<List<ChatMessage>> readHistory(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return new ArrayList<>();
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<List<ChatMessage>> history = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            history.add(token == JsonToken.VALUE_NULL ? null : readMessages(parser, token));
+        }
+        return history;
+    }
+
+    private static List<ChatMessage> readMessages(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_ARRAY);
+        List<ChatMessage> messages = new ArrayList<>();
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            messages.add(token == JsonToken.VALUE_NULL ? null : readMessage(parser, token));
+        }
+        return messages;
+    }
+
+    private static ChatMessage readMessage(JsonParser parser, JsonToken token) throws IOException {
+        expect(parser, token, JsonToken.START_OBJECT);
+        ChatMessage message = new ChatMessage();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "role" -> message.setRole(value == JsonToken.VALUE_NULL ? null : parser.getText());
+                case "content" -> message.setContent(value == JsonToken.VALUE_NULL ? null : parser.getText());
+                case "timestamp" -> message.setTimestamp(readTimestamp(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Accepts ISO strings and the {@code [year, month, day, hour, minute, second, nano]} array form that
+     * JavaTimeModule writes when dates are serialized as timestamps.
+     */
+    private static LocalDateTime readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return parseTimestamp(parser.getText());
+        }
+        expect(parser, token, JsonToken.START_ARRAY);
+        int[] parts = new int[7];
+        int i = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (i < parts.length) {
+                parts[i++] = parser.getIntValue();
+            }
+        }
+        return LocalDateTime.of(parts[0], parts[1], parts[2], parts[3], parts[4], parts[5], parts[6]);
+    }
+
+    /**
+     * Formats whole-second timestamps without going through {@link DateTimeFormatter}, which dominates
+     * the cost of writing a message. Output matches {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+     */
+    static String formatTimestamp(LocalDateTime timestamp) {
+        int year = timestamp.getYear();
+        if (timestamp.getNano() != 0 || year < 0 || year > 9999) {
+            return TIMESTAMP_FORMAT.format(timestamp);
+        }
+        char[] out = new char[19];
+        digits(out, 0, year, 4);
+        out[4] = '-';
+        digits(out, 5, timestamp.getMonthValue(), 2);
+        out[7] = '-';
+        digits(out, 8, timestamp.getDayOfMonth(), 2);
+        out[10] = 'T';
+        digits(out, 11, timestamp.getHour(), 2);
+        out[13] = ':';
+        digits(out, 14, timestamp.getMinute(), 2);
+        out[16] = ':';
+        digits(out, 17, timestamp.getSecond(), 2);
+        return new String(out);
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm:ss[.fraction]} by hand, falling back to {@link LocalDateTime#parse}
+     * for any other ISO form.
+     */
+    static LocalDateTime parseTimestamp(String text) {
+        int length = text.length();
+        if (length >= 19 && length != 20 && length <= 29 && text.charAt(4) == '-' && text.charAt(7) == '-'
+                && text.charAt(10) == 'T' && text.charAt(13) == ':' && text.charAt(16) == ':'
+                && (length == 19 || text.charAt(19) == '.')) {
+            int year = number(text, 0, 4);
+            int month = number(text, 5, 7);
+            int day = number(text, 8, 10);
+            int hour = number(text, 11, 13);
+            int minute = number(text, 14, 16);
+            int second = number(text, 17, 19);
+            int nano = 0;
+            if (length > 19) {
+                nano = number(text, 20, length);
+                for (int i = length - 20; i < 9 && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+            if ((year | month | day | hour | minute | second | nano) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+            }
+        }
+        return LocalDateTime.parse(text);
+    }
+
+    private static void digits(char[] out, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /** Decimal value of {@code text[start, end)}, or -1 if it contains a non-digit. */
+    private static int number(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected token " + actual + " in chat history at " + parser.currentLocation() + ", expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.api.digicell.converters;
+
+/**
+ * E.164 normalization of phone numbers as they arrive from callers and imports ({@code +1-555-0101},
+ * {@code (555) 0101}, {@code 0015550101}, {@code 5550101}). Formatting characters are dropped; a leading
+ * {@code +} or {@code 00} marks an international number, anything else is taken as national and gets the
+ * default country code. {@link com.api.digicell.repository.ClientPhoneIndex} computes the same key in MySQL,
+ * so both must change together.
+ */
+public final class PhoneNumbers {
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * @return the number as {@code +} and 4 to 15 digits, or null if it cannot be one
+     */
+    public static String toE164(String raw, String defaultCountryCode) {
+        if (raw == null) {
+            return null;
+        }
+        String trimmed = raw.trim();
+        String digits = trimmed.replaceAll("[^0-9]", "");
+        String key;
+        if (trimmed.startsWith("+")) {
+            key = "+" + digits;
+        } else if (digits.startsWith("00")) {
+            key = "+" + digits.substring(2);
+        } else {
+            key = "+" + defaultCountryCode + digits;
+        }
+        return key.matches("\\+[1-9][0-9]{3,14}") ? key : null;
+    }
+}
@@ -0,0 +1,170 @@
+package com.api.digicell.datagen;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.entities.ChatMessage;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+/**
+ * Field values for generated agents, clients and conversations. Everything is drawn from the given
+ * random generator, so a fixed seed gives the same dataset.
+ * <p>
+ * Sizes are long-tailed like production traffic: sessions per conversation are geometric, messages per
+ * session and characters per message log-normal around the configured medians. Labels and intents
+ * follow fixed skewed weights.
+ * </p>
+ */
+public class SyntheticData {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "Jos\u00e9", "Mar\u00eda", "Fran\u00e7ois", "Zo\u00eb", "Ana", "Luis", "Wei", "Aisha", "Kwame", "Priya"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "\u00c1lvarez", "M\u00fcller", "O'Brien", "Nguyen", "Charles", "Pierre", "Campbell", "Thompson", "Lee", "Baptiste"};
+    private static final String[] PHONE_FORMATS = {"+1-555-%07d", "(555) %03d-%04d", "00509 %04d %04d", "555%07d"};
+
+    private static final String[] LABELS = {"support", "sales", "billing", "technical", "roaming", "retention", "spanish", "french", "vip"};
+    private static final ZipfSampler LABEL_SAMPLER = new ZipfSampler(LABELS.length, 1.0);
+    private static final String[] INTENTS = {
+            "billing_inquiry", "technical_support", "plan_upgrade", "sim_activation", "roaming",
+            "number_porting", "complaint", "device_unlock", "cancellation", "lost_phone"};
+    private static final ZipfSampler INTENT_SAMPLER = new ZipfSampler(INTENTS.length, 1.0);
+    /** Relative chance of a conversation starting in each hour of the day. */
+    private static final int[] HOUR_WEIGHTS = {1, 1, 1, 1, 1, 2, 4, 8, 12, 14, 14, 13, 12, 13, 14, 13, 12, 10, 9, 8, 6, 4, 3, 2};
+    private static final int HOUR_WEIGHT_TOTAL = Arrays.stream(HOUR_WEIGHTS).sum();
+
+    private static final String[] WORDS = {
+            "hello", "my", "phone", "bill", "is", "not", "working", "since", "yesterday", "can", "you", "check",
+            "the", "account", "please", "data", "plan", "roaming", "credit", "top-up", "signal", "sim", "card",
+            "thank", "for", "waiting", "I", "will", "transfer", "refund", "number", "activate", "today", "ok"};
+
+    private final RandomGenerator random;
+    private final double medianMessages;
+    private final int maxMessagesPerSession;
+    private final double medianContentLength;
+    private final int maxContentLength;
+
+    public SyntheticData(RandomGenerator random, double medianMessages, int maxMessagesPerSession,
+                         double medianContentLength, int maxContentLength) {
+        this.random = random;
+        this.medianMessages = medianMessages;
+        this.maxMessagesPerSession = maxMessagesPerSession;
+        this.medianContentLength = medianContentLength;
+        this.maxContentLength = maxContentLength;
+    }
+
+    public String name() {
+        return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+    }
+
+    /**
+     * A unique email for the {@code n}th generated person of a run.
+     */
+    public static String email(String name, long n, String runTag, String domain) {
+        String local = Normalizer.normalize(name, Normalizer.Form.NFD).toLowerCase(Locale.ROOT)
+                .replaceAll("\\p{M}", "").replaceAll("[^a-z]+", ".").replaceAll("^\\.|\\.$", "");
+        return local + "." + n + "." + runTag + "@" + domain;
+    }
+
+    /**
+     * A phone number in one of the formats clients actually type.
+     */
+    public String phone() {
+        String format = pick(PHONE_FORMATS);
+        return format.contains("%07d")
+                ? String.format(format, random.nextInt(10_000_000))
+                : String.format(format, random.nextInt(format.contains("%03d") ? 1000 : 10_000), random.nextInt(10_000));
+    }
+
+    /**
+     * One to three labels, the common ones most often.
+     */
+    public List<String> labels() {
+        int count = 1 + random.nextInt(3);
+        Set<String> labels = new LinkedHashSet<>();
+        while (labels.size() < count) {
+            labels.add(LABELS[LABEL_SAMPLER.next(random)]);
+        }
+        return new ArrayList<>(labels);
+    }
+
+    public AgentStatus agentStatus() {
+        int roll = random.nextInt(100);
+        return roll < 60 ? AgentStatus.AVAILABLE : roll < 80 ? AgentStatus.BREAK : AgentStatus.LOGOUT;
+    }
+
+    public String intent() {
+        return INTENTS[INTENT_SAMPLER.next(random)];
+    }
+
+    public String summary(String intent, int messages) {
+        return "Customer contacted about " + intent.replace('_', ' ') + "; " + messages + " messages exchanged.";
+    }
+
+    /**
+     * A start time within the {@code days} before {@code now}, weighted towards business hours.
+     */
+    public LocalDateTime startTime(LocalDateTime now, int days) {
+        int roll = random.nextInt(HOUR_WEIGHT_TOTAL);
+        int hour = 0;
+        while (roll >= HOUR_WEIGHTS[hour]) {
+            roll -= HOUR_WEIGHTS[hour++];
+        }
+        return now.toLocalDate().minusDays(random.nextInt(days)).atTime(hour, random.nextInt(60), random.nextInt(60));
+    }
+
+    /**
+     * A chat history starting at {@code start}: sessions hours apart, messages in a session seconds to
+     * minutes apart, alternating between user and agent.
+     */
+    public List<List<ChatMessage>> chatHistory(LocalDateTime start) {
+        int sessions = 1;
+        while (sessions < 10 && random.nextInt(100) < 35) {
+            sessions++;
+        }
+        List<List<ChatMessage>> history = new ArrayList<>(sessions);
+        LocalDateTime time = start;
+        for (int s = 0; s < sessions; s++) {
+            int messages = logNormal(medianMessages, 0.9, 1, maxMessagesPerSession);
+            List<ChatMessage> session = new ArrayList<>(messages);
+            for (int m = 0; m < messages; m++) {
+                time = time.plusSeconds(5 + random.nextInt(180));
+                session.add(new ChatMessage(m % 2 == 0 ? "user" : "agent", content(), time));
+            }
+            history.add(session);
+            time = time.plusHours(1 + random.nextInt(48));
+        }
+        return history;
+    }
+
+    private String content() {
+        int length = logNormal(medianContentLength, 1.0, 1, maxContentLength);
+        StringBuilder content = new StringBuilder(length + 16);
+        while (content.length() < length) {
+            if (content.length() > 0) {
+                content.append(' ');
+            }
+            content.append(pick(WORDS));
+        }
+        content.setLength(length);
+        return content.toString();
+    }
+
+    private int logNormal(double median, double sigma, int min, int max) {
+        long value = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,261 @@
+package com.api.digicell.datagen;
+
+import com.api.digicell.converters.ChatHistoryConverter;
+import com.api.digicell.converters.StringListConverter;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.ConversationMessage;
+import com.api.digicell.mapper.ConversationRowMapper;
+import com.api.digicell.repository.AgentBatchRepository;
+import com.api.digicell.repository.ClientBatchRepository;
+import com.api.digicell.repository.ConversationBatchRepository;
+import com.api.digicell.services.ConversationMessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Fills the configured database with a production-sized synthetic dataset, for reproducing query plans
+ * and heap profiles locally. Only active with the {@code datagen} profile, see
+ * {@code application-datagen.properties}:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.profiles=local,datagen -Dspring-boot.run.arguments=--digicell.datagen.clients=2000000
+ * </pre>
+ * <p>
+ * Agents, clients and conversations are added to whatever is already stored, in that order, through the
+ * same JDBC batch repositories as the bulk endpoints, {@code digicell.datagen.batch-size} rows per batch
+ * and transaction. Conversations pick their client and agent from Zipf distributions
+ * ({@code digicell.datagen.client-skew}, {@code digicell.datagen.agent-skew}), so a few clients and agents
+ * own a large share of them, and get long-tailed chat histories from {@link SyntheticData}. Histories of
+ * closed conversations are encoded with the configured chat history codec, open ones stay plain JSON, and
+ * in table storage mode all go to the message table.
+ * A fraction of conversations is left open, at most one per client and agent pair. The statements are
+ * plain INSERTs, so an embedded database can be filled too, but only MySQL shows production query plans.
+ * </p>
+ * The same {@code digicell.datagen.seed} produces the same dataset; emails carry a per-run tag so runs can
+ * be stacked. The application exits when the generator is done unless {@code digicell.datagen.exit} is false.
+ */
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+    private static final int PROGRESS_LOG_BATCHES = 100;
+
+    private final AgentBatchRepository agentBatchRepository;
+    private final ClientBatchRepository clientBatchRepository;
+    private final ConversationBatchRepository conversationBatchRepository;
+    private final ConversationMessageService messageService;
+    private final ConversationRowMapper rowMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+    private final ChatHistoryConverter chatHistoryConverter = new ChatHistoryConverter();
+    private final StringListConverter labelsConverter = new StringListConverter();
+
+    @Value("${digicell.datagen.agents:500}")
+    private int agents;
+
+    @Value("${digicell.datagen.clients:1000000}")
+    private int clients;
+
+    @Value("${digicell.datagen.conversations:3000000}")
+    private long conversations;
+
+    @Value("${digicell.datagen.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${digicell.datagen.seed:42}")
+    private long seed;
+
+    @Value("${digicell.datagen.client-skew:0.8}")
+    private double clientSkew;
+
+    @Value("${digicell.datagen.agent-skew:0.5}")
+    private double agentSkew;
+
+    @Value("${digicell.datagen.days:365}")
+    private int days;
+
+    @Value("${digicell.datagen.open-fraction:0.02}")
+    private double openFraction;
+
+    @Value("${digicell.datagen.median-messages-per-session:8}")
+    private double medianMessages;
+
+    @Value("${digicell.datagen.max-messages-per-session:500}")
+    private int maxMessagesPerSession;
+
+    @Value("${digicell.datagen.median-content-length:60}")
+    private double medianContentLength;
+
+    @Value("${digicell.datagen.max-content-length:4000}")
+    private int maxContentLength;
+
+    @Value("${digicell.datagen.email-domain:datagen.example}")
+    private String emailDomain;
+
+    @Value("${digicell.datagen.exit:true}")
+    private boolean exit;
+
+    public SyntheticDataGenerator(AgentBatchRepository agentBatchRepository,
+                                  ClientBatchRepository clientBatchRepository,
+                                  ConversationBatchRepository conversationBatchRepository,
+                                  ConversationMessageService messageService,
+                                  ConversationRowMapper rowMapper,
+                                  TransactionTemplate transactionTemplate,
+                                  ConfigurableApplicationContext context) {
+        this.agentBatchRepository = agentBatchRepository;
+        this.clientBatchRepository = clientBatchRepository;
+        this.conversationBatchRepository = conversationBatchRepository;
+        this.messageService = messageService;
+        this.rowMapper = rowMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (agents < 1 || clients < 1 || conversations < 0 || batchSize < 1 || days < 1) {
+            throw new IllegalArgumentException("digicell.datagen needs at least one agent, client, day and row per batch");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        SyntheticData data = new SyntheticData(random, medianMessages, maxMessagesPerSession, medianContentLength, maxContentLength);
+        String runTag = Long.toString(System.currentTimeMillis(), 36);
+        LocalDateTime now = LocalDateTime.now();
+        logger.info("Generating {} agents, {} clients and {} conversations (seed {}, run {})",
+                agents, clients, conversations, seed, runTag);
+
+        long[] agentIds = insert("agents", agents, i -> agentRow(data, i, runTag, now), agentBatchRepository::insertAgents);
+        long[] clientIds = insert("clients", clients, i -> clientRow(data, i, runTag, now), clientBatchRepository::insertClients);
+        generateConversations(random, data, agentIds, clientIds, now);
+        int assigned = clientBatchRepository.markAssignedWithOpenConversations();
+        logger.info("Synthetic dataset complete - {} clients with open conversations marked assigned", assigned);
+
+        if (exit) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * Inserts {@code count} rows made by {@code row}, batch by batch.
+     * @return the generated ids, in row order
+     */
+    private long[] insert(String table, int count, IntFunction<Map<String, Object>> row,
+                          Function<List<Map<String, Object>>, List<Long>> writer) {
+        long[] ids = new long[count];
+        long started = System.nanoTime();
+        List<Map<String, Object>> rows = new ArrayList<>(Math.min(batchSize, count));
+        for (int from = 0; from < count; from += batchSize) {
+            int to = Math.min(from + batchSize, count);
+            rows.clear();
+            for (int i = from; i < to; i++) {
+                rows.add(row.apply(i));
+            }
+            List<Long> batchIds = transactionTemplate.execute(status -> writer.apply(rows));
+            for (int i = from; i < to; i++) {
+                ids[i] = batchIds.get(i - from);
+            }
+            logProgress(table, to, count, from / batchSize + 1, started);
+        }
+        return ids;
+    }
+
+    private void generateConversations(SplittableRandom random, SyntheticData data, long[] agentIds, long[] clientIds,
+                                       LocalDateTime now) {
+        ZipfSampler clientSampler = new ZipfSampler(clientIds.length, clientSkew);
+        ZipfSampler agentSampler = new ZipfSampler(agentIds.length, agentSkew);
+        boolean tableMode = messageService.isTableMode();
+        Set<Long> openPairs = new HashSet<>();
+        long started = System.nanoTime();
+        List<Map<String, Object>> rows = new ArrayList<>(batchSize);
+        List<List<List<ChatMessage>>> histories = new ArrayList<>(batchSize);
+        long batches = 0;
+        for (long from = 0; from < conversations; from += batchSize) {
+            long to = Math.min(from + batchSize, conversations);
+            rows.clear();
+            histories.clear();
+            for (long i = from; i < to; i++) {
+                int client = clientSampler.scatter(clientSampler.next(random));
+                int agent = agentSampler.scatter(agentSampler.next(random));
+                boolean open = random.nextDouble() < openFraction && openPairs.add((long) client * agentIds.length + agent);
+                LocalDateTime start = open ? now.minusMinutes(1 + random.nextInt(600)) : data.startTime(now, days);
+                List<List<ChatMessage>> history = data.chatHistory(start);
+                List<ChatMessage> lastSession = history.get(history.size() - 1);
+                String intent = data.intent();
+
+                Map<String, Object> row = new HashMap<>();
+                row.put("clientId", clientIds[client]);
+                row.put("agentId", agentIds[agent]);
+                row.put("intent", intent);
+                row.put("startTime", start);
+                row.put("endTime", open ? null : lastSession.get(lastSession.size() - 1).getTimestamp().plusMinutes(1 + random.nextInt(10)));
+                row.put("chatHistory", chatHistoryConverter.convertToDatabaseColumn(tableMode ? null : history, open));
+                row.put("chatSummary", data.summary(intent, history.stream().mapToInt(List::size).sum()));
+                rows.add(row);
+                histories.add(history);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> ids = conversationBatchRepository.insertConversations(rows);
+                if (tableMode) {
+                    conversationBatchRepository.insertMessages(toMessages(ids, histories));
+                }
+            });
+            logProgress("conversations", to, conversations, ++batches, started);
+        }
+    }
+
+    private Map<String, Object> agentRow(SyntheticData data, int index, String runTag, LocalDateTime now) {
+        String name = data.name();
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", name);
+        row.put("email", SyntheticData.email(name, index, runTag, emailDomain));
+        row.put("avatarUrl", null);
+        row.put("labels", labelsConverter.convertToDatabaseColumn(data.labels()));
+        row.put("status", data.agentStatus().name());
+        row.put("now", now);
+        return row;
+    }
+
+    private Map<String, Object> clientRow(SyntheticData data, int index, String runTag, LocalDateTime now) {
+        String name = data.name();
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", name);
+        row.put("email", SyntheticData.email(name, index, runTag, emailDomain));
+        row.put("phone", data.phone());
+        row.put("now", now);
+        return row;
+    }
+
+    private List<ConversationMessage> toMessages(List<Long> ids, List<List<List<ChatMessage>>> histories) {
+        List<ConversationMessage> messages = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            messages.addAll(rowMapper.toMessageRows(ids.get(i), histories.get(i)));
+        }
+        return messages;
+    }
+
+    private static void logProgress(String table, long written, long total, long batches, long started) {
+        if (batches % PROGRESS_LOG_BATCHES != 0 && written < total) {
+            return;
+        }
+        long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        logger.info("Generated {} of {} {} ({} rows/s)", written, total, table, written * 1000 / elapsedMs);
+    }
+}
@@ -0,0 +1,53 @@
+package com.api.digicell.datagen;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws ranks {@code 0..n-1} with probability proportional to {@code 1 / (rank + 1)^exponent}, so a few
+ * low ranks are drawn very often and the long tail rarely. An exponent of 0 is uniform.
+ * <p>
+ * The cumulative distribution is precomputed (8 bytes per rank) and a draw is a binary search over it.
+ * Ranks are in popularity order; {@link #scatter(int)} spreads them over {@code 0..n-1} so the popular
+ * ones are not all at the start.
+ * </p>
+ */
+public class ZipfSampler {
+
+    /** Larger than any supported {@code n}, so multiplying by it modulo {@code n} is a bijection. */
+    private static final long SCATTER_PRIME = 2_147_483_647L;
+
+    private final double[] cumulative;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must not be negative");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += Math.pow(rank + 1, -exponent);
+            cumulative[rank] = sum;
+        }
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+
+    public int next(RandomGenerator random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    /**
+     * Maps a rank to a position in {@code 0..n-1}; distinct ranks map to distinct positions.
+     */
+    public int scatter(int rank) {
+        return (int) (rank * SCATTER_PRIME % cumulative.length);
+    }
+}
@@ -0,0 +1,23 @@
+package com.api.digicell.dto;
+
+import com.api.digicell.entities.AgentStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a bulk status change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentBulkStatusDTO {
+    @NotNull(message = "Agent id is required")
+    @Positive(message = "Agent id must be positive")
+    private Long agentId;
+
+    @NotNull(message = "Status is required")
+    private AgentStatus status;
+}
@@ -0,0 +1,19 @@
+package com.api.digicell.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One item of a bulk agent update: the agent id plus the fields of {@link AgentUpdateDTO}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class AgentBulkUpdateDTO extends AgentUpdateDTO {
+    @NotNull(message = "Agent id is required")
+    @Positive(message = "Agent id must be positive")
+    private Long agentId;
+}
@@ -8,4 +8,5 @@ import java.util.List;
 public class AgentDetailsResponseDTO {
     private Agent agent;
     private List<ConversationResponseDTO> conversations;
+    private AgentWorkloadDTO workload;
 } 
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.api.digicell.dto;
+
+import com.api.digicell.entities.AgentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current presence of an agent: status, when it last changed and the number of open routed conversations.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentPresenceDTO {
+    private Long agentId;
+    private AgentStatus status;
+    private LocalDateTime changedAt;
+    private int activeLoad;
+}
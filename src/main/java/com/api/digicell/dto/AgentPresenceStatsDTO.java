@@ -0,0 +1,21 @@
+package com.api.digicell.dto;
+
+import com.api.digicell.entities.AgentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Seconds an agent spent in each status on one day; for today, up to the time of the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentPresenceStatsDTO {
+    private Long agentId;
+    private LocalDate date;
+    private Map<AgentStatus, Long> secondsInState;
+}
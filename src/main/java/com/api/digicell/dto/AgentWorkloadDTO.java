@@ -0,0 +1,17 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Conversation counts of an agent: currently open, and closed since midnight.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AgentWorkloadDTO {
+    private Long agentId;
+    private int openConversations;
+    private int closedToday;
+}
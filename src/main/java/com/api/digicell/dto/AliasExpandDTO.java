@@ -0,0 +1,15 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AliasExpandDTO {
+    @NotNull(message = "Text is required")
+    private String text;
+}
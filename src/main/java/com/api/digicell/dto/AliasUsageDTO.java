@@ -0,0 +1,8 @@
+package com.api.digicell.dto;
+
+/**
+ * How often an alias was looked up or expanded, across all instances up to their last flush plus this
+ * instance's uses since.
+ */
+public record AliasUsageDTO(Long aliasId, String key, long uses) {
+}
@@ -0,0 +1,19 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request: its position in the request, the agent it refers to (when
+ * known), an HTTP-style status code and a message.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResultDTO {
+    private int index;
+    private Long agentId;
+    private int status;
+    private String message;
+}
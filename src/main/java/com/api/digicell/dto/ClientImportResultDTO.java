@@ -0,0 +1,31 @@
+package com.api.digicell.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Progress and outcome of a bulk client import. While the import runs the counts are updated after every
+ * batch and can be read through the progress endpoint.
+ */
+@Data
+public class ClientImportResultDTO {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private String importId;
+    private String format;
+    private volatile Status status = Status.RUNNING;
+    private LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    /** Records read so far, header and blank lines excluded. */
+    private volatile long recordsRead;
+    /** Rows written, inserted or updated by email. */
+    private volatile long upserted;
+    /** Records dropped because a later record of the same batch has the same email. */
+    private volatile long duplicates;
+    private volatile long skipped;
+    /** Reasons for skipped records, as "record N: reason"; capped to keep the response small. */
+    private List<String> errors = new CopyOnWriteArrayList<>();
+}
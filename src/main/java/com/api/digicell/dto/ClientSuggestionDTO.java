@@ -0,0 +1,7 @@
+package com.api.digicell.dto;
+
+/**
+ * A client as returned by prefix search, served from memory without loading the entity.
+ */
+public record ClientSuggestionDTO(Long clientId, String name, String email, String phone) {
+}
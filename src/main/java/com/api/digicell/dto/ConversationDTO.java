@@ -20,4 +20,5 @@ public class ConversationDTO {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private List<List<ChatMessage>> chatHistory;
+    private String chatSummary;
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.api.digicell.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk conversation import. Counts include batches committed by earlier attempts of the
+ * same import; {@code resumedAfterLine} is the number of input lines skipped because they were already
+ * committed.
+ */
+@Data
+public class ConversationImportResultDTO {
+    private String importId;
+    private long resumedAfterLine;
+    private long linesCommitted;
+    private long imported;
+    private long skipped;
+    /** Reasons for skipped lines of this attempt, as "line N: reason"; capped to keep the response small. */
+    private List<String> errors = new ArrayList<>();
+}
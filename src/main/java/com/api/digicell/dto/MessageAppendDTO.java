@@ -0,0 +1,25 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import java.time.LocalDateTime;
+
+/**
+ * A single message to be appended to the current session of a conversation.
+ * When no timestamp is supplied the server time of ingestion is used.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageAppendDTO {
+    @NotBlank(message = "Role is required")
+    private String role;
+
+    @NotBlank(message = "Content is required")
+    private String content;
+
+    private LocalDateTime timestamp;
+}
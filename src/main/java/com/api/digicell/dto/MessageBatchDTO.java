@@ -0,0 +1,23 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * Batch of messages appended in one call. When {@code newSession} is set the messages
+ * open a new session instead of extending the current one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageBatchDTO {
+    @NotEmpty(message = "Messages are required")
+    private List<@Valid MessageAppendDTO> messages;
+
+    private boolean newSession;
+}
@@ -0,0 +1,28 @@
+package com.api.digicell.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One keyset page of conversation messages. Pass {@code nextAfterSeq} as {@code afterSeq} to read the
+ * following page, or {@code firstSeq} as {@code beforeSeq} to read the preceding one.
+ */
+@Data
+public class MessagePageDTO {
+    private Long conversationId;
+    private List<MessageDTO> messages;
+    private Long firstSeq;
+    private Long nextAfterSeq;
+    private boolean hasMore;
+
+    @Data
+    public static class MessageDTO {
+        private Long seq;
+        private Integer session;
+        private String role;
+        private String content;
+        private LocalDateTime timestamp;
+    }
+}
@@ -0,0 +1,19 @@
+package com.api.digicell.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * A client waiting to be routed to an agent serving the given intent.
+ */
+@Data
+public class RoutingRequestDTO {
+    @NotNull(message = "clientId is required")
+    @Positive(message = "clientId must be positive")
+    private Long clientId;
+
+    @NotBlank(message = "intent is required")
+    private String intent;
+}
@@ -0,0 +1,21 @@
+package com.api.digicell.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a routing request: either assigned to an agent with a conversation, or queued until an agent
+ * serving the intent frees up.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoutingResultDTO {
+    public enum Status { ASSIGNED, QUEUED }
+
+    private Long clientId;
+    private Status status;
+    private Long agentId;
+    private Long conversationId;
+}
@@ -0,0 +1,43 @@
+package com.api.digicell.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One agent status transition. The table is append-only; rows are batch-inserted by the presence
+ * registry's flush and replayed on startup to rebuild the time-in-state aggregates.
+ */
+@Entity
+@Table(name = "agent_status_events",
+        indexes = {
+                @Index(name = "idx_agent_status_events_agent", columnList = "agent_id, changed_at"),
+                @Index(name = "idx_agent_status_events_changed_at", columnList = "changed_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+public class AgentStatusEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "agent_id", nullable = false)
+    private Long agentId;
+
+    /** Status before the transition, null for a newly created agent. */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", length = 16)
+    private AgentStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AgentStatus status;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
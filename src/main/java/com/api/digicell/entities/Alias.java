@@ -35,4 +35,9 @@ public class Alias {
     @Column(name = "alias_value", nullable = false, columnDefinition = "TEXT")
     private String value;
 
+    /** Lookups and expansions, written only by {@link com.api.digicell.alias.AliasUsageCounters}. */
+    @Column(name = "usage_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long usageCount;
+
 } 
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.api.digicell.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single-row counter bumped in the same transaction as every alias change. Application instances poll it
+ * to find out that their in-memory aliases are stale, using nothing but the shared database.
+ */
+@Entity
+@Table(name = "alias_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class AliasVersion {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private long version;
+}
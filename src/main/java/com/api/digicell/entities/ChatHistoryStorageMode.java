@@ -0,0 +1,11 @@
+package com.api.digicell.entities;
+
+/**
+ * Where conversation messages are stored.
+ * JSON keeps the whole history in the {@code chat_history} column of the conversation,
+ * TABLE stores one {@link ConversationMessage} row per message.
+ */
+public enum ChatHistoryStorageMode {
+    JSON,
+    TABLE
+}
@@ -10,6 +10,9 @@ import lombok.Builder;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -27,12 +30,19 @@ public class Client {
     @Column(name = "client_id")
     private Long clientId;
 
+    @NotBlank(message = "Name is required")
+    @Size(max = 255, message = "Name must be at most 255 characters")
     @Column(nullable = false)
     private String name;
 
+    @NotBlank(message = "Email is required")
+    @Email(message = "Invalid email format")
+    @Size(max = 255, message = "Email must be at most 255 characters")
     @Column(nullable = false, unique = true)
     private String email;
 
+    @NotBlank(message = "Phone is required")
+    @Size(max = 255, message = "Phone must be at most 255 characters")
     @Column(nullable = false)
     private String phone;
 
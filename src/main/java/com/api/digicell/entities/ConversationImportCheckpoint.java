@@ -0,0 +1,44 @@
+package com.api.digicell.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk conversation import, committed together with each imported batch. Re-posting the
+ * same import id resumes after {@code linesCommitted}, so an interrupted import is never applied twice.
+ */
+@Entity
+@Table(name = "conversation_import_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConversationImportCheckpoint {
+
+    @Id
+    @Column(name = "import_id", length = 100)
+    private String importId;
+
+    /** Number of input lines (imported, skipped or blank) already handled. */
+    @Column(name = "lines_committed", nullable = false)
+    private long linesCommitted;
+
+    @Column(nullable = false)
+    private long imported;
+
+    @Column(nullable = false)
+    private long skipped;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public ConversationImportCheckpoint(String importId) {
+        this.importId = importId;
+    }
+}
@@ -0,0 +1,61 @@
+package com.api.digicell.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single chat message stored as its own row, used when chat history storage mode is
+ * {@link ChatHistoryStorageMode#TABLE}. The sequence number is monotonic across sessions so
+ * history can be paginated by {@code seq} alone.
+ */
+@Entity
+@Table(name = "conversation_messages",
+        indexes = @Index(name = "idx_conversation_messages_seq", columnList = "conversation_id, seq", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConversationMessage implements Persistable<ConversationMessageId> {
+
+    @EmbeddedId
+    private ConversationMessageId id;
+
+    /** "user" or "agent" */
+    @Column(nullable = false, length = 32)
+    private String role;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    private LocalDateTime timestamp;
+
+    /** Ids are assigned by the application, so track newness to let inserts skip the merge SELECT. */
+    @Transient
+    private boolean isNew = true;
+
+    public ConversationMessage(ConversationMessageId id, ChatMessage message) {
+        this.id = id;
+        this.role = message.getRole();
+        this.content = message.getContent();
+        this.timestamp = message.getTimestamp();
+    }
+
+    public ChatMessage toChatMessage() {
+        return new ChatMessage(role, content, timestamp);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
@@ -0,0 +1,30 @@
+package com.api.digicell.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite key of a {@link ConversationMessage}: the conversation, the 0-based session index
+ * and the 1-based sequence number of the message within the whole conversation.
+ */
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationMessageId implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+
+    @Column(name = "session_no", nullable = false)
+    private Integer sessionNo;
+
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+}
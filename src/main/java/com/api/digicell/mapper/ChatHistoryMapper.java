@@ -0,0 +1,38 @@
+package com.api.digicell.mapper;
+
+import com.api.digicell.dtos.ChatHistoryDTO;
+import com.api.digicell.entities.Conversation;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+public class ChatHistoryMapper {
+
+    public ChatHistoryDTO toChatHistoryDTO(Conversation conversation) {
+        ChatHistoryDTO dto = new ChatHistoryDTO();
+        dto.setAgentId(conversation.getAgent().getAgentId());
+        dto.setAgentName(conversation.getAgent().getName());
+        dto.setIntent(conversation.getIntent());
+        dto.setChatSummary(conversation.getChatSummary());
+        
+        // Convert chat history to the new format
+        List<List<ChatHistoryDTO.MessageDTO>> formattedHistory = conversation.getChatHistory().stream()
+            .map(messages -> messages.stream()
+                .map(msg -> {
+                    ChatHistoryDTO.MessageDTO messageDTO = new ChatHistoryDTO.MessageDTO();
+                    // Format timestamp to match "2024-03-20T18:01:00" format
+                    messageDTO.setTimestamp(msg.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
+                    messageDTO.setContent(msg.getContent());
+                    messageDTO.setRole(msg.getRole());
+                    return messageDTO;
+                })
+                .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+        
+        dto.setChatHistory(formattedHistory);
+        return dto;
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.digicell.mapper;
+
+import com.api.digicell.dto.ConversationDTO;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.ConversationMessage;
+import com.api.digicell.entities.ConversationMessageId;
+import com.api.digicell.repository.ConversationBatchRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ConversationRowMapper {
+
+    /**
+     * Column values of a new conversation row, as expected by {@link ConversationBatchRepository}.
+     * A missing start time defaults to {@code now} and a missing summary to empty.
+     */
+    public Map<String, Object> toRow(ConversationDTO dto, String encodedChatHistory, LocalDateTime now) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("clientId", dto.getClientId());
+        row.put("agentId", dto.getAgentId());
+        row.put("intent", dto.getIntent());
+        row.put("startTime", dto.getStartTime() != null ? dto.getStartTime() : now);
+        row.put("endTime", dto.getEndTime());
+        row.put("chatHistory", encodedChatHistory);
+        row.put("chatSummary", dto.getChatSummary() != null ? dto.getChatSummary() : "");
+        return row;
+    }
+
+    /**
+     * Rows of the {@code conversation_messages} table for a whole history, sessions numbered from 0 and
+     * messages from 1. A null history has no rows.
+     */
+    public List<ConversationMessage> toMessageRows(Long conversationId, List<List<ChatMessage>> history) {
+        return toMessageRows(conversationId, history, 0, 0L);
+    }
+
+    /**
+     * Rows for sessions appended after existing ones: the first session is numbered {@code firstSession}
+     * and the first message {@code lastSeq + 1}.
+     */
+    public List<ConversationMessage> toMessageRows(Long conversationId, List<List<ChatMessage>> history, int firstSession, long lastSeq) {
+        List<ConversationMessage> rows = new ArrayList<>();
+        if (history == null) {
+            return rows;
+        }
+        long seq = lastSeq;
+        for (int session = 0; session < history.size(); session++) {
+            for (ChatMessage message : history.get(session)) {
+                rows.add(new ConversationMessage(new ConversationMessageId(conversationId, firstSession + session, ++seq), message));
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,82 @@
+package com.api.digicell.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque continuation token: the URL-safe base64 of the sort parameter and the keyset (sort key values
+ * of the last row returned). The sort is embedded so a cursor cannot be replayed against another order.
+ */
+final class KeysetCursor {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private KeysetCursor() {
+    }
+
+    static String encode(String sortParam, Map<String, ?> keys) {
+        Map<String, Object> token = new LinkedHashMap<>();
+        token.put("s", sortParam == null ? "" : sortParam);
+        Map<String, String> values = new LinkedHashMap<>();
+        keys.forEach((property, value) -> values.put(property, value == null ? null : value.toString()));
+        token.put("k", values);
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(token));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor into typed keyset values.
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for a different sort
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> decode(String cursor, String sortParam, Map<String, Class<?>> types) {
+        Map<String, Object> token;
+        try {
+            token = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), MAP_TYPE);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!(sortParam == null ? "" : sortParam).equals(token.get("s")) || !(token.get("k") instanceof Map)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : ((Map<String, Object>) token.get("k")).entrySet()) {
+            Class<?> type = types.get(entry.getKey());
+            if (type == null || entry.getValue() == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            keys.put(entry.getKey(), convert(entry.getValue().toString(), type));
+        }
+        return keys;
+    }
+
+    private static Object convert(String value, Class<?> type) {
+        try {
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+            if (type == Boolean.class) {
+                return Boolean.valueOf(value);
+            }
+            return value;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.api.digicell.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs keyset (seek) pagination over a {@link JpaSpecificationExecutor}. Each page is one
+ * {@code WHERE (sort keys) > (last keys) ORDER BY ... LIMIT n+1} query, so the cost of a page does not
+ * grow with its position in the list.
+ */
+public final class KeysetPager {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Reads the page following {@code cursor} (or the first page when it is null).
+     *
+     * @param fetch associations to fetch with the page rows
+     * @throws IllegalArgumentException for unsupported sort keys or invalid cursors
+     */
+    public static <T> CursorPage<T> page(JpaSpecificationExecutor<T> repository, Specification<T> specification,
+                                         KeysetSort sorts, String sortParam, String cursor, Integer limit,
+                                         String... fetch) {
+        Sort sort = sorts.resolve(sortParam);
+        int pageSize = pageSize(limit);
+        KeysetScrollPosition position = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(KeysetCursor.decode(cursor, sortParam, sorts.propertyTypes()));
+
+        Window<T> window = repository.findBy(specification, query -> {
+            var sorted = query.sortBy(sort).limit(pageSize);
+            return (fetch.length == 0 ? sorted : sorted.project(fetch)).scroll(position);
+        });
+
+        List<T> items = window.getContent();
+        String nextCursor = window.hasNext() && !items.isEmpty()
+                ? KeysetCursor.encode(sortParam, ((KeysetScrollPosition) window.positionAt(items.size() - 1)).getKeys())
+                : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Reads the page following {@code cursor} out of ids already matched in memory, for the ascending id sort
+     * only. The cursor and limit are applied to {@code ascendingIds} and only the page's ids are loaded, so
+     * the query never carries more than one page of ids. Cursors are interchangeable with those of
+     * {@link #page}.
+     *
+     * @param loader loads the entities of the given ids, in any order; missing ones are skipped
+     * @throws IllegalArgumentException for a sort other than the ascending id or an invalid cursor
+     */
+    public static <T> CursorPage<T> pageOfIds(List<Long> ascendingIds, Function<List<Long>, List<T>> loader,
+                                              Function<T, Long> idOf, KeysetSort sorts, String sortParam,
+                                              String cursor, Integer limit) {
+        if (!sorts.isAscendingById(sortParam)) {
+            throw new IllegalArgumentException("Sort '" + sortParam + "' cannot page over ids in memory");
+        }
+        int from = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            Object after = KeysetCursor.decode(cursor, sortParam, sorts.propertyTypes()).get(sorts.idProperty());
+            if (!(after instanceof Long)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int index = Collections.binarySearch(ascendingIds, (Long) after);
+            from = index >= 0 ? index + 1 : -index - 1;
+        }
+        int to = Math.min(ascendingIds.size(), from + pageSize(limit));
+        List<Long> pageIds = List.copyOf(ascendingIds.subList(from, to));
+
+        Map<Long, T> loaded = pageIds.isEmpty() ? Map.of()
+                : loader.apply(pageIds).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> items = pageIds.stream().map(loaded::get).filter(Objects::nonNull).collect(Collectors.toList());
+        String nextCursor = to < ascendingIds.size() && !pageIds.isEmpty()
+                ? KeysetCursor.encode(sortParam, Map.of(sorts.idProperty(), pageIds.get(pageIds.size() - 1)))
+                : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
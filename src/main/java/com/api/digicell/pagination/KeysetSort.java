@@ -0,0 +1,72 @@
+package com.api.digicell.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sort keys a list endpoint accepts, mapped to entity properties. Every sort is made stable by
+ * appending the id property, which is also the default sort.
+ * <p>
+ * Only non-null columns may be registered: keyset predicates cannot page over nulls.
+ * </p>
+ */
+public final class KeysetSort {
+    private final String idProperty;
+    private final Map<String, String> properties = new LinkedHashMap<>();
+    private final Map<String, Class<?>> types = new LinkedHashMap<>();
+
+    private KeysetSort(String idProperty) {
+        this.idProperty = idProperty;
+    }
+
+    /**
+     * Sortable keys of an entity whose id property has the given name; the id is sortable as {@code id}.
+     */
+    public static KeysetSort byId(String idProperty) {
+        return new KeysetSort(idProperty).with("id", idProperty, Long.class);
+    }
+
+    public KeysetSort with(String sortKey, String property, Class<?> type) {
+        properties.put(sortKey, property);
+        types.put(property, type);
+        return this;
+    }
+
+    /**
+     * Resolves a sort parameter such as {@code name} or {@code -createdAt} (descending).
+     * @throws IllegalArgumentException for keys that are not sortable
+     */
+    public Sort resolve(String sortParam) {
+        if (sortParam == null || sortParam.isBlank()) {
+            return Sort.by(Sort.Direction.ASC, idProperty);
+        }
+        boolean descending = sortParam.startsWith("-");
+        String key = descending ? sortParam.substring(1) : sortParam;
+        String property = properties.get(key);
+        if (property == null) {
+            throw new IllegalArgumentException("Unsupported sort '" + key + "', expected one of " + properties.keySet());
+        }
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, property);
+        return property.equals(idProperty) ? sort : sort.and(Sort.by(direction, idProperty));
+    }
+
+    /**
+     * Whether the sort parameter resolves to the id alone, ascending (the default sort).
+     * @throws IllegalArgumentException for keys that are not sortable
+     */
+    public boolean isAscendingById(String sortParam) {
+        return resolve(sortParam).equals(Sort.by(Sort.Direction.ASC, idProperty));
+    }
+
+    String idProperty() {
+        return idProperty;
+    }
+
+    Map<String, Class<?>> propertyTypes() {
+        return Collections.unmodifiableMap(types);
+    }
+}
@@ -0,0 +1,192 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.routing.SkillRouter;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index from agent label and status to the agents carrying them.
+ * <p>
+ * Every indexed agent gets a dense ordinal, reused after the agent is removed, and each label and status
+ * maps to a {@link BitSet} over those ordinals. A query ANDs one bitmap per label with the status bitmap,
+ * so 10k agents cost about 1.25 KB per bitmap and a lookup a few hundred word operations. Labels are
+ * normalized the same way as routing skills.
+ * </p>
+ */
+public class AgentLabelIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> agentIds = new ArrayList<>();
+    private final List<Set<String>> labelsByOrdinal = new ArrayList<>();
+    private final List<AgentStatus> statusByOrdinal = new ArrayList<>();
+    private final BitSet freeOrdinals = new BitSet();
+    private final Map<String, BitSet> byLabel = new HashMap<>();
+    private final Map<AgentStatus, BitSet> byStatus = new EnumMap<>(AgentStatus.class);
+
+    /**
+     * Adds the agent or replaces its labels and status.
+     */
+    public void put(Long agentId, Collection<String> labels, AgentStatus status) {
+        Set<String> skills = normalize(labels);
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(agentId);
+            if (ordinal == null) {
+                ordinal = allocate(agentId);
+            } else {
+                clear(ordinal);
+            }
+            labelsByOrdinal.set(ordinal, skills);
+            statusByOrdinal.set(ordinal, status);
+            for (String skill : skills) {
+                byLabel.computeIfAbsent(skill, s -> new BitSet()).set(ordinal);
+            }
+            if (status != null) {
+                byStatus.computeIfAbsent(status, s -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a known agent to another status; unknown agents are ignored.
+     */
+    public void setStatus(Long agentId, AgentStatus status) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(agentId);
+            if (ordinal == null) {
+                return;
+            }
+            AgentStatus previous = statusByOrdinal.get(ordinal);
+            if (previous != null) {
+                byStatus.get(previous).clear(ordinal);
+            }
+            statusByOrdinal.set(ordinal, status);
+            if (status != null) {
+                byStatus.computeIfAbsent(status, s -> new BitSet()).set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long agentId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(agentId);
+            if (ordinal == null) {
+                return;
+            }
+            clear(ordinal);
+            agentIds.set(ordinal, null);
+            labelsByOrdinal.set(ordinal, Set.of());
+            statusByOrdinal.set(ordinal, null);
+            freeOrdinals.set(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of agents carrying every one of the labels and, if given, the status, in ascending order.
+     * With no labels and no status every indexed agent matches; labels that all normalize to blank match
+     * no agent.
+     */
+    public List<Long> find(Collection<String> labels, AgentStatus status) {
+        Set<String> skills = normalize(labels);
+        if (skills.isEmpty() && labels != null && !labels.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String skill : skills) {
+                result = and(result, byLabel.get(skill));
+                if (result.isEmpty()) {
+                    return List.of();
+                }
+            }
+            if (status != null) {
+                result = and(result, byStatus.get(status));
+            }
+            if (result == null) {
+                return ordinals.keySet().stream().sorted().collect(Collectors.toList());
+            }
+            List<Long> ids = new ArrayList<>(result.cardinality());
+            for (int ordinal = result.nextSetBit(0); ordinal >= 0; ordinal = result.nextSetBit(ordinal + 1)) {
+                ids.add(agentIds.get(ordinal));
+            }
+            ids.sort(null);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocate(Long agentId) {
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal < 0) {
+            ordinal = agentIds.size();
+            agentIds.add(agentId);
+            labelsByOrdinal.add(Set.of());
+            statusByOrdinal.add(null);
+        } else {
+            freeOrdinals.clear(ordinal);
+            agentIds.set(ordinal, agentId);
+        }
+        ordinals.put(agentId, ordinal);
+        return ordinal;
+    }
+
+    private void clear(int ordinal) {
+        for (String skill : labelsByOrdinal.get(ordinal)) {
+            BitSet bits = byLabel.get(skill);
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                byLabel.remove(skill);
+            }
+        }
+        AgentStatus status = statusByOrdinal.get(ordinal);
+        if (status != null) {
+            byStatus.get(status).clear(ordinal);
+        }
+    }
+
+    private static BitSet and(BitSet result, BitSet bits) {
+        if (bits == null) {
+            return new BitSet();
+        }
+        if (result == null) {
+            return (BitSet) bits.clone();
+        }
+        result.and(bits);
+        return result;
+    }
+
+    private static Set<String> normalize(Collection<String> labels) {
+        return labels == null ? Set.of()
+                : labels.stream().map(SkillRouter::normalize).filter(s -> !s.isEmpty()).collect(Collectors.toUnmodifiableSet());
+    }
+}
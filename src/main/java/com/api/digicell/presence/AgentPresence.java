@@ -0,0 +1,11 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An agent's status and when it last changed. Immutable, so a registry entry is replaced atomically.
+ */
+public record AgentPresence(Long agentId, AgentStatus status, LocalDateTime changedAt) {
+}
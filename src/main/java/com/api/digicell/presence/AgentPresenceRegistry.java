@@ -0,0 +1,175 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.repository.AgentPresenceRepository;
+import com.api.digicell.repository.AgentRepository;
+import com.api.digicell.routing.AgentChangedEvent;
+import com.api.digicell.routing.AgentPresenceChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Source of truth for agent status. Reads and writes are map operations; changes are written back to
+ * {@code Agents.status} by {@link #flush()} every {@code digicell.presence.flush-interval-ms}, and repeated
+ * toggles of an agent between two flushes become a single UPDATE. The registry is loaded from the table on
+ * startup and flushed on shutdown, so at most one flush interval of changes is lost on a crash.
+ * <p>
+ * The registry also keeps an {@link AgentLabelIndex} of labels and status for skill lookups, and reports
+ * every transition to the {@link AgentStatusLog}. Changes of one agent are serialized on one of
+ * {@value #LOCK_STRIPES} lock stripes, which also covers publishing the {@link AgentPresenceChangedEvent},
+ * so the pending writes, the index, the log and the listeners see concurrent changes in the same order.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgentPresenceRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(AgentPresenceRegistry.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final AgentRepository agentRepository;
+    private final AgentPresenceRepository presenceRepository;
+    private final AgentStatusLog statusLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, AgentPresence> presences = new ConcurrentHashMap<>();
+    private final Map<Long, AgentPresence> dirty = new ConcurrentHashMap<>();
+    private final AgentLabelIndex labelIndex = new AgentLabelIndex();
+    private final Lock[] locks = newLockStripes(LOCK_STRIPES);
+
+    @EventListener(ApplicationReadyEvent.class)
+    @SuppressWarnings("unchecked")
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Object[] row : agentRepository.findAllStatuses()) {
+            Long agentId = (Long) row[0];
+            AgentStatus status = row[1] != null ? (AgentStatus) row[1] : AgentStatus.LOGOUT;
+            presences.putIfAbsent(agentId, new AgentPresence(agentId, status, row[2] != null ? (LocalDateTime) row[2] : now));
+            labelIndex.put(agentId, (List<String>) row[3], presences.get(agentId).status());
+        }
+        logger.info("Loaded presence of {} agents", presences.size());
+        statusLog.replay(presences.values());
+    }
+
+    public Optional<AgentPresence> get(Long agentId) {
+        return Optional.ofNullable(presences.get(agentId));
+    }
+
+    /**
+     * Ids of agents carrying all of the labels and, if given, the status, in ascending order.
+     */
+    public List<Long> findAgentIds(Collection<String> labels, AgentStatus status) {
+        return labelIndex.find(labels, status);
+    }
+
+    /**
+     * Sets the agent's status; the database is updated on the next flush. Setting the current status again
+     * changes nothing.
+     * @throws ResourceNotFoundException if the agent is not known
+     */
+    public AgentPresence update(Long agentId, AgentStatus status) {
+        Lock lock = lockFor(agentId);
+        lock.lock();
+        try {
+            AgentPresence previous = presences.get(agentId);
+            if (previous == null) {
+                throw new ResourceNotFoundException("Agent not found with id: " + agentId);
+            }
+            if (previous.status() == status) {
+                return previous;
+            }
+            AgentPresence presence = new AgentPresence(agentId, status, LocalDateTime.now());
+            presences.put(agentId, presence);
+            dirty.put(agentId, presence);
+            labelIndex.setStatus(agentId, status);
+            statusLog.append(new AgentStatusTransition(agentId, previous.status(), status, presence.changedAt()), previous.changedAt());
+            eventPublisher.publishEvent(new AgentPresenceChangedEvent(agentId, status));
+            return presence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps the registry in line with agents created, updated or deleted through the database. The new
+     * status is written again on the next flush, since a flush that started before the agent's transaction
+     * committed may have overwritten it with an older one.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentChanged(AgentChangedEvent event) {
+        Long agentId = event.agentId();
+        Lock lock = lockFor(agentId);
+        lock.lock();
+        try {
+            if (event.deleted()) {
+                presences.remove(agentId);
+                dirty.remove(agentId);
+                labelIndex.remove(agentId);
+                statusLog.remove(agentId);
+                return;
+            }
+            AgentStatus status = event.status() != null ? event.status() : AgentStatus.LOGOUT;
+            AgentPresence current = presences.get(agentId);
+            AgentPresence presence = current != null && current.status() == status
+                    ? current
+                    : new AgentPresence(agentId, status, LocalDateTime.now());
+            presences.put(agentId, presence);
+            dirty.put(agentId, presence);
+            labelIndex.put(agentId, event.labels(), status);
+            if (current == null || current.status() != status) {
+                statusLog.append(new AgentStatusTransition(agentId, current != null ? current.status() : null, status, presence.changedAt()),
+                        current != null ? current.changedAt() : null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes pending status changes in one JDBC batch. An entry changed again while flushing stays
+     * pending for the next run.
+     */
+    @Scheduled(fixedDelayString = "${digicell.presence.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<AgentPresence> pending = new ArrayList<>(dirty.values());
+        presenceRepository.updateStatuses(pending);
+        pending.forEach(presence -> dirty.remove(presence.agentId(), presence));
+        logger.debug("Flushed status of {} agents", pending.size());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Lock lockFor(Long agentId) {
+        return locks[Math.floorMod(agentId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static Lock[] newLockStripes(int count) {
+        Lock[] stripes = new Lock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+}
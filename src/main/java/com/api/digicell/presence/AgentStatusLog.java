@@ -0,0 +1,129 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.repository.AgentPresenceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-only log of agent status transitions with rolling time-in-state totals.
+ * <p>
+ * Transitions are applied to an {@link AgentTimeInState} right away and queued for the
+ * {@code agent_status_events} table, which {@link #flush()} writes in JDBC batches every
+ * {@code digicell.presence.flush-interval-ms}. On startup the last {@code digicell.presence.stats-days}
+ * days of the log are replayed once to rebuild the totals; after that queries never read the log.
+ * A failed write keeps its transitions queued for the next flush. The queue holds at most
+ * {@code digicell.presence.status-log-capacity} transitions; while the database is unreachable the
+ * oldest are dropped from the log (the totals already include them).
+ * </p>
+ */
+@Component
+public class AgentStatusLog {
+    private static final Logger logger = LoggerFactory.getLogger(AgentStatusLog.class);
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final AgentPresenceRepository presenceRepository;
+    private final AgentTimeInState timeInState;
+    private final BlockingDeque<AgentStatusTransition> pending;
+    private final LongAdder dropped = new LongAdder();
+
+    public AgentStatusLog(AgentPresenceRepository presenceRepository,
+                          @Value("${digicell.presence.stats-days:7}") int statsDays,
+                          @Value("${digicell.presence.status-log-capacity:100000}") int capacity) {
+        this.presenceRepository = presenceRepository;
+        this.timeInState = new AgentTimeInState(statsDays);
+        this.pending = new LinkedBlockingDeque<>(capacity);
+    }
+
+    /**
+     * Rebuilds the totals from the logged transitions, then starts the clock of agents without any in the
+     * window at their current status.
+     */
+    void replay(Collection<AgentPresence> presences) {
+        LocalDateTime windowStart = LocalDate.now().minusDays(timeInState.retainedDays() - 1L).atStartOfDay();
+        long[] replayed = {0};
+        presenceRepository.forEachStatusEventSince(windowStart, transition -> {
+            timeInState.record(transition, windowStart);
+            replayed[0]++;
+        });
+        for (AgentPresence presence : presences) {
+            LocalDateTime since = presence.changedAt().isAfter(windowStart) ? presence.changedAt() : windowStart;
+            timeInState.start(presence.agentId(), presence.status(), since);
+        }
+        logger.info("Replayed {} agent status events since {}", replayed[0], windowStart);
+    }
+
+    /**
+     * Records a transition; {@code previousSince} is when the agent entered {@code previousStatus}, if known.
+     */
+    void append(AgentStatusTransition transition, LocalDateTime previousSince) {
+        timeInState.record(transition, previousSince);
+        while (!pending.offerLast(transition)) {
+            if (pending.pollFirst() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    void remove(Long agentId) {
+        timeInState.remove(agentId);
+    }
+
+    /**
+     * Time the agent spent in each status on {@code day}, up to now for today.
+     * @throws IllegalArgumentException if the day is in the future or older than the retained window
+     */
+    public Map<AgentStatus, Duration> totals(Long agentId, LocalDate day) {
+        LocalDate today = LocalDate.now();
+        if (day.isAfter(today) || day.isBefore(today.minusDays(timeInState.retainedDays() - 1L))) {
+            throw new IllegalArgumentException("Presence stats are kept for the last " + timeInState.retainedDays() + " days");
+        }
+        return timeInState.totals(agentId, day, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${digicell.presence.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<AgentStatusTransition> batch = new ArrayList<>(FLUSH_BATCH_SIZE);
+        try {
+            while (pending.drainTo(batch, FLUSH_BATCH_SIZE) > 0) {
+                presenceRepository.insertStatusEvents(batch);
+                batch.clear();
+            }
+        } catch (DataAccessException e) {
+            // Put the batch back in front, in order, for the next flush; transitions that no longer fit are
+            // the oldest and are dropped.
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                if (!pending.offerFirst(batch.get(i))) {
+                    dropped.add(i + 1L);
+                    break;
+                }
+            }
+            logger.warn("Agent status log flush of {} transitions failed, retrying next time: {}", batch.size(), e.getMessage());
+        }
+        long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            logger.warn("Agent status log queue is full, dropped {} transitions", lost);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
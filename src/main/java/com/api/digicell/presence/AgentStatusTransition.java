@@ -0,0 +1,11 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * An agent moving from {@code previousStatus} (null for a new agent) to {@code status} at {@code changedAt}.
+ */
+public record AgentStatusTransition(Long agentId, AgentStatus previousStatus, AgentStatus status, LocalDateTime changedAt) {
+}
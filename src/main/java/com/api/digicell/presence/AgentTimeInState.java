@@ -0,0 +1,131 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rolling time-in-state totals per agent and day, fed one {@link AgentStatusTransition} at a time.
+ * <p>
+ * Each agent keeps its current status with the time it was entered and, per day, the milliseconds spent
+ * in every status. A transition adds the time since the previous one to the previous status, split at
+ * midnight. Days older than {@code retainedDays} (today included) are dropped as new ones appear, so
+ * memory stays bounded and a query is a map lookup plus the still running interval.
+ * </p>
+ */
+public class AgentTimeInState {
+
+    private final int retainedDays;
+    private final Map<Long, Totals> agents = new ConcurrentHashMap<>();
+
+    public AgentTimeInState(int retainedDays) {
+        if (retainedDays < 1) {
+            throw new IllegalArgumentException("retainedDays must be positive");
+        }
+        this.retainedDays = retainedDays;
+    }
+
+    /**
+     * Applies a transition. The first transition seen for an agent starts its clock in
+     * {@code previousStatus} at {@code since} when that is known, otherwise at the transition itself.
+     */
+    public void record(AgentStatusTransition transition, LocalDateTime since) {
+        Totals totals = agents.computeIfAbsent(transition.agentId(), id -> new Totals());
+        synchronized (totals) {
+            if (totals.status == null && transition.previousStatus() != null && since != null
+                    && since.isBefore(transition.changedAt())) {
+                totals.status = transition.previousStatus();
+                totals.since = since;
+            }
+            totals.moveTo(transition.status(), transition.changedAt(), retainedDays);
+        }
+    }
+
+    /**
+     * Starts the clock of an agent that has no state yet; agents already tracked are left alone.
+     */
+    public void start(Long agentId, AgentStatus status, LocalDateTime since) {
+        Totals totals = agents.computeIfAbsent(agentId, id -> new Totals());
+        synchronized (totals) {
+            if (totals.status == null) {
+                totals.status = status;
+                totals.since = since;
+            }
+        }
+    }
+
+    public void remove(Long agentId) {
+        agents.remove(agentId);
+    }
+
+    public int retainedDays() {
+        return retainedDays;
+    }
+
+    /**
+     * Time the agent spent in each status on {@code day}, including the running interval up to {@code now}.
+     * Statuses never entered that day map to zero.
+     */
+    public Map<AgentStatus, Duration> totals(Long agentId, LocalDate day, LocalDateTime now) {
+        Map<AgentStatus, Duration> result = new EnumMap<>(AgentStatus.class);
+        for (AgentStatus status : AgentStatus.values()) {
+            result.put(status, Duration.ZERO);
+        }
+        Totals totals = agents.get(agentId);
+        if (totals == null) {
+            return result;
+        }
+        synchronized (totals) {
+            Map<AgentStatus, Long> millis = totals.days.get(day);
+            if (millis != null) {
+                millis.forEach((status, ms) -> result.put(status, Duration.ofMillis(ms)));
+            }
+            if (totals.status != null && totals.since.isBefore(now)) {
+                LocalDateTime from = max(totals.since, day.atStartOfDay());
+                LocalDateTime to = min(now, day.plusDays(1).atStartOfDay());
+                if (from.isBefore(to)) {
+                    result.merge(totals.status, Duration.between(from, to), Duration::plus);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static final class Totals {
+        private AgentStatus status;
+        private LocalDateTime since;
+        private final TreeMap<LocalDate, Map<AgentStatus, Long>> days = new TreeMap<>();
+
+        void moveTo(AgentStatus next, LocalDateTime at, int retainedDays) {
+            if (status != null && since.isBefore(at)) {
+                LocalDateTime from = since;
+                while (from.isBefore(at)) {
+                    LocalDateTime midnight = from.toLocalDate().plusDays(1).atStartOfDay();
+                    LocalDateTime to = min(at, midnight);
+                    days.computeIfAbsent(from.toLocalDate(), d -> new EnumMap<>(AgentStatus.class))
+                            .merge(status, Duration.between(from, to).toMillis(), Long::sum);
+                    from = to;
+                }
+                days.headMap(at.toLocalDate().minusDays(retainedDays - 1L)).clear();
+            }
+            if (status == null || !since.isAfter(at)) {
+                status = next;
+                since = at;
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.dto.AgentWorkloadDTO;
+import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.routing.AgentChangedEvent;
+import com.api.digicell.routing.ConversationClosedEvent;
+import com.api.digicell.routing.ConversationDeletedEvent;
+import com.api.digicell.routing.ConversationOpenedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-agent counts of open conversations and of conversations closed today, kept in memory so dashboards
+ * and delete checks never load an agent's conversations.
+ * <p>
+ * Counters follow {@link ConversationOpenedEvent}, {@link ConversationClosedEvent} and
+ * {@link ConversationDeletedEvent} after commit. Open conversations are tracked by id, so repeated events
+ * for one conversation count once. Conversations that bypass the events (generated datasets, other
+ * nodes) and races with a running reconciliation are corrected by {@link #reconcile()}, which recomputes
+ * everything from the conversations table on startup and every
+ * {@code digicell.workload.reconcile-interval-ms}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AgentWorkloadCounters {
+    private static final Logger logger = LoggerFactory.getLogger(AgentWorkloadCounters.class);
+
+    private final ConversationRepository conversationRepository;
+    private final Map<Long, Workload> workloads = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${digicell.workload.reconcile-interval-ms:300000}",
+            fixedDelayString = "${digicell.workload.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Set<Long>> open = new HashMap<>();
+        for (Object[] row : conversationRepository.findOpenIdsByAgent()) {
+            open.computeIfAbsent((Long) row[0], id -> ConcurrentHashMap.newKeySet()).add((Long) row[1]);
+        }
+        Map<Long, Integer> closed = new HashMap<>();
+        for (Object[] row : conversationRepository.countClosedSinceByAgent(today.atStartOfDay())) {
+            closed.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        workloads.keySet().removeIf(agentId -> !open.containsKey(agentId) && !closed.containsKey(agentId));
+        for (Long agentId : open.keySet()) {
+            workload(agentId).reset(open.get(agentId), today, closed.getOrDefault(agentId, 0));
+        }
+        for (Map.Entry<Long, Integer> entry : closed.entrySet()) {
+            if (!open.containsKey(entry.getKey())) {
+                workload(entry.getKey()).reset(ConcurrentHashMap.newKeySet(), today, entry.getValue());
+            }
+        }
+        logger.debug("Reconciled workload of {} agents", workloads.size());
+    }
+
+    public AgentWorkloadDTO get(Long agentId) {
+        Workload workload = workloads.get(agentId);
+        return workload == null ? new AgentWorkloadDTO(agentId, 0, 0) : workload.toDTO(agentId, LocalDate.now());
+    }
+
+    /**
+     * Workload of every agent with open or closed-today conversations, in agent id order.
+     */
+    public List<AgentWorkloadDTO> getAll() {
+        LocalDate today = LocalDate.now();
+        return workloads.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey(), today))
+                .sorted((a, b) -> a.getAgentId().compareTo(b.getAgentId()))
+                .collect(Collectors.toList());
+    }
+
+    public boolean hasOpenConversations(Long agentId) {
+        Workload workload = workloads.get(agentId);
+        return workload != null && !workload.open.isEmpty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationOpened(ConversationOpenedEvent event) {
+        workload(event.agentId()).open.add(event.conversationId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationClosed(ConversationClosedEvent event) {
+        Workload workload = workload(event.agentId());
+        workload.open.remove(event.conversationId());
+        LocalDate closedOn = event.endTime() != null ? event.endTime().toLocalDate() : LocalDate.now();
+        workload.closed(closedOn);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationDeleted(ConversationDeletedEvent event) {
+        Workload workload = workloads.get(event.agentId());
+        if (workload != null) {
+            workload.open.remove(event.conversationId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentChanged(AgentChangedEvent event) {
+        if (event.deleted()) {
+            workloads.remove(event.agentId());
+        }
+    }
+
+    private Workload workload(Long agentId) {
+        return workloads.computeIfAbsent(agentId, id -> new Workload());
+    }
+
+    private static final class Workload {
+        private volatile Set<Long> open = ConcurrentHashMap.newKeySet();
+        private LocalDate day = LocalDate.now();
+        private int closedToday;
+
+        synchronized void closed(LocalDate closedOn) {
+            rollOver(LocalDate.now());
+            if (closedOn.equals(day)) {
+                closedToday++;
+            }
+        }
+
+        synchronized void reset(Set<Long> openIds, LocalDate today, int closed) {
+            open = openIds;
+            day = today;
+            closedToday = closed;
+        }
+
+        synchronized AgentWorkloadDTO toDTO(Long agentId, LocalDate today) {
+            rollOver(today);
+            return new AgentWorkloadDTO(agentId, open.size(), closedToday);
+        }
+
+        private void rollOver(LocalDate today) {
+            if (!today.equals(day)) {
+                day = today;
+                closedToday = 0;
+            }
+        }
+    }
+}
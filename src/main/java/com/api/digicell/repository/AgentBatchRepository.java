@@ -0,0 +1,60 @@
+package com.api.digicell.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes of agents for the bulk endpoints. Like {@link ConversationBatchRepository} this
+ * bypasses the persistence context so a whole chunk is sent as one JDBC batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AgentBatchRepository {
+
+    private static final String INSERT_AGENT =
+            "INSERT INTO agents (name, email, avatar_url, labels, status, created_at, updated_at) " +
+            "VALUES (:name, :email, :avatarUrl, :labels, :status, :now, :now)";
+
+    private static final String UPDATE_AGENT =
+            "UPDATE agents SET name = :name, avatar_url = :avatarUrl, labels = :labels, status = :status, " +
+            "updated_at = :now WHERE agent_id = :agentId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts agent rows in one JDBC batch. Each row holds {@code name}, {@code email}, {@code avatarUrl},
+     * {@code labels} as a JSON array, {@code status} as its name and {@code now}.
+     *
+     * @return the generated agent ids, in row order
+     */
+    public List<Long> insertAgents(List<Map<String, Object>> rows) {
+        SqlParameterSource[] params = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_AGENT, params, keyHolder, new String[]{"agent_id"});
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Updates agent rows in one JDBC batch; rows take the same values as {@link #insertAgents(List)}
+     * plus {@code agentId}, except {@code email}, which is never changed.
+     *
+     * @return rows updated per input row, 0 where the agent does not exist
+     */
+    public int[] updateAgents(List<Map<String, Object>> rows) {
+        SqlParameterSource[] params = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(UPDATE_AGENT, params);
+    }
+}
@@ -0,0 +1,80 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.presence.AgentPresence;
+import com.api.digicell.presence.AgentStatusTransition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Batched status writes for the presence registry's write-behind flush, and the append-only status
+ * transition log.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AgentPresenceRepository {
+
+    private static final String UPDATE_STATUS = "UPDATE agents SET status = ?, updated_at = ? WHERE agent_id = ?";
+
+    private static final String INSERT_STATUS_EVENT =
+            "INSERT INTO agent_status_events (agent_id, previous_status, status, changed_at) VALUES (?, ?, ?, ?)";
+
+    private static final String SELECT_STATUS_EVENTS_SINCE =
+            "SELECT agent_id, previous_status, status, changed_at FROM agent_status_events " +
+            "WHERE changed_at >= ? ORDER BY changed_at, id";
+
+    private static final int EVENT_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateStatuses(List<AgentPresence> presences) {
+        if (presences.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS, presences, presences.size(), (ps, presence) -> {
+            ps.setString(1, presence.status().name());
+            ps.setTimestamp(2, Timestamp.valueOf(presence.changedAt()));
+            ps.setLong(3, presence.agentId());
+        });
+    }
+
+    public void insertStatusEvents(List<AgentStatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_STATUS_EVENT, transitions, transitions.size(), (ps, transition) -> {
+            ps.setLong(1, transition.agentId());
+            ps.setString(2, transition.previousStatus() != null ? transition.previousStatus().name() : null);
+            ps.setString(3, transition.status().name());
+            ps.setTimestamp(4, Timestamp.valueOf(transition.changedAt()));
+        });
+    }
+
+    /**
+     * Streams the transitions logged at or after {@code since}, oldest first, {@value #EVENT_FETCH_SIZE}
+     * rows per round trip.
+     */
+    public void forEachStatusEventSince(LocalDateTime since, Consumer<AgentStatusTransition> consumer) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_STATUS_EVENTS_SINCE);
+            ps.setFetchSize(EVENT_FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(since));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            String previous = rs.getString(2);
+            consumer.accept(new AgentStatusTransition(
+                    rs.getLong(1),
+                    previous != null ? AgentStatus.valueOf(previous) : null,
+                    AgentStatus.valueOf(rs.getString(3)),
+                    rs.getTimestamp(4).toLocalDateTime()));
+        });
+    }
+}
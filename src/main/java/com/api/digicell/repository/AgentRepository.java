@@ -2,6 +2,24 @@ package com.api.digicell.repository;
 
 import com.api.digicell.entities.Agent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface AgentRepository extends JpaRepository<Agent, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface AgentRepository extends JpaRepository<Agent, Long>, JpaSpecificationExecutor<Agent> {
+
+    /**
+     * The subset of the given ids that exist, for validating batches without loading the entities.
+     */
+    @Query("SELECT a.agentId FROM Agent a WHERE a.agentId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Status and labels of every agent as {@code [agentId, status, updatedAt, labels]} rows, for loading the presence registry.
+     */
+    @Query("SELECT a.agentId, a.status, a.updatedAt, a.labels FROM Agent a")
+    List<Object[]> findAllStatuses();
 } 
\ No newline at end of file
@@ -2,13 +2,14 @@ package com.api.digicell.repository;
 
 import com.api.digicell.entities.Alias;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.Optional;
 
 /**
  * Repository for {@link Alias} entity.
  */
-public interface AliasRepository extends JpaRepository<Alias, Long> {
+public interface AliasRepository extends JpaRepository<Alias, Long>, JpaSpecificationExecutor<Alias> {
     Optional<Alias> findByKey(String key);
 
     void deleteByKey(String key);
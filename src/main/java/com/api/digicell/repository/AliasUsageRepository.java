@@ -0,0 +1,44 @@
+package com.api.digicell.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to the alias usage counts, which the JPA entity neither inserts nor updates so that
+ * alias edits never overwrite a flushed count.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AliasUsageRepository {
+
+    private static final String ADD_USAGE = "UPDATE aliases SET usage_count = usage_count + ? WHERE alias_id = ?";
+    private static final String SELECT_USAGE = "SELECT alias_id, usage_count FROM aliases";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the counted uses, alias id to delta, in one JDBC batch; deleted aliases are skipped by the
+     * WHERE clause.
+     */
+    public void addUsage(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((aliasId, delta) -> args.add(new Object[]{delta, aliasId}));
+        jdbcTemplate.batchUpdate(ADD_USAGE, args);
+    }
+
+    public Map<Long, Long> findUsageCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_USAGE, (RowCallbackHandler) rs -> counts.put(rs.getLong(1), rs.getLong(2)));
+        return counts;
+    }
+}
@@ -0,0 +1,25 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.AliasVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+/**
+ * Repository for the {@link AliasVersion} counter.
+ */
+public interface AliasVersionRepository extends JpaRepository<AliasVersion, Integer> {
+
+    @Query("SELECT v.version FROM AliasVersion v WHERE v.id = " + AliasVersion.ID)
+    Optional<Long> findCurrent();
+
+    /**
+     * Increments the version, creating the row on first use; call inside the transaction of the change.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO alias_versions (id, version) VALUES (" + AliasVersion.ID + ", 1) " +
+                   "ON DUPLICATE KEY UPDATE version = version + 1", nativeQuery = true)
+    void increment();
+}
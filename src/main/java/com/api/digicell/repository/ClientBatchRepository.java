@@ -0,0 +1,100 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.dto.ClientSuggestionDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC access to clients for bulk work. Like {@link AgentBatchRepository} this bypasses the
+ * persistence context, so a whole batch is sent as one JDBC batch and a full scan holds no entities.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClientBatchRepository {
+
+    private static final String UPSERT_CLIENT =
+            "INSERT INTO clients (name, email, phone, is_assigned, created_at) " +
+            "VALUES (:name, :email, :phone, FALSE, :now) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), phone = VALUES(phone)";
+
+    private static final String INSERT_CLIENT =
+            "INSERT INTO clients (name, email, phone, is_assigned, created_at) VALUES (:name, :email, :phone, FALSE, :now)";
+
+    private static final String MARK_ASSIGNED =
+            "UPDATE clients SET is_assigned = TRUE WHERE is_assigned = FALSE " +
+            "AND client_id IN (SELECT client_id FROM conversations WHERE end_time IS NULL)";
+
+    private static final String SELECT_SEARCH_FIELDS = "SELECT client_id, name, email, phone FROM clients";
+    private static final String SELECT_SEARCH_FIELDS_BY_EMAIL = SELECT_SEARCH_FIELDS + " WHERE email IN (:emails)";
+    private static final int SCAN_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts client rows, or updates name and phone of the client with the same email, in one JDBC batch.
+     * Each row holds {@code name}, {@code email}, {@code phone} and {@code now}; emails must be unique
+     * within the batch.
+     *
+     * @return the driver's update count per row (1 inserted, 2 updated, 0 unchanged, or
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} when the batch was rewritten)
+     */
+    public int[] upsertClients(List<Map<String, Object>> rows) {
+        SqlParameterSource[] params = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate(UPSERT_CLIENT, params);
+    }
+
+    /**
+     * Inserts client rows in one JDBC batch; rows take the same values as {@link #upsertClients(List)} and
+     * their emails must not exist yet.
+     *
+     * @return the generated client ids, in row order
+     */
+    public List<Long> insertClients(List<Map<String, Object>> rows) {
+        SqlParameterSource[] params = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_CLIENT, params, keyHolder, new String[]{"client_id"});
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Flags every client with an open conversation as assigned.
+     *
+     * @return number of clients changed
+     */
+    public int markAssignedWithOpenConversations() {
+        return jdbcTemplate.getJdbcTemplate().update(MARK_ASSIGNED);
+    }
+
+    /**
+     * Streams the searchable fields of every client, {@value #SCAN_FETCH_SIZE} rows per fetch.
+     */
+    public void forEachClient(Consumer<ClientSuggestionDTO> consumer) {
+        jdbcTemplate.getJdbcTemplate().query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_SEARCH_FIELDS);
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(
+                new ClientSuggestionDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4))));
+    }
+
+    public List<ClientSuggestionDTO> findByEmails(List<String> emails) {
+        return jdbcTemplate.query(SELECT_SEARCH_FIELDS_BY_EMAIL, new MapSqlParameterSource("emails", emails),
+                (rs, rowNum) -> new ClientSuggestionDTO(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+    }
+}
@@ -0,0 +1,90 @@
+package com.api.digicell.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Gives MySQL an indexed, E.164-normalized phone key for clients.
+ * <p>
+ * {@code phone_key} is a virtual column computed from {@code phone} with the same rules as
+ * {@link com.api.digicell.converters.PhoneNumbers}, so rows written by any system are covered, and
+ * {@code idx_clients_phone_key} indexes it. Like {@code toE164} it is NULL unless the key has 4 to 15
+ * digits, so an overlong phone cannot fail an insert in strict mode. The column is added on startup with
+ * the configured {@code digicell.phone.default-country-code} baked in and recorded in its comment; when
+ * the comment differs (another country code or an older definition) the column is redefined. Where it
+ * cannot be created {@link #isAvailable()} stays false and lookups fall back to a suffix match normalized
+ * in Java.
+ * </p>
+ */
+@Component
+public class ClientPhoneIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ClientPhoneIndex.class);
+    public static final String INDEX_NAME = "idx_clients_phone_key";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String defaultCountryCode;
+    private volatile boolean available;
+
+    public ClientPhoneIndex(JdbcTemplate jdbcTemplate,
+                            @Value("${digicell.phone.default-country-code:1}") String defaultCountryCode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultCountryCode = defaultCountryCode;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        if (!defaultCountryCode.matches("[1-9][0-9]{0,2}")) {
+            logger.warn("Invalid digicell.phone.default-country-code '{}', phone key column not created", defaultCountryCode);
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (!"MySQL".equalsIgnoreCase(product)) {
+                logger.info("Client phone key column not supported on {}; phone lookups use a suffix scan", product);
+                return;
+            }
+            String digits = "REGEXP_REPLACE(phone, '[^0-9]', '')";
+            String key = "(CASE " +
+                    "WHEN TRIM(phone) LIKE '+%' THEN CONCAT('+', " + digits + ") " +
+                    "WHEN " + digits + " LIKE '00%' THEN CONCAT('+', SUBSTRING(" + digits + ", 3)) " +
+                    "ELSE CONCAT('+" + defaultCountryCode + "', " + digits + ") END)";
+            String comment = "e164 v2 +" + defaultCountryCode;
+            String column = "phone_key VARCHAR(20) AS (CASE WHEN " + key + " REGEXP '^[+][1-9][0-9]{3,14}$' " +
+                    "THEN " + key + " END) VIRTUAL COMMENT '" + comment + "'";
+            List<String> comments = jdbcTemplate.queryForList("SELECT column_comment FROM information_schema.columns " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'clients' AND column_name = 'phone_key'", String.class);
+            if (comments.isEmpty()) {
+                jdbcTemplate.execute("ALTER TABLE clients ADD COLUMN " + column);
+            } else if (!comment.equals(comments.get(0))) {
+                jdbcTemplate.execute("ALTER TABLE clients MODIFY COLUMN " + column);
+                logger.info("Redefined client phone key column for default country code {}", defaultCountryCode);
+            }
+            if (count("SELECT COUNT(*) FROM information_schema.statistics " +
+                      "WHERE table_schema = DATABASE() AND table_name = 'clients' AND index_name = ?", INDEX_NAME) == 0) {
+                jdbcTemplate.execute("ALTER TABLE clients ADD INDEX " + INDEX_NAME + " (phone_key)");
+                logger.info("Created index {} on normalized client phones", INDEX_NAME);
+            }
+            available = true;
+        } catch (DataAccessException e) {
+            logger.warn("Client phone key index unavailable, phone lookups use a suffix scan: {}", e.getMessage());
+        }
+    }
+
+    private int count(String sql, String name) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, name);
+        return count == null ? 0 : count;
+    }
+}
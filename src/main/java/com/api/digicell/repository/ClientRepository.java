@@ -2,17 +2,56 @@ package com.api.digicell.repository;
 
 import com.api.digicell.entities.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ClientRepository extends JpaRepository<Client, Long> {
+public interface ClientRepository extends JpaRepository<Client, Long>, JpaSpecificationExecutor<Client> {
 
     List<Client> findByIsAssigned(Boolean isAssigned);
 
+    /**
+     * The subset of the given ids that exist, for validating batches without loading the entities.
+     */
+    @Query("SELECT c.clientId FROM Client c WHERE c.clientId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Client c SET c.isAssigned = :assigned WHERE c.clientId = :clientId")
+    int updateAssigned(@Param("clientId") Long clientId, @Param("assigned") boolean assigned);
+
+    /**
+     * Marks the client assigned unless it already is.
+     * @return 0 if the client does not exist or is already assigned
+     */
+    @Modifying
+    @Query("UPDATE Client c SET c.isAssigned = true WHERE c.clientId = :clientId AND (c.isAssigned = false OR c.isAssigned IS NULL)")
+    int claimUnassigned(@Param("clientId") Long clientId);
+
+    @Modifying
+    @Query("UPDATE Client c SET c.isAssigned = true WHERE c.clientId IN :clientIds")
+    int markAssigned(@Param("clientIds") Collection<Long> clientIds);
+
+    /**
+     * Clients whose normalized phone equals the E.164 key; needs {@link ClientPhoneIndex#isAvailable()}.
+     */
+    @Query(value = "SELECT * FROM clients WHERE phone_key = :phoneKey ORDER BY client_id", nativeQuery = true)
+    List<Client> findByPhoneKey(@Param("phoneKey") String phoneKey);
+
+    /**
+     * Candidates for a phone lookup without the phone key column; callers compare the normalized numbers.
+     */
+    List<Client> findByPhoneEndingWith(String suffix);
+
+    Optional<Client> findByEmail(String email);
+
     @Query("SELECT DISTINCT c.client FROM Conversation c WHERE c.agent.agentId = :agentId")
     List<Client> findByAgent_AgentId(@Param("agentId") Long agentId);
 } 
\ No newline at end of file
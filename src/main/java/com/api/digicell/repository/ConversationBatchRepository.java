@@ -0,0 +1,124 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.ConversationMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes of conversations that Hibernate cannot issue efficiently. Hibernate cannot batch
+ * inserts of entities with {@code IDENTITY} ids, so bulk inserts bypass the persistence context; with
+ * {@code rewriteBatchedStatements=true} on the JDBC URL each batch is sent to MySQL as multi-row INSERT
+ * statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ConversationBatchRepository {
+
+    private static final String INSERT_CONVERSATION =
+            "INSERT INTO conversations (client_id, agent_id, intent, start_time, end_time, chat_history, chat_summary) " +
+            "VALUES (:clientId, :agentId, :intent, :startTime, :endTime, :chatHistory, :chatSummary)";
+
+    /**
+     * Relies on the unique index of {@link OpenConversationIndex}: the row is always inserted as open, so if
+     * the pair already has an open conversation the index is hit and that one is updated instead (and closed
+     * when {@code endTime} is set). {@code LAST_INSERT_ID(expr)} makes the statement report the existing id.
+     */
+    private static final String UPSERT_OPEN_CONVERSATION =
+            "INSERT INTO conversations (client_id, agent_id, intent, start_time, end_time, chat_history, chat_summary) " +
+            "VALUES (:clientId, :agentId, :intent, :startTime, NULL, :chatHistory, :chatSummary) " +
+            "ON DUPLICATE KEY UPDATE conversation_id = LAST_INSERT_ID(conversation_id), " +
+            "intent = VALUES(intent), end_time = :endTime, " +
+            "chat_history = CASE WHEN :replaceHistory THEN VALUES(chat_history) ELSE chat_history END";
+
+    private static final String CLOSE_CONVERSATION =
+            "UPDATE conversations SET end_time = :endTime WHERE conversation_id = :conversationId";
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO conversation_messages (conversation_id, session_no, seq, role, content, timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts conversation rows in one JDBC batch. Each row holds the column values by parameter name
+     * ({@code clientId}, {@code agentId}, {@code intent}, {@code startTime}, {@code endTime},
+     * {@code chatHistory} already encoded, {@code chatSummary}).
+     *
+     * @return the generated conversation ids, in row order
+     */
+    public List<Long> insertConversations(List<Map<String, Object>> rows) {
+        SqlParameterSource[] params = rows.stream().map(MapSqlParameterSource::new).toArray(SqlParameterSource[]::new);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(INSERT_CONVERSATION, params, keyHolder, new String[]{"conversation_id"});
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Creates a conversation or, if the pair already has an open one, updates its intent, end time and
+     * (when {@code replaceHistory} is set) chat history, in a single statement. Takes the same row values
+     * as {@link #insertConversations(List)}; requires {@link OpenConversationIndex#isAvailable()}.
+     *
+     * @return id of the created or updated conversation, and whether an already open conversation was closed
+     */
+    public Upserted upsertOpenConversation(Map<String, Object> row, boolean replaceHistory) {
+        MapSqlParameterSource params = new MapSqlParameterSource(row).addValue("replaceHistory", replaceHistory);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int updated = jdbcTemplate.update(UPSERT_OPEN_CONVERSATION, params, keyHolder, new String[]{"conversation_id"});
+        Long id = keyHolder.getKeyList().isEmpty()
+                // An update that changed nothing reports no generated key, LAST_INSERT_ID() still holds the id.
+                ? jdbcTemplate.getJdbcTemplate().queryForObject("SELECT LAST_INSERT_ID()", Long.class)
+                : ((Number) keyHolder.getKeyList().get(0).values().iterator().next()).longValue();
+        if (row.get("endTime") == null) {
+            return new Upserted(id, false);
+        }
+        if (updated == 1) {
+            // Inserted, but the conversation arrived already closed.
+            jdbcTemplate.update(CLOSE_CONVERSATION, new MapSqlParameterSource("endTime", row.get("endTime")).addValue("conversationId", id));
+            return new Upserted(id, false);
+        }
+        // end_time went from NULL to a value, so the update always reports 2 affected rows.
+        return new Upserted(id, true);
+    }
+
+    /**
+     * Result of {@link #upsertOpenConversation(Map, boolean)}.
+     */
+    public record Upserted(Long conversationId, boolean closedOpen) {
+    }
+
+    /**
+     * Inserts message rows in one JDBC batch.
+     */
+    public void insertMessages(List<ConversationMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_MESSAGE, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getId().getConversationId());
+            ps.setInt(2, message.getId().getSessionNo());
+            ps.setLong(3, message.getId().getSeq());
+            ps.setString(4, message.getRole());
+            ps.setString(5, message.getContent());
+            ps.setTimestamp(6, toTimestamp(message.getTimestamp()));
+        });
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
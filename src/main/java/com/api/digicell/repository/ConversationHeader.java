@@ -0,0 +1,26 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.Client;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection of a conversation with its agent and client but without the chat history
+ * column, for reads that load only part of the history.
+ */
+public interface ConversationHeader {
+    Long getConversationId();
+
+    Agent getAgent();
+
+    Client getClient();
+
+    String getIntent();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+    String getChatSummary();
+}
@@ -0,0 +1,21 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.ConversationImportCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ConversationImportCheckpointRepository extends JpaRepository<ConversationImportCheckpoint, String> {
+
+    /**
+     * Reads the checkpoint and locks it for the rest of the transaction, so two requests cannot commit
+     * the same import concurrently.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ConversationImportCheckpoint c WHERE c.importId = :importId")
+    Optional<ConversationImportCheckpoint> lockByImportId(@Param("importId") String importId);
+}
@@ -0,0 +1,50 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.ConversationMessage;
+import com.api.digicell.entities.ConversationMessageId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for {@link ConversationMessage} rows. All history reads are keyset queries on
+ * (conversation_id, seq) so their cost depends on the page size, not on the conversation length.
+ */
+@Repository
+public interface ConversationMessageRepository extends JpaRepository<ConversationMessage, ConversationMessageId> {
+
+    List<ConversationMessage> findByIdConversationIdAndIdSeqGreaterThanOrderByIdSeqAsc(Long conversationId, Long afterSeq, Limit limit);
+
+    List<ConversationMessage> findByIdConversationIdAndIdSeqLessThanOrderByIdSeqDesc(Long conversationId, Long beforeSeq, Limit limit);
+
+    List<ConversationMessage> findByIdConversationIdOrderByIdSeqAsc(Long conversationId);
+
+    List<ConversationMessage> findByIdConversationIdInOrderByIdConversationIdAscIdSeqAsc(Collection<Long> conversationIds);
+
+    Optional<ConversationMessage> findFirstByIdConversationIdOrderByIdSeqDesc(Long conversationId);
+
+    List<ConversationMessage> findByIdConversationIdOrderByIdSeqDesc(Long conversationId, Limit limit);
+
+    List<ConversationMessage> findByIdConversationIdAndIdSessionNoGreaterThanEqualOrderByIdSeqAsc(Long conversationId, int sessionNo);
+
+    boolean existsByIdConversationId(Long conversationId);
+
+    @Query("SELECT m FROM ConversationMessage m WHERE m.id.conversationId IN " +
+           "(SELECT c.conversationId FROM Conversation c WHERE c.client.clientId = :clientId) " +
+           "ORDER BY m.id.conversationId, m.id.seq")
+    List<ConversationMessage> findByClientId(@Param("clientId") Long clientId);
+
+    @Query("SELECT DISTINCT m.id.conversationId FROM ConversationMessage m WHERE m.id.conversationId IN :conversationIds")
+    List<Long> findConversationIdsWithMessages(@Param("conversationIds") Collection<Long> conversationIds);
+
+    @Modifying
+    @Query("DELETE FROM ConversationMessage m WHERE m.id.conversationId = :conversationId")
+    int deleteByConversationId(@Param("conversationId") Long conversationId);
+}
@@ -3,25 +3,254 @@ package com.api.digicell.repository;
 import com.api.digicell.entities.Conversation;
 import com.api.digicell.entities.Client;
 import com.api.digicell.entities.Agent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+public interface ConversationRepository extends JpaRepository<Conversation, Long>, JpaSpecificationExecutor<Conversation> {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /*
+     * Entity finders fetch-join the agent and client so list endpoints do not issue one extra
+     * SELECT per row for the eager many-to-one associations.
+     */
+
+    @Override
+    @EntityGraph(attributePaths = {"agent", "client"})
+    List<Conversation> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"agent", "client"})
+    Optional<Conversation> findById(Long id);
+
+    /**
+     * All conversations in id order, with agent and client, read as a forward-only stream. Rows are
+     * fetched from the server {@value #STREAM_FETCH_SIZE} at a time (MySQL needs {@code useCursorFetch=true}
+     * on the JDBC URL for this) and loaded read-only. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT c FROM Conversation c JOIN FETCH c.agent JOIN FETCH c.client ORDER BY c.conversationId")
+    Stream<Conversation> streamAll();
 
     /**
      * Fetch all conversations assigned to a given agent id.
      */
+    @EntityGraph(attributePaths = {"agent", "client"})
     List<Conversation> findByAgent_AgentId(Long agentId);
 
+    @EntityGraph(attributePaths = {"agent", "client"})
     List<Conversation> findByClient_ClientId(Long clientId);
 
+    @EntityGraph(attributePaths = {"agent", "client"})
     List<Conversation> findByAgent_AgentIdAndClient_ClientId(Long agentId, Long clientId);
 
+    @EntityGraph(attributePaths = {"agent", "client"})
     Optional<Conversation> findByConversationIdAndClient_ClientId(Long conversationId, Long clientId);
 
+    /**
+     * Summary rows of a client's conversations, oldest first. Never reads the chat history column.
+     */
+    @Query("SELECT c.conversationId AS conversationId, a.agentId AS agentId, a.name AS agentName, " +
+           "cl.clientId AS clientId, cl.name AS clientName, c.intent AS intent, c.chatSummary AS chatSummary, " +
+           "c.startTime AS startTime, c.endTime AS endTime " +
+           "FROM Conversation c JOIN c.agent a JOIN c.client cl " +
+           "WHERE cl.clientId = :clientId ORDER BY c.startTime, c.conversationId")
+    List<ConversationSummary> findSummariesByClientId(@Param("clientId") Long clientId);
+
+    /**
+     * Summary rows of an agent's conversations, oldest first. Never reads the chat history column.
+     */
+    @Query("SELECT c.conversationId AS conversationId, a.agentId AS agentId, a.name AS agentName, " +
+           "cl.clientId AS clientId, cl.name AS clientName, c.intent AS intent, c.chatSummary AS chatSummary, " +
+           "c.startTime AS startTime, c.endTime AS endTime " +
+           "FROM Conversation c JOIN c.agent a JOIN c.client cl " +
+           "WHERE a.agentId = :agentId ORDER BY c.startTime, c.conversationId")
+    List<ConversationSummary> findSummariesByAgentId(@Param("agentId") Long agentId);
+
     Optional<Conversation> findByClientAndAgentAndEndTimeIsNull(Client client, Agent agent);
-} 
\ No newline at end of file
+
+    /**
+     * Number of open conversations per agent, as {@code [agentId, count]} rows.
+     */
+    @Query("SELECT c.agent.agentId, COUNT(c) FROM Conversation c WHERE c.endTime IS NULL GROUP BY c.agent.agentId")
+    List<Object[]> countOpenByAgent();
+
+    /**
+     * Ids of all open conversations, as {@code [agentId, conversationId]} rows.
+     */
+    @Query("SELECT c.agent.agentId, c.conversationId FROM Conversation c WHERE c.endTime IS NULL")
+    List<Object[]> findOpenIdsByAgent();
+
+    /**
+     * Number of conversations closed at or after {@code since} per agent, as {@code [agentId, count]} rows.
+     */
+    @Query("SELECT c.agent.agentId, COUNT(c) FROM Conversation c WHERE c.endTime >= :since GROUP BY c.agent.agentId")
+    List<Object[]> countClosedSinceByAgent(@Param("since") LocalDateTime since);
+
+    boolean existsByAgent_AgentId(Long agentId);
+
+    /**
+     * Locks the conversation row for the rest of the transaction, serializing writers that allocate
+     * message sequence numbers for the same conversation.
+     */
+    @Query(value = "SELECT conversation_id FROM conversations WHERE conversation_id = :conversationId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("conversationId") Long conversationId);
+
+    @Query(value = "SELECT conversation_id FROM conversations WHERE conversation_id IN (:conversationIds) FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("conversationIds") Collection<Long> conversationIds);
+
+    @Query("SELECT c.conversationId FROM Conversation c WHERE c.conversationId > :afterId ORDER BY c.conversationId")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads the raw chat history column without materializing the entities.
+     * Each row is {@code [conversation_id, chat_history]}.
+     */
+    @Query(value = "SELECT conversation_id, CAST(chat_history AS CHAR) FROM conversations WHERE conversation_id IN (:conversationIds)", nativeQuery = true)
+    List<Object[]> findRawChatHistories(@Param("conversationIds") Collection<Long> conversationIds);
+
+    /**
+     * Raw chat history column of every conversation of a client, as {@code [conversation_id, chat_history]} rows.
+     */
+    @Query(value = "SELECT conversation_id, CAST(chat_history AS CHAR) FROM conversations WHERE client_id = :clientId", nativeQuery = true)
+    List<Object[]> findRawChatHistoriesByClientId(@Param("clientId") Long clientId);
+
+    /**
+     * The conversation's columns except the chat history.
+     */
+    @Query("SELECT c.conversationId AS conversationId, a AS agent, cl AS client, c.intent AS intent, " +
+           "c.startTime AS startTime, c.endTime AS endTime, c.chatSummary AS chatSummary " +
+           "FROM Conversation c JOIN c.agent a JOIN c.client cl WHERE c.conversationId = :conversationId")
+    Optional<ConversationHeader> findWithoutChatHistory(@Param("conversationId") Long conversationId);
+
+    /**
+     * The last {@code sessions} sessions of the stored chat history, sliced by MySQL. Histories that are
+     * not a plain JSON array (compressed) or already short enough are returned whole.
+     */
+    @Query(value = """
+            SELECT CASE
+                WHEN JSON_TYPE(chat_history) <> 'ARRAY' OR JSON_LENGTH(chat_history) <= :sessions
+                    THEN CAST(chat_history AS CHAR)
+                ELSE CAST(JSON_EXTRACT(chat_history,
+                        CONCAT('$[', JSON_LENGTH(chat_history) - :sessions, ' to last]')) AS CHAR)
+            END
+            FROM conversations WHERE conversation_id = :conversationId
+            """, nativeQuery = true)
+    List<String> findChatHistoryLastSessions(@Param("conversationId") Long conversationId, @Param("sessions") int sessions);
+
+    /**
+     * The last {@code messages} messages of the stored chat history, newest first, optionally restricted
+     * to the last {@code sessions} sessions (0 for all). Each row is {@code [session, position, message json]};
+     * session numbers are relative to the slice and only meaningful for grouping.
+     * Returns no rows for compressed histories.
+     */
+    @Query(value = """
+            SELECT jt.session_no, jt.message_no, CAST(jt.message AS CHAR)
+            FROM conversations c,
+                 JSON_TABLE(
+                     CASE
+                         WHEN :sessions > 0 AND JSON_LENGTH(c.chat_history) > :sessions
+                             THEN JSON_EXTRACT(c.chat_history,
+                                     CONCAT('$[', JSON_LENGTH(c.chat_history) - :sessions, ' to last]'))
+                         ELSE c.chat_history
+                     END,
+                     '$[*]' COLUMNS (
+                         session_no FOR ORDINALITY,
+                         NESTED PATH '$[*]' COLUMNS (
+                             message_no FOR ORDINALITY,
+                             message JSON PATH '$'))) jt
+            WHERE c.conversation_id = :conversationId
+              AND JSON_TYPE(c.chat_history) = 'ARRAY'
+              AND jt.message_no IS NOT NULL
+            ORDER BY jt.session_no DESC, jt.message_no DESC
+            LIMIT :messages
+            """, nativeQuery = true)
+    List<Object[]> findChatHistoryLastMessages(@Param("conversationId") Long conversationId,
+                                               @Param("sessions") int sessions,
+                                               @Param("messages") int messages);
+
+    /**
+     * Appends a JSON array of messages to the last session of the stored chat history, creating the
+     * first session when the history is empty. The document is spliced by MySQL, so prior sessions are
+     * never transferred to or re-serialized by the application. Compressed histories (stored as a JSON
+     * string) are left untouched and must be appended to in the application.
+     *
+     * @return number of rows updated (0 when the conversation does not exist or its history is compressed)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE conversations
+            SET chat_history = CASE
+                WHEN chat_history IS NULL OR JSON_LENGTH(chat_history) = 0
+                    THEN JSON_ARRAY(CAST(:messages AS JSON))
+                ELSE JSON_SET(chat_history,
+                        CONCAT('$[', JSON_LENGTH(chat_history) - 1, ']'),
+                        JSON_MERGE_PRESERVE(
+                            JSON_EXTRACT(chat_history, CONCAT('$[', JSON_LENGTH(chat_history) - 1, ']')),
+                            CAST(:messages AS JSON)))
+            END
+            WHERE conversation_id = :conversationId
+              AND (chat_history IS NULL OR JSON_TYPE(chat_history) = 'ARRAY')
+            """, nativeQuery = true)
+    int appendToCurrentSession(@Param("conversationId") Long conversationId, @Param("messages") String messagesJson);
+
+    /**
+     * Appends a JSON array of messages as a new session at the end of the stored chat history.
+     *
+     * @return number of rows updated (0 when the conversation does not exist or its history is compressed)
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE conversations
+            SET chat_history = CASE
+                WHEN chat_history IS NULL OR JSON_LENGTH(chat_history) = 0
+                    THEN JSON_ARRAY(CAST(:messages AS JSON))
+                ELSE JSON_ARRAY_APPEND(chat_history, '$', CAST(:messages AS JSON))
+            END
+            WHERE conversation_id = :conversationId
+              AND (chat_history IS NULL OR JSON_TYPE(chat_history) = 'ARRAY')
+            """, nativeQuery = true)
+    int appendNewSession(@Param("conversationId") Long conversationId, @Param("messages") String messagesJson);
+
+    /**
+     * Overwrites the raw chat history column with an already encoded value.
+     */
+    @Modifying
+    @Query(value = "UPDATE conversations SET chat_history = CAST(:chatHistory AS JSON) WHERE conversation_id = :conversationId", nativeQuery = true)
+    int writeRawChatHistory(@Param("conversationId") Long conversationId, @Param("chatHistory") String chatHistory);
+
+    /**
+     * Ids of closed conversations whose history is still a plain JSON array of at least the given
+     * stored size, in id order. Used by the background re-encode job.
+     */
+    @Query(value = """
+            SELECT conversation_id FROM conversations
+            WHERE conversation_id > :afterId
+              AND end_time IS NOT NULL
+              AND JSON_TYPE(chat_history) = 'ARRAY'
+              AND JSON_STORAGE_SIZE(chat_history) >= :minBytes
+            ORDER BY conversation_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findUncompressedClosedIds(@Param("afterId") Long afterId, @Param("minBytes") int minBytes, @Param("limit") int limit);
+}
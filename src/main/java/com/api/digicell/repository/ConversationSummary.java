@@ -0,0 +1,28 @@
+package com.api.digicell.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interface projection for summary/list views of conversations. Only scalar columns of the
+ * conversation and its agent and client are selected, so the chat history column is never
+ * read or converted.
+ */
+public interface ConversationSummary {
+    Long getConversationId();
+
+    Long getAgentId();
+
+    String getAgentName();
+
+    Long getClientId();
+
+    String getClientName();
+
+    String getIntent();
+
+    String getChatSummary();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+}
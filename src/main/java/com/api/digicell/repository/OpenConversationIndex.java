@@ -0,0 +1,66 @@
+package com.api.digicell.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ensures MySQL enforces at most one open conversation per (client, agent) pair.
+ * <p>
+ * MySQL has no partial indexes, so a virtual column {@code open_flag} is 1 while {@code end_time} is null
+ * and NULL otherwise; the unique index over {@code (client_id, agent_id, open_flag)} then only constrains
+ * open rows. Hibernate's schema update cannot express this, so the column and index are added here on
+ * startup. If they cannot be created (another database, or duplicate open conversations already stored)
+ * {@link #isAvailable()} stays false and callers must fall back to read-then-write.
+ * </p>
+ */
+@Component
+public class OpenConversationIndex {
+    private static final Logger logger = LoggerFactory.getLogger(OpenConversationIndex.class);
+    public static final String INDEX_NAME = "ux_conversations_open";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean available;
+
+    public OpenConversationIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+            if (!"MySQL".equalsIgnoreCase(product)) {
+                logger.info("Open conversation unique index not supported on {}; using in-process locking only", product);
+                return;
+            }
+            if (count("SELECT COUNT(*) FROM information_schema.statistics " +
+                      "WHERE table_schema = DATABASE() AND table_name = 'conversations' AND index_name = ?", INDEX_NAME) == 0) {
+                if (count("SELECT COUNT(*) FROM information_schema.columns " +
+                          "WHERE table_schema = DATABASE() AND table_name = 'conversations' AND column_name = ?", "open_flag") == 0) {
+                    jdbcTemplate.execute("ALTER TABLE conversations " +
+                            "ADD COLUMN open_flag TINYINT AS (CASE WHEN end_time IS NULL THEN 1 END) VIRTUAL");
+                }
+                jdbcTemplate.execute("ALTER TABLE conversations ADD UNIQUE INDEX " + INDEX_NAME + " (client_id, agent_id, open_flag)");
+                logger.info("Created unique index {} on open conversations", INDEX_NAME);
+            }
+            available = true;
+        } catch (DataAccessException e) {
+            logger.warn("Open conversation unique index unavailable, conversations are created with read-then-write: {}", e.getMessage());
+        }
+    }
+
+    private int count(String sql, String name) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, name);
+        return count == null ? 0 : count;
+    }
+}
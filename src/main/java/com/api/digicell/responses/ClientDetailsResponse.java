@@ -2,12 +2,17 @@ package com.api.digicell.responses;
 
 import com.api.digicell.entities.Client;
 import com.api.digicell.dto.ClientConvoDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
 public class ClientDetailsResponse {
     private Client client;
     private List<ClientConvoDto> conversations;
 
+    /** Parts left out because their query failed or missed the deadline; only set in composed mode. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> missing;
+
     public Client getClient() {
         return client;
     }
@@ -23,4 +28,12 @@ public class ClientDetailsResponse {
     public void setConversations(List<ClientConvoDto> conversations) {
         this.conversations = conversations;
     }
-} 
\ No newline at end of file
+
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+}
@@ -1,5 +1,6 @@
 package com.api.digicell.responses;
 
+import com.api.digicell.pagination.CursorPage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -10,6 +11,8 @@ import java.util.List;
  */
 public final class ResponseUtil {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private ResponseUtil() {}
 
     /**
@@ -27,4 +30,18 @@ public final class ResponseUtil {
         ApiResponse<List<T>> body = new ApiResponse<>(HttpStatus.OK.value(), entityName + " fetched successfully", list);
         return ResponseEntity.ok(body);
     }
+
+    /**
+     * Same as {@link #listResponse(List, String)} for one page of a keyset-paginated list. The cursor of
+     * the next page, if any, is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    public static <T> ResponseEntity<ApiResponse<List<T>>> pageResponse(CursorPage<T> page, String entityName) {
+        ResponseEntity<ApiResponse<List<T>>> response = listResponse(page.getItems(), entityName);
+        if (page.getNextCursor() == null) {
+            return response;
+        }
+        return ResponseEntity.status(response.getStatusCode())
+                .header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                .body(response.getBody());
+    }
 } 
\ No newline at end of file
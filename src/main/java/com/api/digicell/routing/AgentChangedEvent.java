@@ -0,0 +1,11 @@
+package com.api.digicell.routing;
+
+import com.api.digicell.entities.AgentStatus;
+
+import java.util.List;
+
+/**
+ * Published when an agent is created, updated or deleted, so routing sees its current labels and status.
+ */
+public record AgentChangedEvent(Long agentId, List<String> labels, AgentStatus status, boolean deleted) {
+}
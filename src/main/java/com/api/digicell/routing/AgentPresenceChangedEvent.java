@@ -0,0 +1,9 @@
+package com.api.digicell.routing;
+
+import com.api.digicell.entities.AgentStatus;
+
+/**
+ * Published by the presence registry when an agent's status changes; labels are unchanged.
+ */
+public record AgentPresenceChangedEvent(Long agentId, AgentStatus status) {
+}
@@ -0,0 +1,7 @@
+package com.api.digicell.routing;
+
+/**
+ * Published after a change to a client row has committed, so cached copies of it can be dropped.
+ */
+public record ClientChangedEvent(Long clientId) {
+}
@@ -0,0 +1,10 @@
+package com.api.digicell.routing;
+
+import java.util.List;
+
+/**
+ * Published after a batch of the bulk client import has committed; the clients are named by email since
+ * the upsert does not return their ids.
+ */
+public record ClientsImportedEvent(List<String> emails) {
+}
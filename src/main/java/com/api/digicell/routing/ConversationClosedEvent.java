@@ -0,0 +1,9 @@
+package com.api.digicell.routing;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when an open conversation gets an end time, freeing one unit of its agent's load.
+ */
+public record ConversationClosedEvent(Long conversationId, Long agentId, Long clientId, LocalDateTime endTime) {
+}
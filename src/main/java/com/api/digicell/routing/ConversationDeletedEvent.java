@@ -0,0 +1,8 @@
+package com.api.digicell.routing;
+
+/**
+ * Published when a conversation that was still open is deleted, freeing one unit of its agent's load
+ * without counting as a close.
+ */
+public record ConversationDeletedEvent(Long conversationId, Long agentId, Long clientId) {
+}
@@ -0,0 +1,8 @@
+package com.api.digicell.routing;
+
+/**
+ * Published when a conversation is created or updated without an end time. May be published more than
+ * once for the same conversation.
+ */
+public record ConversationOpenedEvent(Long conversationId, Long agentId, Long clientId) {
+}
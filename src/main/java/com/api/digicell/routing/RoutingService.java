@@ -0,0 +1,277 @@
+package com.api.digicell.routing;
+
+import com.api.digicell.dto.ConversationDTO;
+import com.api.digicell.dto.RoutingResultDTO;
+import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.entities.Client;
+import com.api.digicell.entities.Conversation;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.repository.AgentRepository;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.services.ConversationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes waiting clients to available agents through a {@link SkillRouter}.
+ * <p>
+ * Selection happens entirely in memory. Only a completed assignment touches the database: the client is
+ * marked assigned and its conversation created in one transaction. Assignments of the requesting client
+ * are persisted on the caller's thread; assignments of clients that were queued earlier, triggered by an
+ * agent becoming available or finishing a conversation, are persisted on a small worker pool. If
+ * persisting fails the agent's reserved load is released again.
+ * </p>
+ * The router is loaded from the database on startup and kept current through {@link AgentChangedEvent},
+ * {@link ConversationOpenedEvent}, {@link ConversationClosedEvent} and {@link ConversationDeletedEvent}, all
+ * handled after their transaction commits. Open conversations are tracked by id, so a conversation counts
+ * once against its agent's load however often it is published, and routed conversations, whose load was
+ * reserved when the agent was picked, are not counted again.
+ */
+@Service
+public class RoutingService {
+    private static final Logger logger = LoggerFactory.getLogger(RoutingService.class);
+
+    private final SkillRouter router;
+    private final AgentRepository agentRepository;
+    private final ClientRepository clientRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationService conversationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService persistExecutor;
+    private final Timer selectionTimer;
+    private final Timer waitTimer;
+    private final Counter assignedCounter;
+    private final Counter failedCounter;
+    /** Agent id of every open conversation counted in the router's load, by conversation id. */
+    private final Map<Long, Long> openConversations = new ConcurrentHashMap<>();
+
+    public RoutingService(AgentRepository agentRepository,
+                          ClientRepository clientRepository,
+                          ConversationRepository conversationRepository,
+                          ConversationService conversationService,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Value("${digicell.routing.max-load-per-agent:3}") int maxLoadPerAgent,
+                          @Value("${digicell.routing.persist-threads:4}") int persistThreads) {
+        this.router = new SkillRouter(maxLoadPerAgent);
+        this.agentRepository = agentRepository;
+        this.clientRepository = clientRepository;
+        this.conversationRepository = conversationRepository;
+        this.conversationService = conversationService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.persistExecutor = Executors.newFixedThreadPool(persistThreads);
+        this.selectionTimer = Timer.builder("digicell.routing.selection")
+                .description("Time to select an agent for a routing request, without persistence")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("digicell.routing.wait")
+                .description("Time from routing request to persisted assignment")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.assignedCounter = Counter.builder("digicell.routing.assignments").tag("result", "assigned").register(meterRegistry);
+        this.failedCounter = Counter.builder("digicell.routing.assignments").tag("result", "failed").register(meterRegistry);
+        meterRegistry.gauge("digicell.routing.waiting", router, SkillRouter::waitingCount);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAgents() {
+        Map<Long, Integer> openByAgent = new HashMap<>();
+        for (Object[] row : conversationRepository.findOpenIdsByAgent()) {
+            Long agentId = (Long) row[0];
+            openConversations.put((Long) row[1], agentId);
+            openByAgent.merge(agentId, 1, Integer::sum);
+        }
+        List<Agent> agents = agentRepository.findAll();
+        for (Agent agent : agents) {
+            router.putAgent(agent.getAgentId(), agent.getLabels(), agent.getStatus() == AgentStatus.AVAILABLE,
+                    openByAgent.getOrDefault(agent.getAgentId(), 0));
+        }
+        logger.info("Routing loaded {} agents", agents.size());
+    }
+
+    /**
+     * Routes a client to the least loaded available agent serving the intent, or queues it.
+     * @throws ResourceNotFoundException if the client does not exist
+     * @throws IllegalStateException if the client is already assigned or waiting, or was assigned concurrently
+     * @throws IllegalArgumentException if the agent no longer exists when persisting
+     */
+    public RoutingResultDTO route(Long clientId, String intent) {
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + clientId));
+        if (Boolean.TRUE.equals(client.getIsAssigned())) {
+            throw new IllegalStateException("Client " + clientId + " is already assigned to an agent");
+        }
+        long start = System.nanoTime();
+        List<SkillRouter.Assignment> assignments = router.route(clientId, intent, start);
+        selectionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        RoutingResultDTO result = new RoutingResultDTO(clientId, RoutingResultDTO.Status.QUEUED, null, null);
+        for (SkillRouter.Assignment assignment : assignments) {
+            if (assignment.request().clientId().equals(clientId)) {
+                Conversation conversation = persist(assignment);
+                result.setStatus(RoutingResultDTO.Status.ASSIGNED);
+                result.setAgentId(assignment.agentId());
+                result.setConversationId(conversation.getConversationId());
+            } else {
+                persistAsync(List.of(assignment));
+            }
+        }
+        logger.debug("Routing request for client {} ({}): {}", clientId, intent, result.getStatus());
+        return result;
+    }
+
+    /**
+     * Removes a waiting client from its queue.
+     * @return false if the client was not waiting
+     */
+    public boolean cancel(Long clientId) {
+        return router.cancel(clientId);
+    }
+
+    /**
+     * Number of open conversations routed to the agent.
+     */
+    public int load(Long agentId) {
+        return router.load(agentId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentChanged(AgentChangedEvent event) {
+        if (event.deleted()) {
+            persistAsync(router.removeAgent(event.agentId()));
+            return;
+        }
+        persistAsync(router.putAgent(event.agentId(), event.labels(), event.status() == AgentStatus.AVAILABLE, 0));
+    }
+
+    @EventListener
+    public void onAgentPresenceChanged(AgentPresenceChangedEvent event) {
+        persistAsync(router.setAvailable(event.agentId(), event.status() == AgentStatus.AVAILABLE));
+    }
+
+    /**
+     * Counts a conversation opened outside routing, for example through the conversation endpoints, against
+     * its agent. A conversation moved to another agent moves its load along.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationOpened(ConversationOpenedEvent event) {
+        Long previous = openConversations.put(event.conversationId(), event.agentId());
+        if (event.agentId().equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            persistAsync(router.release(previous));
+        }
+        router.acquire(event.agentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationClosed(ConversationClosedEvent event) {
+        releaseConversation(event.conversationId(), event.clientId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConversationDeleted(ConversationDeletedEvent event) {
+        releaseConversation(event.conversationId(), event.clientId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        persistExecutor.shutdown();
+    }
+
+    /**
+     * Frees the agent load of an open conversation, once, and marks its client unassigned.
+     */
+    private void releaseConversation(Long conversationId, Long clientId) {
+        Long agentId = openConversations.remove(conversationId);
+        if (agentId != null) {
+            persistAsync(router.release(agentId));
+        }
+        persistExecutor.execute(() -> {
+            transactionTemplate.executeWithoutResult(status -> clientRepository.updateAssigned(clientId, false));
+            eventPublisher.publishEvent(new ClientChangedEvent(clientId));
+        });
+    }
+
+    private void persistAsync(List<SkillRouter.Assignment> assignments) {
+        for (SkillRouter.Assignment assignment : assignments) {
+            persistExecutor.execute(() -> {
+                try {
+                    persist(assignment);
+                } catch (RuntimeException e) {
+                    logger.warn("Dropped routing of client {} to agent {}: {}",
+                            assignment.request().clientId(), assignment.agentId(), e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks the client assigned and creates its conversation atomically; releases the agent on failure.
+     * A client that is already assigned, for example by a concurrent request that was routed first, is
+     * not assigned again.
+     */
+    private Conversation persist(SkillRouter.Assignment assignment) {
+        Long clientId = assignment.request().clientId();
+        try {
+            // The pair's lock has to outlive the transaction, see ConversationService#createConversation
+            Conversation conversation = conversationService.withOpenConversationLock(clientId, assignment.agentId(),
+                    () -> transactionTemplate.execute(status -> assign(assignment)));
+            eventPublisher.publishEvent(new ClientChangedEvent(clientId));
+            assignedCounter.increment();
+            waitTimer.record(System.nanoTime() - assignment.request().enqueuedNanos(), TimeUnit.NANOSECONDS);
+            logger.debug("Routed client {} to agent {}", clientId, assignment.agentId());
+            return conversation;
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            persistAsync(router.release(assignment.agentId()));
+            throw e;
+        } finally {
+            router.complete(clientId);
+        }
+    }
+
+    /**
+     * The writes of {@link #persist}; runs in its transaction.
+     */
+    private Conversation assign(SkillRouter.Assignment assignment) {
+        Long clientId = assignment.request().clientId();
+        if (clientRepository.claimUnassigned(clientId) == 0) {
+            throw new IllegalStateException("Client " + clientId + " does not exist or is already assigned");
+        }
+        ConversationDTO dto = new ConversationDTO();
+        dto.setClientId(clientId);
+        dto.setAgentId(assignment.agentId());
+        dto.setIntent(assignment.request().intent());
+        dto.setStartTime(LocalDateTime.now());
+        Conversation created = conversationService.createConversation(dto);
+        // Registered before commit so onConversationOpened does not count the reserved load twice
+        openConversations.put(created.getConversationId(), assignment.agentId());
+        return created;
+    }
+}
@@ -0,0 +1,301 @@
+package com.api.digicell.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory matching of waiting clients to agents by skill, with no database access.
+ * <p>
+ * Waiting clients are kept in one lock-free FIFO queue per skill (the normalized conversation intent).
+ * An agent serves the skills named by its labels; among the available agents with the skill the least
+ * loaded one is picked and its load is reserved with a compare-and-set, so concurrent callers never
+ * assign more than {@code maxLoadPerAgent} clients to an agent. Intents that no agent serves are queued
+ * under {@link #ANY_SKILL} and go to whichever agent frees up first; clients waiting for a skill whose last
+ * agent goes away are moved there too.
+ * </p>
+ * A client stays known to the router from {@link #route} until the caller reports its assignment as
+ * persisted or dropped through {@link #complete}, so it cannot be queued twice in between.
+ */
+public class SkillRouter {
+    public static final String ANY_SKILL = "*";
+
+    private final int maxLoadPerAgent;
+    private final Map<Long, AgentSlot> agents = new ConcurrentHashMap<>();
+    private final Map<String, Set<AgentSlot>> agentsBySkill = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentLinkedDeque<Request>> waitingBySkill = new ConcurrentHashMap<>();
+    private final Map<Long, Request> waitingClients = new ConcurrentHashMap<>();
+    private final Set<Long> assigningClients = ConcurrentHashMap.newKeySet();
+
+    public SkillRouter(int maxLoadPerAgent) {
+        this.maxLoadPerAgent = maxLoadPerAgent;
+    }
+
+    /** A client waiting for an agent; {@code enqueuedNanos} is a {@link System#nanoTime()} value. */
+    public record Request(Long clientId, String intent, String skill, long enqueuedNanos) {
+    }
+
+    public record Assignment(Request request, Long agentId) {
+    }
+
+    private static final class AgentSlot {
+        final Long agentId;
+        final Set<String> skills;
+        final AtomicInteger load;
+        volatile boolean available;
+
+        AgentSlot(Long agentId, Set<String> skills, AtomicInteger load, boolean available) {
+            this.agentId = agentId;
+            this.skills = skills;
+            this.load = load;
+            this.available = available;
+        }
+    }
+
+    public static String normalize(String skill) {
+        return skill == null ? "" : skill.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Registers or updates an agent. The current load is kept for known agents; {@code initialLoad} is only
+     * used the first time an agent is seen.
+     *
+     * @return assignments of waiting clients the agent, or any agent if skills lost their last agent, can take now
+     */
+    public List<Assignment> putAgent(Long agentId, Collection<String> labels, boolean available, int initialLoad) {
+        Set<String> skills = labels == null ? Set.of()
+                : labels.stream().map(SkillRouter::normalize).filter(s -> !s.isEmpty()).collect(Collectors.toUnmodifiableSet());
+        AgentSlot existing = agents.get(agentId);
+        if (existing != null && existing.skills.equals(skills)) {
+            existing.available = available;
+        } else {
+            AgentSlot slot = new AgentSlot(agentId, skills,
+                    existing != null ? existing.load : new AtomicInteger(initialLoad), available);
+            agents.put(agentId, slot);
+            skills.forEach(skill -> agentsBySkill.computeIfAbsent(skill, s -> ConcurrentHashMap.newKeySet()).add(slot));
+            if (existing != null) {
+                existing.available = false;
+                List<Assignment> assignments = new ArrayList<>(unregister(existing));
+                if (available) {
+                    assignments.addAll(drainFor(agentId));
+                }
+                return assignments;
+            }
+        }
+        return available ? drainFor(agentId) : List.of();
+    }
+
+    /**
+     * Changes whether a known agent takes new clients.
+     *
+     * @return assignments of waiting clients the agent can take now
+     */
+    public List<Assignment> setAvailable(Long agentId, boolean available) {
+        AgentSlot slot = agents.get(agentId);
+        if (slot == null) {
+            return List.of();
+        }
+        slot.available = available;
+        return available ? drainFor(agentId) : List.of();
+    }
+
+    /**
+     * Forgets an agent.
+     *
+     * @return assignments of clients moved to {@link #ANY_SKILL} because the agent was the last one with their skill
+     */
+    public List<Assignment> removeAgent(Long agentId) {
+        AgentSlot slot = agents.remove(agentId);
+        if (slot == null) {
+            return List.of();
+        }
+        slot.available = false;
+        return unregister(slot);
+    }
+
+    /**
+     * Queues a client and assigns as many waiting clients of its skill as agents allow, oldest first.
+     *
+     * @return the assignments made, possibly including other clients that were queued earlier
+     * @throws IllegalStateException if the client is already waiting or its assignment is not completed yet
+     */
+    public List<Assignment> route(Long clientId, String intent, long nowNanos) {
+        String skill = normalize(intent);
+        if (agentsBySkill.getOrDefault(skill, Set.of()).isEmpty()) {
+            skill = ANY_SKILL;
+        }
+        Request request = new Request(clientId, intent, skill, nowNanos);
+        if (waitingClients.putIfAbsent(clientId, request) != null) {
+            throw new IllegalStateException("Client " + clientId + " is already waiting for an agent");
+        }
+        // drain() marks a client assigning before it stops waiting, so this sees any assignment racing the put
+        if (assigningClients.contains(clientId)) {
+            waitingClients.remove(clientId, request);
+            throw new IllegalStateException("Client " + clientId + " is already being assigned to an agent");
+        }
+        waitingBySkill.computeIfAbsent(skill, s -> new ConcurrentLinkedDeque<>()).offer(request);
+        return drain(skill);
+    }
+
+    /**
+     * Counts a conversation opened outside routing against the agent's load. The load may exceed
+     * {@code maxLoadPerAgent} this way; the agent then takes no new clients until enough are released.
+     */
+    public void acquire(Long agentId) {
+        AgentSlot slot = agents.get(agentId);
+        if (slot != null) {
+            slot.load.incrementAndGet();
+        }
+    }
+
+    /**
+     * Frees one unit of the agent's load and hands it the next waiting client, if any.
+     */
+    public List<Assignment> release(Long agentId) {
+        AgentSlot slot = agents.get(agentId);
+        if (slot == null) {
+            return List.of();
+        }
+        slot.load.updateAndGet(load -> Math.max(0, load - 1));
+        return drainFor(agentId);
+    }
+
+    /**
+     * Ends the assignment of a client returned by this router, after it was persisted or dropped. Until
+     * then the client cannot be routed again.
+     */
+    public void complete(Long clientId) {
+        assigningClients.remove(clientId);
+    }
+
+    /**
+     * Removes a waiting client. Its queue entry is dropped lazily when it reaches the head.
+     */
+    public boolean cancel(Long clientId) {
+        return waitingClients.remove(clientId) != null;
+    }
+
+    public boolean isWaiting(Long clientId) {
+        return waitingClients.containsKey(clientId);
+    }
+
+    public int waitingCount() {
+        return waitingClients.size();
+    }
+
+    public int load(Long agentId) {
+        AgentSlot slot = agents.get(agentId);
+        return slot == null ? 0 : slot.load.get();
+    }
+
+    private List<Assignment> drainFor(Long agentId) {
+        AgentSlot slot = agents.get(agentId);
+        if (slot == null) {
+            return List.of();
+        }
+        List<Assignment> assignments = new ArrayList<>();
+        for (String skill : slot.skills) {
+            assignments.addAll(drain(skill));
+        }
+        assignments.addAll(drain(ANY_SKILL));
+        return assignments;
+    }
+
+    private List<Assignment> drain(String skill) {
+        ConcurrentLinkedDeque<Request> queue = waitingBySkill.get(skill);
+        if (queue == null) {
+            return List.of();
+        }
+        List<Assignment> assignments = new ArrayList<>();
+        Request request;
+        while ((request = queue.poll()) != null) {
+            if (waitingClients.get(request.clientId()) != request) {
+                continue;
+            }
+            AgentSlot agent = reserve(skill);
+            if (agent == null) {
+                queue.offerFirst(request);
+                break;
+            }
+            assigningClients.add(request.clientId());
+            if (!waitingClients.remove(request.clientId(), request)) {
+                // Cancelled while the agent was reserved
+                assigningClients.remove(request.clientId());
+                agent.load.decrementAndGet();
+                continue;
+            }
+            assignments.add(new Assignment(request, agent.agentId));
+        }
+        return assignments;
+    }
+
+    /**
+     * Removes a slot from the skill index and moves the clients waiting for skills it was the last agent
+     * of to {@link #ANY_SKILL}, behind the clients already waiting there.
+     *
+     * @return assignments of moved clients that an agent can take now
+     */
+    private List<Assignment> unregister(AgentSlot slot) {
+        boolean moved = false;
+        for (String skill : slot.skills) {
+            Set<AgentSlot> slots = agentsBySkill.getOrDefault(skill, Set.of());
+            slots.remove(slot);
+            if (slots.isEmpty()) {
+                moved |= moveToAnySkill(skill);
+            }
+        }
+        return moved ? drain(ANY_SKILL) : List.of();
+    }
+
+    private boolean moveToAnySkill(String skill) {
+        ConcurrentLinkedDeque<Request> queue = waitingBySkill.get(skill);
+        if (queue == null) {
+            return false;
+        }
+        ConcurrentLinkedDeque<Request> anyQueue = waitingBySkill.computeIfAbsent(ANY_SKILL, s -> new ConcurrentLinkedDeque<>());
+        boolean moved = false;
+        Request request;
+        while ((request = queue.poll()) != null) {
+            Request rehomed = new Request(request.clientId(), request.intent(), ANY_SKILL, request.enqueuedNanos());
+            if (waitingClients.replace(request.clientId(), request, rehomed)) {
+                anyQueue.offer(rehomed);
+                moved = true;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Reserves one unit of load on the least loaded available agent serving the skill.
+     */
+    private AgentSlot reserve(String skill) {
+        Collection<AgentSlot> candidates = ANY_SKILL.equals(skill) ? agents.values() : agentsBySkill.getOrDefault(skill, Set.of());
+        while (true) {
+            AgentSlot best = null;
+            int bestLoad = maxLoadPerAgent;
+            for (AgentSlot candidate : candidates) {
+                int load = candidate.load.get();
+                if (candidate.available && load < bestLoad) {
+                    best = candidate;
+                    bestLoad = load;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.load.compareAndSet(bestLoad, bestLoad + 1)) {
+                if (best.available) {
+                    return best;
+                }
+                best.load.decrementAndGet();
+            }
+        }
+    }
+}
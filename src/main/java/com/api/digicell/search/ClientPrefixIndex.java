@@ -0,0 +1,125 @@
+package com.api.digicell.search;
+
+import com.api.digicell.dto.ClientSuggestionDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix index over client names and emails.
+ * <p>
+ * Every client is indexed under a few normalized terms (lower case, accents and punctuation removed): the
+ * full name, the name from each later word on, so "Doe, John" is found by "doe" and "john", and the
+ * email. Terms are kept in a sorted set of {@code term + '\0' + clientId} keys, so a search is a range
+ * scan that stops after {@code limit} distinct clients, whatever the number of clients. Reads take no
+ * locks; writes, which replace all terms of one client, are serialized.
+ * </p>
+ */
+public class ClientPrefixIndex {
+    private static final char SEPARATOR = '\0';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ConcurrentSkipListSet<String> keys = new ConcurrentSkipListSet<>();
+    private final Map<Long, ClientSuggestionDTO> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Adds the client or replaces its terms.
+     */
+    public synchronized void put(ClientSuggestionDTO client) {
+        ClientSuggestionDTO previous = clients.put(client.clientId(), client);
+        if (previous != null) {
+            terms(previous).forEach(term -> keys.remove(key(term, previous.clientId())));
+        }
+        terms(client).forEach(term -> keys.add(key(term, client.clientId())));
+    }
+
+    public synchronized void remove(Long clientId) {
+        ClientSuggestionDTO previous = clients.remove(clientId);
+        if (previous != null) {
+            terms(previous).forEach(term -> keys.remove(key(term, clientId)));
+        }
+    }
+
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * Up to {@code limit} clients with a term starting with the prefix, ordered by the first matching
+     * term. The prefix is tried as a name first and then, keeping its punctuation, as an email; a blank
+     * prefix matches nothing.
+     */
+    public List<ClientSuggestionDTO> search(String prefix, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (limit > 0) {
+            collect(normalizeName(prefix), limit, ids);
+            collect(normalizeEmail(prefix), limit, ids);
+        }
+        List<ClientSuggestionDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ClientSuggestionDTO client = clients.get(id);
+            if (client != null) {
+                result.add(client);
+            }
+        }
+        return result;
+    }
+
+    private void collect(String prefix, int limit, Set<Long> ids) {
+        if (prefix.isEmpty()) {
+            return;
+        }
+        for (String key : keys.tailSet(prefix)) {
+            if (ids.size() == limit || !key.startsWith(prefix)) {
+                return;
+            }
+            ids.add(Long.valueOf(key.substring(key.lastIndexOf(SEPARATOR) + 1)));
+        }
+    }
+
+    static Set<String> terms(ClientSuggestionDTO client) {
+        Set<String> terms = new LinkedHashSet<>();
+        String name = normalizeName(client.name());
+        if (!name.isEmpty()) {
+            terms.add(name);
+            for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+                terms.add(name.substring(i + 1));
+            }
+        }
+        String email = normalizeEmail(client.email());
+        if (!email.isEmpty()) {
+            terms.add(email);
+        }
+        return terms;
+    }
+
+    /**
+     * Lower case without accents, with every run of characters other than letters and digits as one space.
+     */
+    static String normalizeName(String value) {
+        return NAME_SEPARATORS.matcher(normalizeEmail(value)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Lower case without accents.
+     */
+    static String normalizeEmail(String value) {
+        if (value == null) {
+            return "";
+        }
+        return MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String key(String term, Long clientId) {
+        return term + SEPARATOR + clientId;
+    }
+}
@@ -0,0 +1,56 @@
+package com.api.digicell.search;
+
+import com.api.digicell.dto.ClientSuggestionDTO;
+import com.api.digicell.repository.ClientBatchRepository;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.routing.ClientChangedEvent;
+import com.api.digicell.routing.ClientsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps a {@link ClientPrefixIndex} of all clients for the search endpoint.
+ * <p>
+ * The index is filled by one streaming scan on startup and then kept current incrementally: a
+ * {@link ClientChangedEvent} reloads that client and a {@link ClientsImportedEvent} reloads the imported
+ * batch with one query. Clients written by other systems appear after the next restart.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientSearchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(ClientSearchIndex.class);
+
+    private final ClientRepository clientRepository;
+    private final ClientBatchRepository batchRepository;
+    private final ClientPrefixIndex index = new ClientPrefixIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        batchRepository.forEachClient(index::put);
+        logger.info("Client search index loaded {} clients in {} ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public List<ClientSuggestionDTO> search(String prefix, int limit) {
+        return index.search(prefix, limit);
+    }
+
+    @EventListener
+    public void onClientChanged(ClientChangedEvent event) {
+        clientRepository.findById(event.clientId()).ifPresentOrElse(
+                client -> index.put(new ClientSuggestionDTO(client.getClientId(), client.getName(), client.getEmail(), client.getPhone())),
+                () -> index.remove(event.clientId()));
+    }
+
+    @EventListener
+    public void onClientsImported(ClientsImportedEvent event) {
+        batchRepository.findByEmails(event.emails()).forEach(index::put);
+    }
+}
@@ -0,0 +1,231 @@
+package com.api.digicell.services;
+
+import com.api.digicell.converters.StringListConverter;
+import com.api.digicell.dto.AgentBulkStatusDTO;
+import com.api.digicell.dto.AgentBulkUpdateDTO;
+import com.api.digicell.dto.AgentCreateDTO;
+import com.api.digicell.dto.BulkItemResultDTO;
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.presence.AgentPresenceRegistry;
+import com.api.digicell.repository.AgentBatchRepository;
+import com.api.digicell.routing.AgentChangedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk create, update and status change of agents, for shift changes.
+ * <p>
+ * Items are validated one by one with the same rules as the single-agent endpoints; invalid items are
+ * reported and skipped. Valid creates and updates are written in chunks of
+ * {@code digicell.agents.bulk-chunk-size}, each chunk one JDBC batch in its own transaction, and routing
+ * and the presence registry are told about every written agent after the chunk commits. Status changes go
+ * through the presence registry and are written as one batch by a flush at the end of the request.
+ * </p>
+ * Every request gets one {@link BulkItemResultDTO} per item, in request order.
+ */
+@Service
+@RequiredArgsConstructor
+public class AgentBulkService {
+    private static final Logger logger = LoggerFactory.getLogger(AgentBulkService.class);
+
+    private final AgentService agentService;
+    private final AgentBatchRepository batchRepository;
+    private final AgentPresenceRegistry presenceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final StringListConverter labelsConverter = new StringListConverter();
+
+    @Value("${digicell.agents.bulk-chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${digicell.agents.bulk-max-items:5000}")
+    private int maxItems;
+
+    /**
+     * @throws IllegalArgumentException if the request is empty or larger than {@code digicell.agents.bulk-max-items}
+     */
+    public List<BulkItemResultDTO> createAgents(List<AgentCreateDTO> items) {
+        checkSize(items);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<Integer> valid = validate(items, results, item -> agentService.validateAgentStatus(item.getStatus()));
+        LocalDateTime now = LocalDateTime.now();
+        writeInChunks(valid, results, chunk -> {
+            List<Map<String, Object>> rows = chunk.stream().map(i -> toRow(items.get(i), now)).collect(Collectors.toList());
+            List<Long> ids = batchRepository.insertAgents(rows);
+            for (int j = 0; j < chunk.size(); j++) {
+                AgentCreateDTO item = items.get(chunk.get(j));
+                eventPublisher.publishEvent(new AgentChangedEvent(ids.get(j), item.getLabels(), item.getStatus(), false));
+                results[chunk.get(j)] = new BulkItemResultDTO(chunk.get(j), ids.get(j), HttpStatus.CREATED.value(), "Agent created");
+            }
+        });
+        logger.info("Bulk created {} of {} agents", count(results, HttpStatus.CREATED), items.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request is empty or larger than {@code digicell.agents.bulk-max-items}
+     */
+    public List<BulkItemResultDTO> updateAgents(List<AgentBulkUpdateDTO> items) {
+        checkSize(items);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<Integer> valid = validate(items, results, item -> {
+            agentService.validateAgentStatus(item.getStatus());
+            if (item.getName() == null || item.getName().isBlank()) {
+                throw new IllegalArgumentException("Name is required");
+            }
+        });
+        LocalDateTime now = LocalDateTime.now();
+        writeInChunks(valid, results, chunk -> {
+            List<Map<String, Object>> rows = new ArrayList<>(chunk.size());
+            for (Integer i : chunk) {
+                Map<String, Object> row = toRow(items.get(i), now);
+                row.put("agentId", items.get(i).getAgentId());
+                rows.add(row);
+            }
+            int[] updated = batchRepository.updateAgents(rows);
+            for (int j = 0; j < chunk.size(); j++) {
+                int index = chunk.get(j);
+                AgentBulkUpdateDTO item = items.get(index);
+                if (updated[j] == 0) {
+                    results[index] = new BulkItemResultDTO(index, item.getAgentId(), HttpStatus.NOT_FOUND.value(),
+                            "Agent not found with id: " + item.getAgentId());
+                    continue;
+                }
+                eventPublisher.publishEvent(new AgentChangedEvent(item.getAgentId(), item.getLabels(), item.getStatus(), false));
+                results[index] = new BulkItemResultDTO(index, item.getAgentId(), HttpStatus.OK.value(), "Agent updated");
+            }
+        });
+        logger.info("Bulk updated {} of {} agents", count(results, HttpStatus.OK), items.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the request is empty or larger than {@code digicell.agents.bulk-max-items}
+     */
+    public List<BulkItemResultDTO> updateStatuses(List<AgentBulkStatusDTO> items) {
+        checkSize(items);
+        BulkItemResultDTO[] results = new BulkItemResultDTO[items.size()];
+        List<Integer> valid = validate(items, results, item -> agentService.validateAgentStatus(item.getStatus()));
+        for (Integer index : valid) {
+            AgentBulkStatusDTO item = items.get(index);
+            try {
+                presenceRegistry.update(item.getAgentId(), item.getStatus());
+                results[index] = new BulkItemResultDTO(index, item.getAgentId(), HttpStatus.OK.value(), "Agent status updated");
+            } catch (ResourceNotFoundException e) {
+                results[index] = new BulkItemResultDTO(index, item.getAgentId(), HttpStatus.NOT_FOUND.value(), e.getMessage());
+            }
+        }
+        presenceRegistry.flush();
+        logger.info("Bulk status change applied to {} of {} agents", count(results, HttpStatus.OK), items.size());
+        return Arrays.asList(results);
+    }
+
+    private void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("At most " + maxItems + " items are allowed per request");
+        }
+    }
+
+    /**
+     * Runs bean validation and {@code check} on every item, filling in a 400 result for each failure.
+     * @return indexes of the valid items
+     */
+    private <T> List<Integer> validate(List<T> items, BulkItemResultDTO[] results, Consumer<T> check) {
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = new BulkItemResultDTO(i, null, HttpStatus.BAD_REQUEST.value(), "Item is required");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+                results[i] = new BulkItemResultDTO(i, agentIdOf(item), HttpStatus.BAD_REQUEST.value(), message);
+                continue;
+            }
+            try {
+                check.accept(item);
+                valid.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = new BulkItemResultDTO(i, agentIdOf(item), HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Writes the valid items chunk by chunk, each chunk in its own transaction. A failing chunk is rolled
+     * back and its items reported as 500; later chunks still run.
+     */
+    private void writeInChunks(List<Integer> valid, BulkItemResultDTO[] results, Consumer<List<Integer>> writer) {
+        for (int from = 0; from < valid.size(); from += chunkSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + chunkSize, valid.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.accept(chunk));
+            } catch (DataAccessException e) {
+                logger.error("Bulk agent chunk of {} items failed: {}", chunk.size(), e.getMessage());
+                for (Integer index : chunk) {
+                    results[index] = new BulkItemResultDTO(index, null, HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to write agent");
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> toRow(AgentCreateDTO item, LocalDateTime now) {
+        return toRow(item.getName(), item.getEmail(), item.getAvatarUrl(), item.getLabels(), item.getStatus(), now);
+    }
+
+    private Map<String, Object> toRow(AgentBulkUpdateDTO item, LocalDateTime now) {
+        return toRow(item.getName(), item.getEmail(), item.getAvatarUrl(), item.getLabels(), item.getStatus(), now);
+    }
+
+    private Map<String, Object> toRow(String name, String email, String avatarUrl, List<String> labels, AgentStatus status, LocalDateTime now) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("name", name);
+        row.put("email", email);
+        row.put("avatarUrl", avatarUrl);
+        row.put("labels", labelsConverter.convertToDatabaseColumn(labels));
+        row.put("status", status.name());
+        row.put("now", now);
+        return row;
+    }
+
+    private static Long agentIdOf(Object item) {
+        if (item instanceof AgentBulkUpdateDTO update) {
+            return update.getAgentId();
+        }
+        if (item instanceof AgentBulkStatusDTO status) {
+            return status.getAgentId();
+        }
+        return null;
+    }
+
+    private static long count(BulkItemResultDTO[] results, HttpStatus status) {
+        return Arrays.stream(results).filter(r -> r.getStatus() == status.value()).count();
+    }
+}
@@ -2,32 +2,59 @@ package com.api.digicell.services;
 
 import com.api.digicell.dto.AgentCreateDTO;
 import com.api.digicell.dto.AgentDetailsResponseDTO;
+import com.api.digicell.dto.AgentPresenceDTO;
+import com.api.digicell.dto.AgentPresenceStatsDTO;
 import com.api.digicell.dto.AgentStatusDTO;
 import com.api.digicell.dto.AgentUpdateDTO;
+import com.api.digicell.dto.AgentWorkloadDTO;
 import com.api.digicell.dto.ConversationResponseDTO;
 import com.api.digicell.entities.Agent;
 import com.api.digicell.entities.AgentStatus;
 import com.api.digicell.entities.Conversation;
 import com.api.digicell.exceptions.InvalidAgentStatusException;
 import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.pagination.CursorPage;
+import com.api.digicell.pagination.KeysetPager;
+import com.api.digicell.pagination.KeysetSort;
+import com.api.digicell.presence.AgentPresence;
+import com.api.digicell.presence.AgentPresenceRegistry;
+import com.api.digicell.presence.AgentStatusLog;
+import com.api.digicell.presence.AgentWorkloadCounters;
 import com.api.digicell.repository.AgentRepository;
 import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.repository.ConversationSummary;
+import com.api.digicell.routing.AgentChangedEvent;
+import com.api.digicell.routing.RoutingService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AgentService {
     private static final Logger logger = LoggerFactory.getLogger(AgentService.class);
+    private static final KeysetSort AGENT_SORTS = KeysetSort.byId("agentId")
+            .with("name", "name", String.class)
+            .with("createdAt", "createdAt", LocalDateTime.class);
     private final AgentRepository agentRepository;
     private final ConversationRepository conversationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AgentPresenceRegistry presenceRegistry;
+    private final RoutingService routingService;
+    private final AgentWorkloadCounters workloadCounters;
+    private final AgentStatusLog statusLog;
+    private final ConversationMessageService messageService;
 
     /**
      * Create a new agent.
@@ -51,6 +78,7 @@ public class AgentService {
         agent.setUpdatedAt(LocalDateTime.now());
         
         Agent savedAgent = agentRepository.save(agent);
+        publishChanged(savedAgent);
         logger.info("Successfully created agent with id: {}", savedAgent.getAgentId());
         logger.debug("Created agent details - id: {}, name: {}, status: {}, createdAt: {}", 
             savedAgent.getAgentId(), savedAgent.getName(), savedAgent.getStatus(), savedAgent.getCreatedAt());
@@ -58,17 +86,35 @@ public class AgentService {
     }
 
     /**
-     * Get all agents.
+     * Get one keyset page of agents, optionally limited to those carrying all of the labels and the status.
+     * The label and status filter is resolved in the presence registry's bitmap index. For the default id
+     * sort the cursor and limit are applied to the matching ids in memory and only the page's ids are
+     * loaded; other sorts query the matching ids in keyset order.
+     * @throws IllegalArgumentException for an unsupported sort or an invalid cursor
      * @throws RuntimeException if there's an error fetching agents
      */
-    public List<Agent> getAllAgents() {
-        logger.info("Fetching all agents");
+    public CursorPage<Agent> getAgents(List<String> labels, AgentStatus status, String sort, String cursor, Integer limit) {
+        logger.info("Fetching agents page - labels: {}, status: {}, sort: {}, limit: {}", labels, status, sort, limit);
         try {
-            List<Agent> agents = agentRepository.findAll();
-            logger.info("Successfully retrieved {} agents", agents.size());
+            CursorPage<Agent> page;
+            if ((labels != null && !labels.isEmpty()) || status != null) {
+                List<Long> ids = presenceRegistry.findAgentIds(labels, status);
+                if (ids.isEmpty()) {
+                    return new CursorPage<>(List.of(), null);
+                }
+                page = AGENT_SORTS.isAscendingById(sort)
+                        ? KeysetPager.pageOfIds(ids, agentRepository::findAllById, Agent::getAgentId, AGENT_SORTS, sort, cursor, limit)
+                        : KeysetPager.page(agentRepository, (root, query, cb) -> root.get("agentId").in(ids), AGENT_SORTS, sort, cursor, limit);
+            } else {
+                page = KeysetPager.page(agentRepository, Specification.where(null), AGENT_SORTS, sort, cursor, limit);
+            }
+            page.getItems().forEach(this::withPresence);
+            logger.info("Successfully retrieved {} agents", page.getItems().size());
             logger.debug("Retrieved agents - count: {}, ids: {}", 
-                agents.size(), agents.stream().map(Agent::getAgentId).collect(Collectors.toList()));
-            return agents;
+                page.getItems().size(), page.getItems().stream().map(Agent::getAgentId).collect(Collectors.toList()));
+            return page;
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error fetching all agents: {}", e.getMessage());
             logger.info("Error fetching all agents: {}", e.getMessage());
@@ -83,6 +129,7 @@ public class AgentService {
     public Agent getAgentById(Long id) {
         logger.info("Fetching agent with id: {}", id);
         return agentRepository.findById(id)
+                .map(this::withPresence)
                 .orElseThrow(() -> {
                     logger.error("Agent not found with id: {}", id);
                     logger.info("Failed to find agent with id: {}", id);
@@ -117,6 +164,7 @@ public class AgentService {
         agent.setUpdatedAt(LocalDateTime.now());
         
         Agent updatedAgent = agentRepository.save(agent);
+        publishChanged(updatedAgent);
         logger.info("Successfully updated agent with id: {}", id);
         logger.debug("Updated agent details - id: {}, name: {}, status: {}, updatedAt: {}", 
             updatedAgent.getAgentId(), updatedAgent.getName(), updatedAgent.getStatus(), updatedAgent.getUpdatedAt());
@@ -124,37 +172,64 @@ public class AgentService {
     }
 
     /**
-     * Update agent status.
+     * Update agent status in the presence registry; the Agents table follows on the next write-behind flush.
      * @throws ResourceNotFoundException if agent is not found
      * @throws InvalidAgentStatusException if the provided status is invalid
      */
-    @Transactional
-    public Agent updateAgentStatus(Long id, AgentStatusDTO statusDTO) {
-        logger.info("Updating status for agent with id: {}", id);
+    public AgentPresenceDTO updateAgentStatus(Long id, AgentStatusDTO statusDTO) {
         logger.debug("Agent status update request - id: {}, new status: {}", id, statusDTO.getStatus());
-        
         validateAgentStatus(statusDTO.getStatus());
-        
-        Agent agent = agentRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("Agent not found with id: {}", id);
-                    logger.info("Failed to find agent for status update with id: {}", id);
-                    return new ResourceNotFoundException("Agent not found with id: " + id);
-                });
-        
-        agent.setStatus(statusDTO.getStatus());
-        agent.setUpdatedAt(LocalDateTime.now());
-        Agent updatedAgent = agentRepository.save(agent);
-        logger.info("Successfully updated agent status to: {} for agent id: {}", statusDTO.getStatus(), id);
-        logger.debug("Updated agent status details - id: {}, old status: {}, new status: {}, updatedAt: {}", 
-            id, agent.getStatus(), updatedAgent.getStatus(), updatedAgent.getUpdatedAt());
-        return updatedAgent;
+        return toPresenceDTO(presenceRegistry.update(id, statusDTO.getStatus()));
+    }
+
+    /**
+     * Current presence of an agent, read from the presence registry.
+     * @throws ResourceNotFoundException if agent is not found
+     */
+    public AgentPresenceDTO getAgentPresence(Long id) {
+        return presenceRegistry.get(id)
+                .map(this::toPresenceDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("Agent not found with id: " + id));
+    }
+
+    /**
+     * Time the agent spent in each status on the given day (today when null), answered from the rolling
+     * aggregates of the status log.
+     * @throws ResourceNotFoundException if agent is not found
+     * @throws IllegalArgumentException if the day is outside the retained window
+     */
+    public AgentPresenceStatsDTO getAgentPresenceStats(Long id, LocalDate date) {
+        if (presenceRegistry.get(id).isEmpty()) {
+            throw new ResourceNotFoundException("Agent not found with id: " + id);
+        }
+        LocalDate day = date != null ? date : LocalDate.now();
+        Map<AgentStatus, Long> seconds = new EnumMap<>(AgentStatus.class);
+        statusLog.totals(id, day).forEach((status, duration) -> seconds.put(status, duration.toSeconds()));
+        return new AgentPresenceStatsDTO(id, day, seconds);
+    }
+
+    /**
+     * Open and closed-today conversation counts of an agent, read from the workload counters.
+     * @throws ResourceNotFoundException if agent is not found
+     */
+    public AgentWorkloadDTO getAgentWorkload(Long id) {
+        if (presenceRegistry.get(id).isEmpty()) {
+            throw new ResourceNotFoundException("Agent not found with id: " + id);
+        }
+        return workloadCounters.get(id);
+    }
+
+    /**
+     * Workload of every agent with open or closed-today conversations.
+     */
+    public List<AgentWorkloadDTO> getAgentWorkloads() {
+        return workloadCounters.getAll();
     }
 
     /**
      * Delete agent.
      * @throws ResourceNotFoundException if agent is not found
-     * @throws IllegalStateException if agent has active conversations
+     * @throws IllegalStateException if agent has conversations
      */
     @Transactional
     public void deleteAgent(Long id) {
@@ -166,45 +241,32 @@ public class AgentService {
                     return new ResourceNotFoundException("Agent not found with id: " + id);
                 });
         
-        // Check if agent has any active conversations
-        List<Conversation> activeConversations = conversationRepository.findByAgent_AgentId(id);
-        if (!activeConversations.isEmpty()) {
-            logger.error("Cannot delete agent with id: {} as they have {} active conversations", id, activeConversations.size());
-            logger.info("Active conversations found for agent - id: {}, conversation count: {}", id, activeConversations.size());
+        // Open conversations are known from the workload counters; closed ones still block the delete
+        if (workloadCounters.hasOpenConversations(id) || conversationRepository.existsByAgent_AgentId(id)) {
+            logger.error("Cannot delete agent with id: {} as they have conversations", id);
+            logger.info("Conversations found for agent - id: {}, workload: {}", id, workloadCounters.get(id));
             throw new IllegalStateException("Cannot delete agent with active conversations");
         }
         
         agentRepository.delete(agent);
+        eventPublisher.publishEvent(new AgentChangedEvent(id, agent.getLabels(), agent.getStatus(), true));
         logger.info("Successfully deleted agent with id: {}", id);
         logger.debug("Deleted agent details - id: {}, name: {}, status: {}", 
             agent.getAgentId(), agent.getName(), agent.getStatus());
     }
 
     /**
-     * Set agent status to AVAILABLE.
+     * Set agent status to AVAILABLE in the presence registry.
      * @throws ResourceNotFoundException if agent is not found
      */
-    @Transactional
-    public Agent setAgentAvailable(Long id) {
-        logger.info("Setting agent with id: {} to AVAILABLE", id);
-        Agent agent = agentRepository.findById(id)
-                .orElseThrow(() -> {
-                    logger.error("Agent not found with id: {}", id);
-                    logger.info("Failed to find agent for setting AVAILABLE status with id: {}", id);
-                    return new ResourceNotFoundException("Agent not found with id: " + id);
-                });
-        
-        agent.setStatus(AgentStatus.AVAILABLE);
-        agent.setUpdatedAt(LocalDateTime.now());
-        Agent updatedAgent = agentRepository.save(agent);
-        logger.info("Successfully set agent status to AVAILABLE for agent id: {}", id);
-        logger.debug("Updated agent status details - id: {}, old status: {}, new status: {}, updatedAt: {}", 
-            id, agent.getStatus(), updatedAgent.getStatus(), updatedAgent.getUpdatedAt());
-        return updatedAgent;
+    public AgentPresenceDTO setAgentAvailable(Long id) {
+        logger.debug("Setting agent with id: {} to AVAILABLE", id);
+        return toPresenceDTO(presenceRegistry.update(id, AgentStatus.AVAILABLE));
     }
 
     /**
-     * Get agent details including conversations.
+     * Get agent details including conversations, with chat histories read from the message table in
+     * table storage mode.
      * @throws ResourceNotFoundException if agent is not found
      * @throws RuntimeException if there's an error fetching details
      */
@@ -219,7 +281,7 @@ public class AgentService {
                         return new ResourceNotFoundException("Agent not found with id: " + agentId);
                     });
 
-            List<Conversation> conversations = conversationRepository.findByAgent_AgentId(agentId);
+            List<Conversation> conversations = messageService.resolveHistories(conversationRepository.findByAgent_AgentId(agentId));
             logger.info("Found {} conversations for agent {}", conversations.size(), agentId);
             logger.debug("Agent conversations details - id: {}, conversation count: {}, conversation ids: {}", 
                 agentId, conversations.size(), conversations.stream().map(Conversation::getConversationId).collect(Collectors.toList()));
@@ -239,8 +301,9 @@ public class AgentService {
                     .collect(Collectors.toList());
 
             AgentDetailsResponseDTO response = new AgentDetailsResponseDTO();
-            response.setAgent(agent);
+            response.setAgent(withPresence(agent));
             response.setConversations(conversationDTOs);
+            response.setWorkload(workloadCounters.get(agentId));
 
             logger.info("Successfully fetched agent details for id: {}", agentId);
             logger.debug("Agent details response - id: {}, name: {}, status: {}, conversation count: {}", 
@@ -253,11 +316,41 @@ public class AgentService {
         }
     }
 
+    /**
+     * Get summary rows of the agent's conversations. Uses a projection query, so the chat history
+     * column is never read.
+     * @throws ResourceNotFoundException if agent is not found
+     */
+    @Transactional(readOnly = true)
+    public List<ConversationResponseDTO> getAgentConversations(Long agentId) {
+        logger.info("Fetching conversation summaries for agent id: {}", agentId);
+        if (!agentRepository.existsById(agentId)) {
+            logger.error("Agent not found with id: {}", agentId);
+            throw new ResourceNotFoundException("Agent not found with id: " + agentId);
+        }
+
+        List<ConversationSummary> summaries = conversationRepository.findSummariesByAgentId(agentId);
+        logger.debug("Found {} conversation summaries for agent {}", summaries.size(), agentId);
+        return summaries.stream()
+                .map(summary -> {
+                    ConversationResponseDTO dto = new ConversationResponseDTO();
+                    dto.setConversationId(summary.getConversationId());
+                    dto.setClientId(summary.getClientId());
+                    dto.setUserName(summary.getClientName());
+                    dto.setStartTime(summary.getStartTime());
+                    dto.setEndTime(summary.getEndTime());
+                    dto.setIntent(summary.getIntent());
+                    dto.setChatSummary(summary.getChatSummary());
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     /**
      * Validates that the provided status is a valid AgentStatus enum value.
      * @throws InvalidAgentStatusException if the status is invalid
      */
-    private void validateAgentStatus(AgentStatus status) {
+    void validateAgentStatus(AgentStatus status) {
         if (status == null) {
             logger.error("Agent status cannot be null");
             throw new InvalidAgentStatusException("null");
@@ -274,6 +367,29 @@ public class AgentService {
 
     @Transactional
     public Agent updateAgent(Agent agent) {
-        return agentRepository.save(agent);
+        Agent saved = agentRepository.save(agent);
+        publishChanged(saved);
+        return saved;
+    }
+
+    private AgentPresenceDTO toPresenceDTO(AgentPresence presence) {
+        return new AgentPresenceDTO(presence.agentId(), presence.status(), presence.changedAt(), routingService.load(presence.agentId()));
+    }
+
+    /**
+     * Replaces the stored status, which may lag behind by one flush interval, with the registry's.
+     */
+    private Agent withPresence(Agent agent) {
+        presenceRegistry.get(agent.getAgentId())
+                .filter(presence -> presence.status() != agent.getStatus())
+                .ifPresent(presence -> agent.setStatus(presence.status()));
+        return agent;
+    }
+
+    /**
+     * Lets routing pick up the agent's labels and status once the transaction commits.
+     */
+    private void publishChanged(Agent agent) {
+        eventPublisher.publishEvent(new AgentChangedEvent(agent.getAgentId(), agent.getLabels(), agent.getStatus(), false));
     }
 } 
\ No newline at end of file
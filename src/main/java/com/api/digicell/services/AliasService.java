@@ -1,15 +1,26 @@
 package com.api.digicell.services;
 
+import com.api.digicell.alias.AliasCache;
+import com.api.digicell.alias.AliasSnapshot;
+import com.api.digicell.alias.AliasUsageCounters;
+import com.api.digicell.alias.AliasesChangedEvent;
 import com.api.digicell.dto.AliasCreateDTO;
 import com.api.digicell.dto.AliasResponseDTO;
 import com.api.digicell.dto.AliasUpdateDTO;
+import com.api.digicell.dto.AliasUsageDTO;
 import com.api.digicell.entities.Alias;
 import com.api.digicell.exceptions.ResourceNotFoundException;
 import com.api.digicell.mapper.AliasMapper;
+import com.api.digicell.pagination.CursorPage;
+import com.api.digicell.pagination.KeysetPager;
+import com.api.digicell.pagination.KeysetSort;
 import com.api.digicell.repository.AliasRepository;
+import com.api.digicell.repository.AliasVersionRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,8 +35,14 @@ import java.util.stream.Collectors;
 public class AliasService {
 
     private static final Logger logger = LoggerFactory.getLogger(AliasService.class);
+    private static final KeysetSort ALIAS_SORTS = KeysetSort.byId("aliasId")
+            .with("key", "key", String.class);
     private final AliasRepository aliasRepository;
+    private final AliasVersionRepository versionRepository;
+    private final AliasCache aliasCache;
+    private final AliasUsageCounters usageCounters;
     private final AliasMapper aliasMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new alias.
@@ -37,6 +54,8 @@ public class AliasService {
         
         Alias alias = aliasMapper.toEntity(createDTO);
         Alias savedAlias = aliasRepository.save(alias);
+        versionRepository.increment();
+        eventPublisher.publishEvent(new AliasesChangedEvent(savedAlias.getKey()));
         logger.info("Successfully created alias with key: {}", savedAlias.getKey());
         logger.debug("Created alias details - key: {}, value: {}", savedAlias.getKey(), savedAlias.getValue());
         
@@ -44,34 +63,44 @@ public class AliasService {
     }
 
     /**
-     * Retrieve all aliases.
+     * Retrieve one keyset page of aliases.
+     * @throws IllegalArgumentException for an unsupported sort or an invalid cursor
      */
-    public List<AliasResponseDTO> getAllAliases() {
-        logger.info("Fetching all aliases");
-        List<Alias> aliases = aliasRepository.findAll();
-        List<AliasResponseDTO> responseDTOs = aliases.stream()
-                .map(aliasMapper::toResponseDTO)
-                .collect(Collectors.toList());
-        logger.info("Successfully retrieved {} aliases", responseDTOs.size());
+    public CursorPage<AliasResponseDTO> getAliases(String sort, String cursor, Integer limit) {
+        logger.info("Fetching aliases page - sort: {}, limit: {}", sort, limit);
+        CursorPage<AliasResponseDTO> page = KeysetPager
+                .page(aliasRepository, Specification.where(null), ALIAS_SORTS, sort, cursor, limit)
+                .map(aliasMapper::toResponseDTO);
+        logger.info("Successfully retrieved {} aliases", page.getItems().size());
         logger.debug("Retrieved aliases - count: {}, keys: {}", 
-            responseDTOs.size(), responseDTOs.stream().map(AliasResponseDTO::getKey).collect(Collectors.toList()));
-        return responseDTOs;
+            page.getItems().size(), page.getItems().stream().map(AliasResponseDTO::getKey).collect(Collectors.toList()));
+        return page;
     }
 
     /**
-     * Fetch a single alias by its unique key.
+     * Fetch a single alias by its unique key, from the in-memory alias snapshot.
      */
     public AliasResponseDTO getAliasByKey(String key) {
         logger.info("Fetching alias with key: {}", key);
-        Alias alias = aliasRepository.findByKey(key)
-                .orElseThrow(() -> {
-                    logger.error("Alias not found with key: {}", key);
-                    logger.debug("Failed to find alias with key: {}", key);
-                    return new ResourceNotFoundException("Alias not found with key: " + key);
-                });
-        logger.info("Successfully retrieved alias with key: {}", key);
-        logger.debug("Retrieved alias details - key: {}, value: {}", alias.getKey(), alias.getValue());
-        return aliasMapper.toResponseDTO(alias);
+        AliasSnapshot snapshot = aliasCache.snapshot();
+        String value = snapshot.get(key);
+        if (value == null) {
+            logger.error("Alias not found with key: {}", key);
+            throw new ResourceNotFoundException("Alias not found with key: " + key);
+        }
+        usageCounters.increment(snapshot.aliasId(key));
+        logger.debug("Retrieved alias details - key: {}, value: {}", key, value);
+        return new AliasResponseDTO(key, value);
+    }
+
+    /**
+     * The most used existing aliases, from the in-memory usage counters.
+     */
+    public List<AliasUsageDTO> getTopUsage(int limit) {
+        AliasSnapshot snapshot = aliasCache.snapshot();
+        return usageCounters.top(limit, aliasId -> snapshot.key(aliasId) != null).stream()
+                .map(entry -> new AliasUsageDTO(entry.getKey(), snapshot.key(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -91,6 +120,8 @@ public class AliasService {
         
         aliasMapper.updateEntity(alias, updateDTO);
         Alias updatedAlias = aliasRepository.save(alias);
+        versionRepository.increment();
+        eventPublisher.publishEvent(new AliasesChangedEvent(key));
         logger.info("Successfully updated alias with key: {}", key);
         logger.debug("Updated alias details - key: {}, value: {}", updatedAlias.getKey(), updatedAlias.getValue());
         
@@ -111,6 +142,8 @@ public class AliasService {
                 });
         
         aliasRepository.delete(alias);
+        versionRepository.increment();
+        eventPublisher.publishEvent(new AliasesChangedEvent(key));
         logger.info("Successfully deleted alias with key: {}", key);
         logger.debug("Deleted alias details - key: {}, value: {}", alias.getKey(), alias.getValue());
     }
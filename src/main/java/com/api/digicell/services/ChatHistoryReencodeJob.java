@@ -0,0 +1,92 @@
+package com.api.digicell.services;
+
+import com.api.digicell.config.ChatHistoryCodecConfig;
+import com.api.digicell.converters.ChatHistoryCodec;
+import com.api.digicell.converters.ChatHistoryConverter;
+import com.api.digicell.repository.ConversationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Background job that compresses the chat history of closed conversations written before compression
+ * was enabled (or while they were still below the threshold). Rows are handled in id order, one locked
+ * batch per transaction, so the job never holds locks for long.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatHistoryReencodeJob {
+    private static final Logger logger = LoggerFactory.getLogger(ChatHistoryReencodeJob.class);
+
+    private final ConversationRepository conversationRepository;
+    private final ChatHistoryCodecConfig codecConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${digicell.chat-history.reencode.enabled:false}")
+    private boolean enabled;
+
+    @Value("${digicell.chat-history.reencode.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${digicell.chat-history.reencode.interval-ms:3600000}",
+            initialDelayString = "${digicell.chat-history.reencode.initial-delay-ms:60000}")
+    public void run() {
+        if (!enabled || codecConfig.getCodec() == ChatHistoryCodec.JSON) {
+            return;
+        }
+        reencode();
+    }
+
+    /**
+     * Compresses every eligible conversation.
+     * @return number of conversations re-encoded
+     */
+    public long reencode() {
+        logger.info("Starting chat history re-encode with codec {}", codecConfig.getCodec());
+        long reencoded = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = conversationRepository.findUncompressedClosedIds(afterId, codecConfig.getCompressionThreshold(), batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer count = transactionTemplate.execute(status -> reencodeBatch(ids));
+            reencoded += count == null ? 0 : count;
+            afterId = ids.get(ids.size() - 1);
+            logger.debug("Re-encoded chat history batch up to conversation {} ({} so far)", afterId, reencoded);
+        }
+        logger.info("Chat history re-encode finished - re-encoded {} conversations", reencoded);
+        return reencoded;
+    }
+
+    private int reencodeBatch(List<Long> ids) {
+        conversationRepository.lockByIds(ids);
+        int count = 0;
+        for (Object[] row : conversationRepository.findRawChatHistories(ids)) {
+            String raw = (String) row[1];
+            if (raw == null || ChatHistoryConverter.isEncoded(raw)) {
+                continue;
+            }
+            Long conversationId = ((Number) row[0]).longValue();
+            String encoded;
+            try {
+                encoded = ChatHistoryConverter.encode(raw);
+            } catch (IOException e) {
+                logger.warn("Skipping re-encode of conversation {}: {}", conversationId, e.getMessage());
+                continue;
+            }
+            if (!encoded.equals(raw)) {
+                conversationRepository.writeRawChatHistory(conversationId, encoded);
+                count++;
+            }
+        }
+        return count;
+    }
+}
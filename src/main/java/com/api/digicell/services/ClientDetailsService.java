@@ -0,0 +1,176 @@
+package com.api.digicell.services;
+
+import com.api.digicell.dto.ClientConvoDto;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.Client;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.repository.ConversationSummary;
+import com.api.digicell.responses.ClientDetailsResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Composed mode of the client details page. The client row, the conversation summaries (agent names come
+ * from the same join, so no agent is loaded) and the chat histories are three independent queries, run
+ * concurrently on a bounded pool of {@code digicell.client-details.threads}. The response is assembled once
+ * all of them finish or {@code digicell.client-details.timeout-ms} has passed, whichever comes first.
+ * <p>
+ * Each query runs in a read-only transaction whose timeout is what is left of the deadline (rounded up to
+ * whole seconds, the JDBC granularity), so a query that misses it is cancelled by the driver rather than
+ * holding its pool thread. When the pool's queue is full the request fails fast instead of queuing more.
+ * </p>
+ * <p>
+ * Only the client is required. Conversations or chat histories that fail or miss the deadline are left out
+ * and named in {@link ClientDetailsResponse#getMissing()}, so the page can render what it has.
+ * </p>
+ */
+@Service
+public class ClientDetailsService {
+    private static final Logger logger = LoggerFactory.getLogger(ClientDetailsService.class);
+    private static final String CONVERSATIONS = "conversations";
+    private static final String CHAT_HISTORY = "chatHistory";
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ClientRepository clientRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationMessageService messageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final long timeoutNanos;
+
+    public ClientDetailsService(ClientRepository clientRepository,
+                                ConversationRepository conversationRepository,
+                                ConversationMessageService messageService,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${digicell.client-details.threads:16}") int threads,
+                                @Value("${digicell.client-details.timeout-ms:1500}") long timeoutMs) {
+        this.clientRepository = clientRepository;
+        this.conversationRepository = conversationRepository;
+        this.messageService = messageService;
+        this.transactionTemplate = transactionTemplate;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "client-details-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the client does not exist
+     * @throws IllegalStateException if the client could not be loaded before the deadline
+     */
+    public ClientDetailsResponse getClientDetails(Long clientId) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        CompletableFuture<Optional<Client>> client = submit(() -> clientRepository.findById(clientId), deadline);
+        CompletableFuture<List<ConversationSummary>> summaries = submit(() -> conversationRepository.findSummariesByClientId(clientId), deadline);
+        CompletableFuture<Map<Long, List<List<ChatMessage>>>> histories = submit(() -> messageService.getHistoriesByClient(clientId), deadline);
+
+        List<String> missing = new ArrayList<>();
+        Client found = await(client, deadline, "client", clientId)
+                .orElseThrow(() -> new IllegalStateException("Client could not be loaded in time for id: " + clientId))
+                .orElseThrow(() -> new IllegalArgumentException("Client not found with id: " + clientId));
+        List<ConversationSummary> conversations = await(summaries, deadline, CONVERSATIONS, clientId).orElse(null);
+        Map<Long, List<List<ChatMessage>>> chatHistories = await(histories, deadline, CHAT_HISTORY, clientId).orElse(null);
+        if (conversations == null) {
+            missing.add(CONVERSATIONS);
+        } else if (chatHistories == null) {
+            missing.add(CHAT_HISTORY);
+        }
+
+        ClientDetailsResponse response = new ClientDetailsResponse();
+        response.setClient(found);
+        response.setConversations(conversations == null ? List.of() : conversations.stream()
+                .map(summary -> toDTO(summary, chatHistories))
+                .collect(Collectors.toList()));
+        response.setMissing(missing);
+        if (!missing.isEmpty()) {
+            logger.warn("Returning partial client details for id {}, missing: {}", clientId, missing);
+        }
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the query on the pool in a transaction timed out at the deadline. A query still queued when the
+     * deadline passes is not started.
+     * @return a future failed with {@link RejectedExecutionException} if the pool's queue is full
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> query, long deadline) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IllegalStateException("Deadline passed before the query started");
+                }
+                TransactionTemplate timed = new TransactionTemplate(transactionTemplate.getTransactionManager());
+                timed.setReadOnly(true);
+                timed.setTimeout((int) Math.max(1, (remaining + SECOND_NANOS - 1) / SECOND_NANOS));
+                return timed.execute(status -> query.get());
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Waits for the query until the deadline.
+     * @return empty if it failed or timed out, which is logged and not rethrown
+     */
+    private <T> Optional<T> await(CompletableFuture<T> future, long deadline, String part, Long clientId) {
+        try {
+            return Optional.ofNullable(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Client details {} query for id {} missed the deadline", part, clientId);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            logger.error("Client details {} query for id {} failed: {}", part, clientId, cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+        }
+        return Optional.empty();
+    }
+
+    private static ClientConvoDto toDTO(ConversationSummary summary, Map<Long, List<List<ChatMessage>>> histories) {
+        ClientConvoDto dto = new ClientConvoDto();
+        dto.setConversationId(summary.getConversationId());
+        dto.setAgentId(summary.getAgentId());
+        dto.setAgentName(summary.getAgentName());
+        dto.setStartTime(summary.getStartTime());
+        dto.setEndTime(summary.getEndTime());
+        dto.setIntent(summary.getIntent());
+        dto.setChatSummary(summary.getChatSummary());
+        dto.setChatHistory(histories == null ? null : histories.getOrDefault(summary.getConversationId(), List.of()));
+        return dto;
+    }
+}
@@ -0,0 +1,247 @@
+package com.api.digicell.services;
+
+import com.api.digicell.converters.CsvRecordReader;
+import com.api.digicell.dto.ClientImportResultDTO;
+import com.api.digicell.entities.Client;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.repository.ClientBatchRepository;
+import com.api.digicell.routing.ClientsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of clients from CSV (header row with {@code name}, {@code email} and {@code phone}
+ * columns, in any order) or NDJSON (one object with those fields per line).
+ * <p>
+ * Records are parsed one at a time and checked against the bean validation constraints of {@link Client}.
+ * Valid records are collected in batches of {@code digicell.clients.import-batch-size}, deduplicated on
+ * email within the batch (the last record wins) and upserted on the unique email column in one JDBC batch
+ * and transaction. Memory is bounded by one batch whatever the input size.
+ * </p>
+ * Progress is published under the import id while the import runs, and kept for the last
+ * {@link #RETAINED_IMPORTS} imports.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClientImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ClientImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_FIELD_LENGTH = 4096;
+    static final int RETAINED_IMPORTS = 100;
+
+    private final ClientBatchRepository batchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final Map<String, ClientImportResultDTO> imports = new LinkedHashMap<>();
+
+    @Value("${digicell.clients.import-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Imports the stream in {@code format} ("csv" or "ndjson"). A failing batch is rolled back and the
+     * exception propagated; earlier batches stay committed and the import is marked failed.
+     * @throws IllegalArgumentException for an unknown format or a CSV header without the required columns
+     * @throws IllegalStateException if an import with the same id is still running
+     */
+    public ClientImportResultDTO importClients(String importId, String format, InputStream in) throws IOException {
+        if (!"csv".equals(format) && !"ndjson".equals(format)) {
+            throw new IllegalArgumentException("format must be 'csv' or 'ndjson'");
+        }
+        ClientImportResultDTO result = new ClientImportResultDTO();
+        result.setImportId(importId);
+        result.setFormat(format);
+        result.setStartedAt(LocalDateTime.now());
+        register(result);
+        logger.info("Starting client import {} ({})", importId, format);
+
+        Map<String, Client> batch = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        try {
+            if ("csv".equals(format)) {
+                readCsv(reader, batch, result);
+            } else {
+                readNdjson(reader, batch, result);
+            }
+            commit(batch, result);
+            result.setStatus(ClientImportResultDTO.Status.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            result.setStatus(ClientImportResultDTO.Status.FAILED);
+            logger.error("Client import {} failed after {} records: {}", importId, result.getRecordsRead(), e.getMessage());
+            throw e;
+        } finally {
+            result.setFinishedAt(LocalDateTime.now());
+        }
+        logger.info("Client import {} finished - {} records, {} upserted, {} duplicates, {} skipped", importId,
+                result.getRecordsRead(), result.getUpserted(), result.getDuplicates(), result.getSkipped());
+        return result;
+    }
+
+    /**
+     * @throws ResourceNotFoundException if the import is unknown or too old to be retained
+     */
+    public ClientImportResultDTO getProgress(String importId) {
+        synchronized (imports) {
+            ClientImportResultDTO result = imports.get(importId);
+            if (result == null) {
+                throw new ResourceNotFoundException("Client import not found with id: " + importId);
+            }
+            return result;
+        }
+    }
+
+    private void register(ClientImportResultDTO result) {
+        synchronized (imports) {
+            ClientImportResultDTO previous = imports.get(result.getImportId());
+            if (previous != null && previous.getStatus() == ClientImportResultDTO.Status.RUNNING) {
+                throw new IllegalStateException("Client import " + result.getImportId() + " is already running");
+            }
+            imports.remove(result.getImportId());
+            imports.put(result.getImportId(), result);
+            if (imports.size() > RETAINED_IMPORTS) {
+                imports.remove(imports.keySet().iterator().next());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader in, Map<String, Client> batch, ClientImportResultDTO result) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(in, MAX_FIELD_LENGTH);
+        List<String> header = reader.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : List.of("name", "email", "phone")) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV header must contain name, email and phone columns");
+            }
+        }
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue;
+            }
+            long recordNo = reader.recordNumber() - 1;
+            result.setRecordsRead(result.getRecordsRead() + 1);
+            accept(recordNo, field(fields, columns.get("name")), field(fields, columns.get("email")),
+                    field(fields, columns.get("phone")), batch, result);
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Map<String, Client> batch, ClientImportResultDTO result) throws IOException {
+        long lineNo = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setRecordsRead(result.getRecordsRead() + 1);
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                skip(result, lineNo, "invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                skip(result, lineNo, "a JSON object is required");
+                continue;
+            }
+            accept(lineNo, text(node, "name"), text(node, "email"), text(node, "phone"), batch, result);
+        }
+    }
+
+    /**
+     * Validates one record and adds it to the batch, committing the batch when it is full.
+     */
+    private void accept(long recordNo, String name, String email, String phone, Map<String, Client> batch, ClientImportResultDTO result) {
+        Client client = Client.builder()
+                .name(trim(name))
+                .email(trim(email))
+                .phone(trim(phone))
+                .build();
+        Set<ConstraintViolation<Client>> violations = validator.validate(client);
+        if (!violations.isEmpty()) {
+            skip(result, recordNo, violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", ")));
+            return;
+        }
+        // MySQL compares emails case-insensitively, so the batch has to as well.
+        if (batch.put(client.getEmail().toLowerCase(Locale.ROOT), client) != null) {
+            result.setDuplicates(result.getDuplicates() + 1);
+        }
+        if (batch.size() >= batchSize) {
+            commit(batch, result);
+        }
+    }
+
+    private void commit(Map<String, Client> batch, ClientImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> rows = new ArrayList<>(batch.size());
+        for (Client client : batch.values()) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", client.getName());
+            row.put("email", client.getEmail());
+            row.put("phone", client.getPhone());
+            row.put("now", now);
+            rows.add(row);
+        }
+        transactionTemplate.executeWithoutResult(status -> batchRepository.upsertClients(rows));
+        eventPublisher.publishEvent(new ClientsImportedEvent(rows.stream().map(row -> (String) row.get("email")).collect(Collectors.toList())));
+        result.setUpserted(result.getUpserted() + rows.size());
+        batch.clear();
+        logger.debug("Client import {} upserted {} clients after {} records", result.getImportId(), rows.size(), result.getRecordsRead());
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static void skip(ClientImportResultDTO result, long recordNo, String reason) {
+        result.setSkipped(result.getSkipped() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("record " + recordNo + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.api.digicell.services;
+
+import com.api.digicell.converters.PhoneNumbers;
+import com.api.digicell.entities.Client;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.repository.ClientPhoneIndex;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.routing.ClientChangedEvent;
+import com.api.digicell.routing.ClientsImportedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Client lookup by phone or email for IVR and CRM integrations, which only know how to reach the client.
+ * <p>
+ * Phones are matched on their E.164 form ({@link PhoneNumbers}), through the indexed {@code phone_key}
+ * column when {@link ClientPhoneIndex} could create it. Emails are matched exactly after trimming; the
+ * column collation makes the match case-insensitive.
+ * </p>
+ * Results, including misses, are kept in an LRU cache of {@code digicell.client-lookup.cache-size} keys.
+ * Entries of a client are dropped on {@link ClientChangedEvent} and the whole cache on
+ * {@link ClientsImportedEvent}; writes from outside the application are picked up after {@code digicell.client-lookup.cache-ttl-ms}.
+ */
+@Service
+public class ClientLookupService {
+    private static final Logger logger = LoggerFactory.getLogger(ClientLookupService.class);
+    private static final int SUFFIX_DIGITS = 4;
+
+    private final ClientRepository clientRepository;
+    private final ClientPhoneIndex phoneIndex;
+    private final String defaultCountryCode;
+    private final int cacheSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> cache;
+    private final Map<Long, Set<String>> keysByClient = new HashMap<>();
+    private long invalidations;
+
+    public ClientLookupService(ClientRepository clientRepository,
+                               ClientPhoneIndex phoneIndex,
+                               @Value("${digicell.phone.default-country-code:1}") String defaultCountryCode,
+                               @Value("${digicell.client-lookup.cache-size:10000}") int cacheSize,
+                               @Value("${digicell.client-lookup.cache-ttl-ms:60000}") long ttlMs) {
+        this.clientRepository = clientRepository;
+        this.phoneIndex = phoneIndex;
+        this.defaultCountryCode = defaultCountryCode;
+        this.cacheSize = cacheSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the phone is not a valid number
+     * @throws ResourceNotFoundException if no client has the number
+     */
+    public List<Client> findByPhone(String phone) {
+        String phoneKey = PhoneNumbers.toE164(phone, defaultCountryCode);
+        if (phoneKey == null) {
+            throw new IllegalArgumentException("Invalid phone number: " + phone);
+        }
+        List<Client> clients = cached("phone:" + phoneKey, () -> phoneIndex.isAvailable()
+                ? clientRepository.findByPhoneKey(phoneKey)
+                : scanByPhone(phoneKey));
+        if (clients.isEmpty()) {
+            throw new ResourceNotFoundException("Client not found with phone: " + phoneKey);
+        }
+        return clients;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the email is blank
+     * @throws ResourceNotFoundException if no client has the email
+     */
+    public Client findByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email is required");
+        }
+        String trimmed = email.trim();
+        List<Client> clients = cached("email:" + trimmed.toLowerCase(Locale.ROOT),
+                () -> clientRepository.findByEmail(trimmed).map(List::of).orElse(List.of()));
+        if (clients.isEmpty()) {
+            throw new ResourceNotFoundException("Client not found with email: " + trimmed);
+        }
+        return clients.get(0);
+    }
+
+    @EventListener
+    public void onClientChanged(ClientChangedEvent event) {
+        synchronized (cache) {
+            invalidations++;
+            Set<String> keys = keysByClient.remove(event.clientId());
+            if (keys != null) {
+                keys.forEach(cache::remove);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached lookup: an import can add clients that cached misses should now find.
+     */
+    @EventListener
+    public void onClientsImported(ClientsImportedEvent event) {
+        synchronized (cache) {
+            invalidations++;
+            cache.clear();
+            keysByClient.clear();
+        }
+    }
+
+    /**
+     * Without the phone key column: loads the clients whose phone ends with the same last digits and
+     * compares normalized numbers.
+     */
+    private List<Client> scanByPhone(String phoneKey) {
+        String suffix = phoneKey.substring(phoneKey.length() - SUFFIX_DIGITS);
+        return clientRepository.findByPhoneEndingWith(suffix).stream()
+                .filter(client -> phoneKey.equals(PhoneNumbers.toE164(client.getPhone(), defaultCountryCode)))
+                .collect(Collectors.toList());
+    }
+
+    private List<Client> cached(String key, Supplier<List<Client>> loader) {
+        long now = System.nanoTime();
+        long seen;
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                return entry.clients;
+            }
+            seen = invalidations;
+        }
+        List<Client> clients = List.copyOf(loader.get());
+        synchronized (cache) {
+            evict(key);
+            // A client changed while loading; the result may predate it, so serve it without caching.
+            if (seen != invalidations) {
+                return clients;
+            }
+            cache.put(key, new Entry(clients, now));
+            for (Client client : clients) {
+                keysByClient.computeIfAbsent(client.getClientId(), id -> new HashSet<>()).add(key);
+            }
+            while (cache.size() > cacheSize) {
+                evict(cache.keySet().iterator().next());
+            }
+        }
+        logger.debug("Cached client lookup {} with {} matches", key, clients.size());
+        return clients;
+    }
+
+    /**
+     * Removes a key and its reverse entries; caller holds the cache lock.
+     */
+    private void evict(String key) {
+        Entry entry = cache.remove(key);
+        if (entry == null) {
+            return;
+        }
+        for (Client client : entry.clients) {
+            Set<String> keys = keysByClient.get(client.getClientId());
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                keysByClient.remove(client.getClientId());
+            }
+        }
+    }
+
+    private record Entry(List<Client> clients, long loadedAt) {
+    }
+}
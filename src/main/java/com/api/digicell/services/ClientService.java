@@ -3,15 +3,21 @@ package com.api.digicell.services;
 import com.api.digicell.entities.Client;
 import com.api.digicell.entities.Conversation;
 import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.pagination.CursorPage;
+import com.api.digicell.pagination.KeysetPager;
+import com.api.digicell.pagination.KeysetSort;
 import com.api.digicell.repository.ClientRepository;
 import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.repository.ConversationSummary;
 import com.api.digicell.responses.ClientDetailsResponse;
 import com.api.digicell.dto.ClientConvoDto;
 import com.api.digicell.dto.ConvoDto;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 import java.util.List;
 
@@ -19,15 +25,28 @@ import java.util.List;
 public class ClientService {
     private final ClientRepository clientRepository;
     private final ConversationRepository conversationRepository;
+    private final ConversationMessageService messageService;
     private static final Logger logger = LoggerFactory.getLogger(ClientService.class);
+    private static final KeysetSort CLIENT_SORTS = KeysetSort.byId("clientId")
+            .with("name", "name", String.class)
+            .with("createdAt", "createdAt", LocalDateTime.class);
 
-    public ClientService(ClientRepository clientRepository, ConversationRepository conversationRepository) {
+    public ClientService(ClientRepository clientRepository, ConversationRepository conversationRepository,
+                         ConversationMessageService messageService) {
         this.clientRepository = clientRepository;
         this.conversationRepository = conversationRepository;
+        this.messageService = messageService;
     }
 
-    public List<Client> getAllClients() {
-        return clientRepository.findAll();
+    /**
+     * One keyset page of clients, optionally filtered by assignment status.
+     * @throws IllegalArgumentException for an unsupported sort or an invalid cursor
+     */
+    public CursorPage<Client> getClients(Boolean isAssigned, String sort, String cursor, Integer limit) {
+        Specification<Client> filter = isAssigned == null
+                ? Specification.where(null)
+                : (root, query, cb) -> cb.equal(root.get("isAssigned"), isAssigned);
+        return KeysetPager.page(clientRepository, filter, CLIENT_SORTS, sort, cursor, limit);
     }
 
     public Client getClientById(Long id) {
@@ -39,12 +58,9 @@ public class ClientService {
         return clientRepository.findByAgent_AgentId(agentId);
     }
 
-    public List<Client> getClientsByAssignmentStatus(boolean isAssigned) {
-        return clientRepository.findByIsAssigned(isAssigned);
-    }
-
     /**
-     * Returns a {@link ClientDetailsResponse} containing the client as well as all their conversations.
+     * Returns a {@link ClientDetailsResponse} containing the client as well as all their conversations,
+     * with chat histories read from the message table in table storage mode.
      */
     public ClientDetailsResponse getClientDetails(Long clientId) {
         logger.info("Fetching client details for id: {}", clientId);
@@ -52,7 +68,7 @@ public class ClientService {
             Client client = clientRepository.findById(clientId)
                     .orElseThrow(() -> new IllegalArgumentException("Client not found with id: " + clientId));
 
-            List<Conversation> conversations = conversationRepository.findByClient_ClientId(clientId);
+            List<Conversation> conversations = messageService.resolveHistories(conversationRepository.findByClient_ClientId(clientId));
             logger.debug("Found {} conversations for client {}", conversations.size(), clientId);
 
             List<ClientConvoDto> conversationDTOs = conversations.stream()
@@ -82,20 +98,25 @@ public class ClientService {
         }
     }
 
+    /**
+     * Returns summary rows of the client's conversations. Uses a projection query, so the chat history
+     * column is never read.
+     */
     public List<ConvoDto> getClientConversations(Long clientId) {
         logger.info("Fetching conversations for client ID: {}", clientId);
-        Client client = clientRepository.findById(clientId)
-                .orElseThrow(() -> new IllegalArgumentException("Client not found with id: " + clientId));
+        if (!clientRepository.existsById(clientId)) {
+            throw new IllegalArgumentException("Client not found with id: " + clientId);
+        }
 
-        List<Conversation> conversations = conversationRepository.findByClient_ClientId(clientId);
+        List<ConversationSummary> conversations = conversationRepository.findSummariesByClientId(clientId);
         logger.debug("Found {} conversations for client {}", conversations.size(), clientId);
 
         return conversations.stream()
                 .map(conv -> {
                     ConvoDto dto = new ConvoDto();
                     dto.setConversationId(conv.getConversationId());
-                    dto.setAgentId(conv.getAgent().getAgentId());
-                    dto.setAgentName(conv.getAgent().getName());
+                    dto.setAgentId(conv.getAgentId());
+                    dto.setAgentName(conv.getAgentName());
                     dto.setStartTime(conv.getStartTime());
                     dto.setEndTime(conv.getEndTime());
                     dto.setIntent(conv.getIntent());
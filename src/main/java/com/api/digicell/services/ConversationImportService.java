@@ -0,0 +1,250 @@
+package com.api.digicell.services;
+
+import com.api.digicell.converters.ChatHistoryConverter;
+import com.api.digicell.dto.ConversationDTO;
+import com.api.digicell.dto.ConversationImportResultDTO;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.ConversationImportCheckpoint;
+import com.api.digicell.entities.ConversationMessage;
+import com.api.digicell.mapper.ConversationRowMapper;
+import com.api.digicell.repository.AgentRepository;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.repository.ConversationBatchRepository;
+import com.api.digicell.repository.ConversationImportCheckpointRepository;
+import com.api.digicell.repository.OpenConversationIndex;
+import com.api.digicell.routing.ClientChangedEvent;
+import com.api.digicell.routing.ConversationOpenedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of conversations from NDJSON, one {@link ConversationDTO} per line.
+ * <p>
+ * Lines are handled in batches of {@code digicell.import.batch-size}. Each batch validates its client and
+ * agent ids with one query per table, inserts its conversations (and, in table storage mode, their
+ * messages) through JDBC batches and commits the import checkpoint in the same transaction. Posting the
+ * same import id again resumes after the last committed line.
+ * </p>
+ * Closed conversations are inserted as new rows. Lines without an end time are merged into the pair's
+ * open conversation like {@link ConversationService#createConversation(ConversationDTO)} does, through the
+ * single-statement upsert, when the open conversation index is available. Their clients are marked
+ * assigned in the batch transaction, and a {@link ConversationOpenedEvent} per open conversation lets
+ * routing and the workload counters count it once the batch commits.
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ConversationImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ConversationBatchRepository batchRepository;
+    private final ConversationImportCheckpointRepository checkpointRepository;
+    private final OpenConversationIndex openConversationIndex;
+    private final ClientRepository clientRepository;
+    private final AgentRepository agentRepository;
+    private final ConversationMessageService messageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConversationRowMapper rowMapper;
+    private final ChatHistoryConverter chatHistoryConverter = new ChatHistoryConverter();
+
+    @Value("${digicell.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Imports the NDJSON stream, resuming after the checkpoint of {@code importId} if there is one.
+     * A failing batch is rolled back and the exception propagated; the checkpoint then points at the last
+     * committed batch.
+     * @throws IllegalStateException if the same import is being committed by another request
+     */
+    public ConversationImportResultDTO importConversations(String importId, InputStream in) throws IOException {
+        ConversationImportCheckpoint checkpoint = checkpointRepository.findById(importId)
+                .orElseGet(() -> new ConversationImportCheckpoint(importId));
+        ConversationImportResultDTO result = new ConversationImportResultDTO();
+        result.setImportId(importId);
+        result.setResumedAfterLine(checkpoint.getLinesCommitted());
+        result.setLinesCommitted(checkpoint.getLinesCommitted());
+        result.setImported(checkpoint.getImported());
+        result.setSkipped(checkpoint.getSkipped());
+        logger.info("Starting conversation import {} after line {}", importId, checkpoint.getLinesCommitted());
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<Long, ConversationDTO> batch = new HashMap<>();
+        long lineNo = 0L;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo <= result.getResumedAfterLine() || line.isBlank()) {
+                continue;
+            }
+            ConversationDTO dto = parse(lineNo, line, result);
+            if (dto != null) {
+                batch.put(lineNo, dto);
+            }
+            if (lineNo - result.getLinesCommitted() >= batchSize) {
+                commit(importId, batch, lineNo, result);
+            }
+        }
+        if (lineNo > result.getLinesCommitted()) {
+            commit(importId, batch, lineNo, result);
+        }
+        logger.info("Conversation import {} finished - {} lines, {} imported, {} skipped",
+                importId, result.getLinesCommitted(), result.getImported(), result.getSkipped());
+        return result;
+    }
+
+    private ConversationDTO parse(long lineNo, String line, ConversationImportResultDTO result) {
+        ConversationDTO dto;
+        try {
+            dto = objectMapper.readValue(line, ConversationDTO.class);
+        } catch (JsonProcessingException e) {
+            skip(result, lineNo, "invalid JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        if (dto.getClientId() == null || dto.getAgentId() == null) {
+            skip(result, lineNo, "clientId and agentId are required");
+            return null;
+        }
+        if (dto.getIntent() == null || dto.getIntent().isBlank()) {
+            skip(result, lineNo, "intent is required");
+            return null;
+        }
+        return dto;
+    }
+
+    /**
+     * Writes the parsed lines up to {@code lastLine} and advances the checkpoint, in one transaction.
+     */
+    private void commit(String importId, Map<Long, ConversationDTO> batch, long lastLine, ConversationImportResultDTO result) {
+        long expectedLine = result.getLinesCommitted();
+        List<String> rejected = new ArrayList<>();
+        List<ConversationOpenedEvent> opened = new ArrayList<>();
+        Integer imported = transactionTemplate.execute(status -> {
+            ConversationImportCheckpoint checkpoint = checkpointRepository.lockByImportId(importId)
+                    .orElseGet(() -> new ConversationImportCheckpoint(importId));
+            if (checkpoint.getLinesCommitted() != expectedLine) {
+                throw new IllegalStateException("Import " + importId + " was advanced by another request to line "
+                        + checkpoint.getLinesCommitted());
+            }
+            int count = insert(batch, rejected, opened);
+            if (!opened.isEmpty()) {
+                clientRepository.markAssigned(opened.stream().map(ConversationOpenedEvent::clientId).collect(Collectors.toSet()));
+                // Transactional listeners, so handled only once the batch commits
+                opened.forEach(eventPublisher::publishEvent);
+            }
+            checkpoint.setLinesCommitted(lastLine);
+            checkpoint.setImported(result.getImported() + count);
+            checkpoint.setSkipped(result.getSkipped() + rejected.size());
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            return count;
+        });
+        rejected.forEach(reason -> skip(result, null, reason));
+        opened.stream().map(ConversationOpenedEvent::clientId).distinct()
+                .forEach(clientId -> eventPublisher.publishEvent(new ClientChangedEvent(clientId)));
+        result.setImported(result.getImported() + (imported == null ? 0 : imported));
+        result.setLinesCommitted(lastLine);
+        batch.clear();
+        logger.debug("Conversation import {} committed up to line {}", importId, lastLine);
+    }
+
+    /**
+     * Inserts the batch rows whose client and agent exist; the others are reported in {@code rejected}.
+     * Conversations left open are reported in {@code opened}.
+     */
+    private int insert(Map<Long, ConversationDTO> batch, List<String> rejected, List<ConversationOpenedEvent> opened) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> clientIds = new HashSet<>();
+        Set<Long> agentIds = new HashSet<>();
+        batch.values().forEach(dto -> {
+            clientIds.add(dto.getClientId());
+            agentIds.add(dto.getAgentId());
+        });
+        Set<Long> existingClients = new HashSet<>(clientRepository.findExistingIds(clientIds));
+        Set<Long> existingAgents = new HashSet<>(agentRepository.findExistingIds(agentIds));
+
+        boolean tableMode = messageService.isTableMode();
+        LocalDateTime now = LocalDateTime.now();
+        List<ConversationDTO> accepted = new ArrayList<>(batch.size());
+        List<Map<String, Object>> rows = new ArrayList<>(batch.size());
+        List<ConversationDTO> openAccepted = new ArrayList<>();
+        List<Map<String, Object>> openRows = new ArrayList<>();
+        batch.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            ConversationDTO dto = entry.getValue();
+            if (!existingClients.contains(dto.getClientId())) {
+                rejected.add("line " + entry.getKey() + ": client not found with id " + dto.getClientId());
+                return;
+            }
+            if (!existingAgents.contains(dto.getAgentId())) {
+                rejected.add("line " + entry.getKey() + ": agent not found with id " + dto.getAgentId());
+                return;
+            }
+            Map<String, Object> row = rowMapper.toRow(dto, chatHistoryConverter.convertToDatabaseColumn(
+                    tableMode ? null : dto.getChatHistory(), dto.getEndTime() == null), now);
+            if (dto.getEndTime() == null && openConversationIndex.isAvailable()) {
+                openRows.add(row);
+                openAccepted.add(dto);
+            } else {
+                rows.add(row);
+                accepted.add(dto);
+            }
+        });
+
+        List<Long> ids = rows.isEmpty() ? List.of() : batchRepository.insertConversations(rows);
+        for (int i = 0; i < accepted.size(); i++) {
+            ConversationDTO dto = accepted.get(i);
+            if (dto.getEndTime() == null) {
+                opened.add(new ConversationOpenedEvent(ids.get(i), dto.getAgentId(), dto.getClientId()));
+            }
+        }
+        if (tableMode) {
+            List<ConversationMessage> messages = new ArrayList<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                messages.addAll(rowMapper.toMessageRows(ids.get(i), accepted.get(i).getChatHistory()));
+            }
+            batchRepository.insertMessages(messages);
+        }
+        // Open conversations go through the upsert one by one, merging into the pair's open conversation.
+        for (int i = 0; i < openRows.size(); i++) {
+            ConversationDTO dto = openAccepted.get(i);
+            List<List<ChatMessage>> history = dto.getChatHistory();
+            Long id = batchRepository.upsertOpenConversation(openRows.get(i), history != null).conversationId();
+            if (tableMode && history != null) {
+                messageService.replace(id, history);
+            }
+            opened.add(new ConversationOpenedEvent(id, dto.getAgentId(), dto.getClientId()));
+        }
+        return rows.size() + openRows.size();
+    }
+
+    private static void skip(ConversationImportResultDTO result, Long lineNo, String reason) {
+        result.setSkipped(result.getSkipped() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(lineNo == null ? reason : "line " + lineNo + ": " + reason);
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.api.digicell.services;
+
+import com.api.digicell.converters.ChatHistoryConverter;
+import com.api.digicell.dto.MessagePageDTO;
+import com.api.digicell.entities.ChatHistoryStorageMode;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.Conversation;
+import com.api.digicell.entities.ConversationMessage;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.mapper.ConversationRowMapper;
+import com.api.digicell.repository.ConversationMessageRepository;
+import com.api.digicell.repository.ConversationRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores and reads conversation messages in the normalized {@code conversation_messages} table when the
+ * chat history storage mode is {@link ChatHistoryStorageMode#TABLE}.
+ * <p>
+ * Conversations that have no rows yet keep serving their JSON column, so the table can be filled
+ * lazily (on the first append) or in bulk through {@link #backfill()}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ConversationMessageService {
+    private static final Logger logger = LoggerFactory.getLogger(ConversationMessageService.class);
+    private static final int BACKFILL_BATCH_SIZE = 200;
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final ConversationMessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationRowMapper rowMapper;
+    private final ChatHistoryConverter chatHistoryConverter = new ChatHistoryConverter();
+
+    @Value("${digicell.chat-history.storage:json}")
+    private ChatHistoryStorageMode storageMode;
+
+    @Value("${digicell.chat-history.backfill-on-startup:false}")
+    private boolean backfillOnStartup;
+
+    public boolean isTableMode() {
+        return storageMode == ChatHistoryStorageMode.TABLE;
+    }
+
+    /**
+     * Appends messages to the conversation's current session, or to a new session.
+     * The conversation row is locked so concurrent appends get consecutive sequence numbers.
+     * @throws ResourceNotFoundException if the conversation does not exist
+     */
+    @Transactional
+    public int append(Long conversationId, List<ChatMessage> messages, boolean newSession) {
+        conversationRepository.lockById(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + conversationId));
+
+        ConversationMessage tail = messageRepository.findFirstByIdConversationIdOrderByIdSeqDesc(conversationId)
+                .orElse(null);
+        if (tail == null && backfillConversations(List.of(conversationId)) > 0) {
+            tail = messageRepository.findFirstByIdConversationIdOrderByIdSeqDesc(conversationId).orElse(null);
+        }
+
+        int session = tail == null ? 0 : tail.getId().getSessionNo() + (newSession ? 1 : 0);
+        long seq = tail == null ? 0L : tail.getId().getSeq();
+        List<ConversationMessage> rows = rowMapper.toMessageRows(conversationId, List.of(messages), session, seq);
+        messageRepository.saveAll(rows);
+        logger.debug("Appended {} messages to conversation {} (session {}, last seq {})", rows.size(), conversationId, session, seq + rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Replaces all stored messages of a conversation with the given history.
+     */
+    @Transactional
+    public void replace(Long conversationId, List<List<ChatMessage>> history) {
+        messageRepository.deleteByConversationId(conversationId);
+        messageRepository.saveAll(rowMapper.toMessageRows(conversationId, history));
+    }
+
+    /**
+     * Deletes all stored messages of a conversation. The table has no foreign key to conversations, so
+     * this must run in the transaction that deletes the conversation.
+     */
+    @Transactional
+    public void delete(Long conversationId) {
+        messageRepository.deleteByConversationId(conversationId);
+    }
+
+    /**
+     * Returns the conversation with its chat history read from the message table, detached so the
+     * substituted history is never written back to the JSON column. In JSON mode, or when the
+     * conversation has no rows yet, the conversation is returned unchanged.
+     */
+    public Conversation resolveHistory(Conversation conversation) {
+        if (!isTableMode()) {
+            return conversation;
+        }
+        List<ConversationMessage> rows = messageRepository.findByIdConversationIdOrderByIdSeqAsc(conversation.getConversationId());
+        if (!rows.isEmpty()) {
+            entityManager.detach(conversation);
+            conversation.setChatHistory(toHistory(rows));
+        }
+        return conversation;
+    }
+
+    /**
+     * Batched variant of {@link #resolveHistory(Conversation)} reading all histories with one query.
+     */
+    public List<Conversation> resolveHistories(List<Conversation> conversations) {
+        if (!isTableMode() || conversations.isEmpty()) {
+            return conversations;
+        }
+        List<Long> ids = conversations.stream().map(Conversation::getConversationId).collect(Collectors.toList());
+        Map<Long, List<ConversationMessage>> rowsByConversation = messageRepository
+                .findByIdConversationIdInOrderByIdConversationIdAscIdSeqAsc(ids).stream()
+                .collect(Collectors.groupingBy(m -> m.getId().getConversationId(), LinkedHashMap::new, Collectors.toList()));
+        for (Conversation conversation : conversations) {
+            List<ConversationMessage> rows = rowsByConversation.get(conversation.getConversationId());
+            if (rows != null) {
+                entityManager.detach(conversation);
+                conversation.setChatHistory(toHistory(rows));
+            }
+        }
+        return conversations;
+    }
+
+    /**
+     * Chat histories of all of a client's conversations by conversation id, without loading the
+     * conversations. In table mode, conversations with message rows take their history from the rows.
+     */
+    public Map<Long, List<List<ChatMessage>>> getHistoriesByClient(Long clientId) {
+        Map<Long, List<List<ChatMessage>>> histories = new HashMap<>();
+        for (Object[] row : conversationRepository.findRawChatHistoriesByClientId(clientId)) {
+            histories.put(((Number) row[0]).longValue(), chatHistoryConverter.convertToEntityAttribute((String) row[1]));
+        }
+        if (isTableMode()) {
+            messageRepository.findByClientId(clientId).stream()
+                    .collect(Collectors.groupingBy(m -> m.getId().getConversationId(), LinkedHashMap::new, Collectors.toList()))
+                    .forEach((conversationId, rows) -> histories.put(conversationId, toHistory(rows)));
+        }
+        return histories;
+    }
+
+    /**
+     * Reads the end of a conversation's history: the last {@code lastSessions} sessions and/or the last
+     * {@code lastMessages} messages (grouped by session), without loading the rest of the history.
+     * In JSON mode the slicing is done by MySQL, so only the fragment is transferred and parsed;
+     * compressed histories cannot be sliced by the database and are decoded and sliced here.
+     */
+    @Transactional(readOnly = true)
+    public List<List<ChatMessage>> getHistoryTail(Long conversationId, Integer lastSessions, Integer lastMessages) {
+        if (isTableMode() && messageRepository.existsByIdConversationId(conversationId)) {
+            return tailFromTable(conversationId, lastSessions, lastMessages);
+        }
+        int sessions = lastSessions == null ? 0 : lastSessions;
+        if (lastMessages != null) {
+            List<Object[]> rows = conversationRepository.findChatHistoryLastMessages(conversationId, sessions, lastMessages);
+            if (!rows.isEmpty()) {
+                return chatHistoryConverter.convertToEntityAttribute(regroup(rows));
+            }
+        }
+        List<String> raw = conversationRepository.findChatHistoryLastSessions(conversationId, sessions > 0 ? sessions : Integer.MAX_VALUE);
+        if (raw.isEmpty() || raw.get(0) == null) {
+            return new ArrayList<>();
+        }
+        logger.debug("Read chat history tail of conversation {} ({} chars)", conversationId, raw.get(0).length());
+        return tail(chatHistoryConverter.convertToEntityAttribute(raw.get(0)), lastSessions, lastMessages);
+    }
+
+    /**
+     * Reads one keyset page of messages. With {@code beforeSeq} the page holds the messages immediately
+     * preceding that sequence number (useful to show the last screen first), otherwise the messages
+     * following {@code afterSeq}. Messages are always returned in chronological order.
+     * @throws ResourceNotFoundException if the conversation does not exist
+     */
+    @Transactional(readOnly = true)
+    public MessagePageDTO getMessages(Long conversationId, Long afterSeq, Long beforeSeq, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (!conversationRepository.existsById(conversationId)) {
+            throw new ResourceNotFoundException("Conversation not found with id: " + conversationId);
+        }
+
+        List<ConversationMessage> rows = isTableMode()
+                ? pageFromTable(conversationId, afterSeq, beforeSeq, pageSize + 1)
+                : List.of();
+        if (rows.isEmpty() && !(isTableMode() && messageRepository.existsByIdConversationId(conversationId))) {
+            rows = pageFromJson(conversationId, afterSeq, beforeSeq, pageSize + 1);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = beforeSeq != null ? rows.subList(rows.size() - pageSize, rows.size()) : rows.subList(0, pageSize);
+        }
+
+        MessagePageDTO page = new MessagePageDTO();
+        page.setConversationId(conversationId);
+        page.setMessages(rows.stream().map(this::toMessageDTO).collect(Collectors.toList()));
+        page.setFirstSeq(rows.isEmpty() ? null : rows.get(0).getId().getSeq());
+        page.setNextAfterSeq(rows.isEmpty() ? afterSeq : rows.get(rows.size() - 1).getId().getSeq());
+        page.setHasMore(hasMore);
+        return page;
+    }
+
+    /**
+     * Copies the JSON chat history of every conversation that has no message rows yet into the table.
+     * Conversations are processed in id order, one transaction per batch, and already migrated
+     * conversations are skipped, so the backfill can be re-run safely.
+     *
+     * @return number of conversations migrated
+     */
+    public long backfill() {
+        logger.info("Starting chat history backfill into conversation_messages");
+        long afterId = 0L;
+        long migrated = 0L;
+        while (true) {
+            List<Long> ids = conversationRepository.findIdsAfter(afterId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer batchMigrated = transactionTemplate.execute(status -> {
+                int count = backfillConversations(ids);
+                messageRepository.flush();
+                entityManager.clear();
+                return count;
+            });
+            migrated += batchMigrated == null ? 0 : batchMigrated;
+            afterId = ids.get(ids.size() - 1);
+            logger.debug("Chat history backfill progress - last conversation id: {}, migrated: {}", afterId, migrated);
+        }
+        logger.info("Chat history backfill finished - migrated {} conversations", migrated);
+        return migrated;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (isTableMode() && backfillOnStartup) {
+            backfill();
+        }
+    }
+
+    /**
+     * Migrates the given conversations that have no message rows. Must run inside a transaction;
+     * the conversation rows are locked so a concurrent append cannot migrate the same history.
+     */
+    private int backfillConversations(List<Long> conversationIds) {
+        List<Long> locked = conversationRepository.lockByIds(conversationIds);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        Set<Long> migrated = new HashSet<>(messageRepository.findConversationIdsWithMessages(locked));
+        List<Long> pending = locked.stream().filter(id -> !migrated.contains(id)).collect(Collectors.toList());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int count = 0;
+        List<ConversationMessage> rows = new ArrayList<>();
+        for (Object[] row : conversationRepository.findRawChatHistories(pending)) {
+            Long conversationId = ((Number) row[0]).longValue();
+            List<List<ChatMessage>> history = chatHistoryConverter.convertToEntityAttribute((String) row[1]);
+            List<ConversationMessage> conversationRows = rowMapper.toMessageRows(conversationId, history);
+            if (!conversationRows.isEmpty()) {
+                rows.addAll(conversationRows);
+                count++;
+            }
+        }
+        messageRepository.saveAll(rows);
+        return count;
+    }
+
+    private List<List<ChatMessage>> tailFromTable(Long conversationId, Integer lastSessions, Integer lastMessages) {
+        List<ConversationMessage> rows;
+        if (lastSessions != null) {
+            int lastSession = messageRepository.findFirstByIdConversationIdOrderByIdSeqDesc(conversationId)
+                    .map(m -> m.getId().getSessionNo())
+                    .orElse(0);
+            rows = messageRepository.findByIdConversationIdAndIdSessionNoGreaterThanEqualOrderByIdSeqAsc(
+                    conversationId, lastSession - lastSessions + 1);
+        } else {
+            rows = new ArrayList<>(messageRepository.findByIdConversationIdOrderByIdSeqDesc(conversationId, Limit.of(lastMessages)));
+            Collections.reverse(rows);
+        }
+        if (lastMessages != null && rows.size() > lastMessages) {
+            rows = rows.subList(rows.size() - lastMessages, rows.size());
+        }
+        return toHistory(rows);
+    }
+
+    /**
+     * Rebuilds a chat history JSON document from {@code [session, position, message]} rows returned
+     * newest first.
+     */
+    private static String regroup(List<Object[]> rows) {
+        StringBuilder json = new StringBuilder("[");
+        Object currentSession = null;
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object[] row = rows.get(i);
+            if (currentSession == null || !currentSession.equals(row[0])) {
+                json.append(currentSession == null ? "[" : "],[");
+                currentSession = row[0];
+            } else {
+                json.append(',');
+            }
+            json.append((String) row[2]);
+        }
+        return json.append("]]").toString();
+    }
+
+    /**
+     * In-memory equivalent of the database-side slicing.
+     */
+    private static List<List<ChatMessage>> tail(List<List<ChatMessage>> history, Integer lastSessions, Integer lastMessages) {
+        List<List<ChatMessage>> sessions = lastSessions == null || history.size() <= lastSessions
+                ? history
+                : history.subList(history.size() - lastSessions, history.size());
+        if (lastMessages == null) {
+            return new ArrayList<>(sessions);
+        }
+        List<List<ChatMessage>> result = new ArrayList<>();
+        int remaining = lastMessages;
+        for (int i = sessions.size() - 1; i >= 0 && remaining > 0; i--) {
+            List<ChatMessage> session = sessions.get(i);
+            if (session.isEmpty()) {
+                continue;
+            }
+            int from = Math.max(0, session.size() - remaining);
+            result.add(0, new ArrayList<>(session.subList(from, session.size())));
+            remaining -= session.size() - from;
+        }
+        return result;
+    }
+
+    private List<ConversationMessage> pageFromTable(Long conversationId, Long afterSeq, Long beforeSeq, int limit) {
+        if (beforeSeq != null) {
+            List<ConversationMessage> rows = new ArrayList<>(messageRepository
+                    .findByIdConversationIdAndIdSeqLessThanOrderByIdSeqDesc(conversationId, beforeSeq, Limit.of(limit)));
+            Collections.reverse(rows);
+            return rows;
+        }
+        return messageRepository.findByIdConversationIdAndIdSeqGreaterThanOrderByIdSeqAsc(
+                conversationId, afterSeq == null ? 0L : afterSeq, Limit.of(limit));
+    }
+
+    /**
+     * JSON mode fallback: numbers the stored messages the same way the table does and slices them.
+     */
+    private List<ConversationMessage> pageFromJson(Long conversationId, Long afterSeq, Long beforeSeq, int limit) {
+        List<Object[]> raw = conversationRepository.findRawChatHistories(List.of(conversationId));
+        if (raw.isEmpty()) {
+            return List.of();
+        }
+        List<ConversationMessage> all = rowMapper.toMessageRows(conversationId, chatHistoryConverter.convertToEntityAttribute((String) raw.get(0)[1]));
+        if (beforeSeq != null) {
+            int end = (int) Math.max(0, Math.min(all.size(), beforeSeq - 1));
+            return all.subList(Math.max(0, end - limit), end);
+        }
+        int start = (int) Math.max(0, Math.min(all.size(), afterSeq == null ? 0L : afterSeq));
+        return all.subList(start, Math.min(all.size(), start + limit));
+    }
+
+    private List<List<ChatMessage>> toHistory(List<ConversationMessage> rows) {
+        Map<Integer, List<ChatMessage>> sessions = new LinkedHashMap<>();
+        for (ConversationMessage row : rows) {
+            sessions.computeIfAbsent(row.getId().getSessionNo(), s -> new ArrayList<>()).add(row.toChatMessage());
+        }
+        return new ArrayList<>(sessions.values());
+    }
+
+    private MessagePageDTO.MessageDTO toMessageDTO(ConversationMessage row) {
+        MessagePageDTO.MessageDTO dto = new MessagePageDTO.MessageDTO();
+        dto.setSeq(row.getId().getSeq());
+        dto.setSession(row.getId().getSessionNo());
+        dto.setRole(row.getRole());
+        dto.setContent(row.getContent());
+        dto.setTimestamp(row.getTimestamp());
+        return dto;
+    }
+}
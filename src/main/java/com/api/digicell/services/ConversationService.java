@@ -1,55 +1,244 @@
 package com.api.digicell.services;
 
+import com.api.digicell.alias.AliasCache;
+import com.api.digicell.converters.ChatHistoryConverter;
 import com.api.digicell.dto.ConversationDTO;
+import com.api.digicell.dto.MessageAppendDTO;
+import com.api.digicell.dto.MessagePageDTO;
 import com.api.digicell.dtos.ChatHistoryDTO;
 import com.api.digicell.entities.Conversation;
 import com.api.digicell.entities.Client;
 import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.ChatMessage;
 import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.mapper.ChatHistoryMapper;
+import com.api.digicell.mapper.ConversationRowMapper;
+import com.api.digicell.pagination.CursorPage;
+import com.api.digicell.pagination.KeysetPager;
+import com.api.digicell.pagination.KeysetSort;
 import com.api.digicell.repository.AgentRepository;
+import com.api.digicell.repository.ConversationBatchRepository;
+import com.api.digicell.repository.ConversationHeader;
 import com.api.digicell.repository.ConversationRepository;
 import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.repository.OpenConversationIndex;
+import com.api.digicell.routing.ConversationClosedEvent;
+import com.api.digicell.routing.ConversationDeletedEvent;
+import com.api.digicell.routing.ConversationOpenedEvent;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ConversationService {
 
+    private static final KeysetSort CONVERSATION_SORTS = KeysetSort.byId("conversationId")
+            .with("startTime", "startTime", LocalDateTime.class);
+    private static final int EXPORT_CHUNK_SIZE = 100;
+    private static final int OPEN_CONVERSATION_LOCK_STRIPES = 64;
+
     private final ConversationRepository conversationRepository;
     private final ClientRepository clientRepository;
     private final AgentRepository agentRepository;
+    private final ConversationMessageService messageService;
+    private final ConversationBatchRepository batchRepository;
+    private final OpenConversationIndex openConversationIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final AliasCache aliasCache;
+    private final ChatHistoryMapper chatHistoryMapper;
+    private final ConversationRowMapper rowMapper;
+    private final ReentrantLock[] openConversationLocks = newLockStripes(OPEN_CONVERSATION_LOCK_STRIPES);
+    private final ChatHistoryConverter chatHistoryConverter = new ChatHistoryConverter();
+
+    /** Roles whose appended messages get their aliases expanded; empty leaves all messages as sent. */
+    @Value("${digicell.aliases.expand-roles:}")
+    private List<String> aliasExpandRoles = List.of();
 
-    public List<Conversation> getAllConversations() {
-        return conversationRepository.findAll();
+    /**
+     * One keyset page of conversations, with agent and client fetched in the same query.
+     * @throws IllegalArgumentException for an unsupported sort or an invalid cursor
+     */
+    public CursorPage<Conversation> getConversations(String sort, String cursor, Integer limit) {
+        CursorPage<Conversation> page = KeysetPager.page(conversationRepository, Specification.where(null),
+                CONVERSATION_SORTS, sort, cursor, limit, "agent", "client");
+        messageService.resolveHistories(page.getItems());
+        return page;
+    }
+
+    /**
+     * Writes every conversation, in id order, to {@code out} as newline-delimited JSON. Rows are read
+     * from a database stream and written in chunks of {@value #EXPORT_CHUNK_SIZE}; after each chunk the
+     * output is flushed and the persistence context cleared, so memory use does not grow with the
+     * number of conversations.
+     *
+     * @return number of conversations written
+     */
+    @Transactional(readOnly = true)
+    public long exportConversations(OutputStream out) throws IOException {
+        long written = 0L;
+        List<Conversation> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<Conversation> conversations = conversationRepository.streamAll()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Conversation> rows = conversations.iterator();
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    written += writeChunk(generator, chunk);
+                }
+            }
+            written += writeChunk(generator, chunk);
+        }
+        return written;
+    }
+
+    private int writeChunk(JsonGenerator generator, List<Conversation> chunk) throws IOException {
+        int size = chunk.size();
+        messageService.resolveHistories(chunk);
+        for (Conversation conversation : chunk) {
+            generator.writeObject(conversation);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        chunk.clear();
+        entityManager.clear();
+        return size;
     }
 
     public Conversation getConversationById(Long id) {
-        return conversationRepository.findById(id)
+        return messageService.resolveHistory(findConversation(id));
+    }
+
+    /**
+     * Returns the conversation with only the end of its chat history: the last {@code lastSessions}
+     * sessions and/or the last {@code lastMessages} messages. The full history is never loaded.
+     * The returned conversation is not managed.
+     * @throws ResourceNotFoundException if the conversation does not exist
+     */
+    @Transactional(readOnly = true)
+    public Conversation getConversationTail(Long id, Integer lastSessions, Integer lastMessages) {
+        ConversationHeader header = conversationRepository.findWithoutChatHistory(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + id));
+        Conversation conversation = new Conversation();
+        conversation.setConversationId(header.getConversationId());
+        conversation.setAgent(header.getAgent());
+        conversation.setClient(header.getClient());
+        conversation.setIntent(header.getIntent());
+        conversation.setStartTime(header.getStartTime());
+        conversation.setEndTime(header.getEndTime());
+        conversation.setChatSummary(header.getChatSummary());
+        conversation.setChatHistory(messageService.getHistoryTail(id, lastSessions, lastMessages));
+        return conversation;
     }
 
     public List<Conversation> getConversationsByAgent(Long agentId) {
-        return conversationRepository.findByAgent_AgentId(agentId);
+        return messageService.resolveHistories(conversationRepository.findByAgent_AgentId(agentId));
     }
 
     public List<Conversation> getConversationsByUser(Long userId) {
-        return conversationRepository.findByClient_ClientId(userId);
+        return messageService.resolveHistories(conversationRepository.findByClient_ClientId(userId));
     }
 
     public List<Conversation> getConversationsByAgentAndUser(Long agentId, Long userId) {
-        return conversationRepository.findByAgent_AgentIdAndClient_ClientId(agentId, userId);
+        return messageService.resolveHistories(conversationRepository.findByAgent_AgentIdAndClient_ClientId(agentId, userId));
     }
 
-    @Transactional
+    /**
+     * Creates a conversation, or updates the open conversation of the same client and agent.
+     * <p>
+     * With the open conversation unique index in place this is a single {@code INSERT ... ON DUPLICATE KEY
+     * UPDATE}, so concurrent calls for a pair can never create two open conversations. Calls for the same
+     * pair are also serialized on one of {@value #OPEN_CONVERSATION_LOCK_STRIPES} in-process lock stripes,
+     * which keeps them from deadlocking on the index and, without the index, makes the read-then-write
+     * fallback safe on a single node. The lock has to be held until the transaction commits, so a caller
+     * that runs this in its own transaction must start that transaction inside
+     * {@link #withOpenConversationLock(Long, Long, Supplier)}.
+     * </p>
+     * @throws IllegalArgumentException if the client or agent does not exist
+     * @throws IllegalStateException if called in a transaction without holding the pair's lock
+     */
     public Conversation createConversation(ConversationDTO dto) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !lockFor(dto.getClientId(), dto.getAgentId()).isHeldByCurrentThread()) {
+            throw new IllegalStateException("Conversations created in an outer transaction must be created inside withOpenConversationLock");
+        }
+        return withOpenConversationLock(dto.getClientId(), dto.getAgentId(),
+                () -> transactionTemplate.execute(status -> openConversationIndex.isAvailable()
+                        ? upsertConversation(dto)
+                        : createOrUpdateConversation(dto)));
+    }
+
+    /**
+     * Runs {@code work} holding the lock stripe of the client and agent pair that
+     * {@link #createConversation(ConversationDTO)} takes. The lock is reentrant, so {@code work} can be a
+     * transaction that creates the pair's conversation among other writes.
+     */
+    public <T> T withOpenConversationLock(Long clientId, Long agentId, Supplier<T> work) {
+        ReentrantLock lock = lockFor(clientId, agentId);
+        lock.lock();
+        try {
+            return work.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(Long clientId, Long agentId) {
+        return openConversationLocks[Math.floorMod(Objects.hash(clientId, agentId), OPEN_CONVERSATION_LOCK_STRIPES)];
+    }
+
+    private Conversation upsertConversation(ConversationDTO dto) {
+        String chatHistory = chatHistoryConverter.convertToDatabaseColumn(
+                messageService.isTableMode() ? null : dto.getChatHistory(), dto.getEndTime() == null);
+        ConversationBatchRepository.Upserted upserted;
+        try {
+            upserted = batchRepository.upsertOpenConversation(
+                    rowMapper.toRow(dto, chatHistory, LocalDateTime.now()), dto.getChatHistory() != null);
+        } catch (DataIntegrityViolationException e) {
+            if (!clientRepository.existsById(dto.getClientId())) {
+                throw new IllegalArgumentException("User not found with id: " + dto.getClientId());
+            }
+            if (!agentRepository.existsById(dto.getAgentId())) {
+                throw new IllegalArgumentException("Agent not found with id: " + dto.getAgentId());
+            }
+            throw e;
+        }
+        Conversation conversation = findConversation(upserted.conversationId());
+        publishLifecycle(conversation, upserted.closedOpen());
+        return storeHistory(conversation, dto.getChatHistory());
+    }
+
+    /**
+     * Read-then-write fallback of {@link #createConversation(ConversationDTO)}, only race-free while the
+     * caller holds the pair's lock stripe.
+     */
+    private Conversation createOrUpdateConversation(ConversationDTO dto) {
         Client client = clientRepository.findById(dto.getClientId())
             .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + dto.getClientId()));
         
@@ -66,10 +255,12 @@ public class ConversationService {
             existingConversation.setIntent(dto.getIntent());
             existingConversation.setEndTime(dto.getEndTime());
             if (dto.getChatHistory() != null) {
-                existingConversation.setChatHistory(dto.getChatHistory());
+                existingConversation.setChatHistory(messageService.isTableMode() ? List.of() : dto.getChatHistory());
             }
             conversationRepository.save(existingConversation);
-            return existingConversation;
+            keepOpenHistoryPlain(existingConversation, dto.getChatHistory());
+            publishLifecycle(existingConversation, dto.getEndTime() != null);
+            return storeHistory(existingConversation, dto.getChatHistory());
         }
 
         // Create new conversation if none exists
@@ -79,61 +270,170 @@ public class ConversationService {
         conversation.setIntent(dto.getIntent());
         conversation.setStartTime(dto.getStartTime());
         conversation.setEndTime(dto.getEndTime());
-        conversation.setChatHistory(dto.getChatHistory());
+        conversation.setChatHistory(messageService.isTableMode() ? List.of() : dto.getChatHistory());
+        conversation.setChatSummary(dto.getChatSummary() != null ? dto.getChatSummary() : "");
         conversationRepository.save(conversation);
-        return conversation;
+        keepOpenHistoryPlain(conversation, dto.getChatHistory());
+        publishLifecycle(conversation, false);
+        return storeHistory(conversation, dto.getChatHistory());
+    }
+
+    /**
+     * The entity write always goes through the codec, so when compression is on, the history of a
+     * conversation that stays open is rewritten as plain JSON to keep appends on the SQL path. Only the
+     * read-then-write fallback needs this; the upsert encodes the row itself.
+     */
+    private void keepOpenHistoryPlain(Conversation conversation, List<List<ChatMessage>> history) {
+        if (conversation.getEndTime() != null || history == null || messageService.isTableMode()
+                || !ChatHistoryConverter.isCompressionEnabled()) {
+            return;
+        }
+        conversationRepository.flush();
+        conversationRepository.writeRawChatHistory(conversation.getConversationId(), chatHistoryConverter.convertToDatabaseColumn(history, true));
     }
 
     @Transactional
     public Conversation updateConversation(Long id, Conversation updated) {
-        Conversation existing = getConversationById(id);
-        existing.setChatHistory(updated.getChatHistory());
+        Conversation existing = findConversation(id);
+        boolean wasOpen = existing.getEndTime() == null;
+        existing.setChatHistory(messageService.isTableMode() ? List.of() : updated.getChatHistory());
         existing.setEndTime(updated.getEndTime() != null ? updated.getEndTime() : LocalDateTime.now());
-        return existing;
+        publishLifecycle(existing, wasOpen);
+        return storeHistory(existing, orEmpty(updated.getChatHistory()));
     }
 
-    public void deleteConversation(Long id) {
-        if (!conversationRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Conversation not found with id: " + id);
+    /**
+     * Appends messages to a conversation without loading its existing chat history. Messages extend
+     * the current (last) session unless {@code newSession} is set, in which case they start a new one.
+     * Aliases in messages of the {@code digicell.aliases.expand-roles} roles are expanded first.
+     * @throws ResourceNotFoundException if the conversation does not exist
+     */
+    @Transactional
+    public int appendMessages(Long conversationId, List<MessageAppendDTO> messages, boolean newSession) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ChatMessage> chatMessages = messages.stream()
+                .map(m -> new ChatMessage(m.getRole(), expandAliases(m), m.getTimestamp() != null ? m.getTimestamp() : now))
+                .collect(Collectors.toList());
+        if (messageService.isTableMode()) {
+            return messageService.append(conversationId, chatMessages, newSession);
         }
+        String messagesJson = ChatHistoryConverter.toJsonArray(chatMessages);
+
+        int updated = newSession
+                ? conversationRepository.appendNewSession(conversationId, messagesJson)
+                : conversationRepository.appendToCurrentSession(conversationId, messagesJson);
+        if (updated == 0) {
+            appendToCompressedHistory(conversationId, chatMessages, newSession);
+        }
+        return chatMessages.size();
+    }
+
+    private String expandAliases(MessageAppendDTO message) {
+        return aliasExpandRoles.contains(message.getRole())
+                ? aliasCache.expand(message.getContent()).text()
+                : message.getContent();
+    }
+
+    /**
+     * Deletes the conversation and its message rows; the rows are deleted in any storage mode, since
+     * they outlive a switch back to JSON mode. Deleting an open conversation frees its agent and client
+     * like closing it, through a {@link ConversationDeletedEvent}.
+     */
+    @Transactional
+    public void deleteConversation(Long id) {
+        ConversationHeader header = conversationRepository.findWithoutChatHistory(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + id));
+        messageService.delete(id);
         conversationRepository.deleteById(id);
+        if (header.getEndTime() == null) {
+            eventPublisher.publishEvent(new ConversationDeletedEvent(id, header.getAgent().getAgentId(), header.getClient().getClientId()));
+        }
+    }
+
+    /**
+     * Reads one keyset page of a conversation's messages.
+     * @throws ResourceNotFoundException if the conversation does not exist
+     */
+    public MessagePageDTO getMessages(Long conversationId, Long afterSeq, Long beforeSeq, Integer limit) {
+        return messageService.getMessages(conversationId, afterSeq, beforeSeq, limit);
     }
 
     public List<ChatHistoryDTO> getChatHistoryByUser(Long clientId) {
-        List<Conversation> conversations = conversationRepository.findByClient_ClientId(clientId);
+        List<Conversation> conversations = getConversationsByUser(clientId);
         return conversations.stream()
-                .map(this::convertToChatHistoryDTO)
+                .map(chatHistoryMapper::toChatHistoryDTO)
                 .collect(Collectors.toList());
     }
 
     public ChatHistoryDTO getConversationDetails(Long conversationId, Long userId) {
         Conversation conversation = conversationRepository.findByConversationIdAndClient_ClientId(conversationId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conversation not found"));
-        return convertToChatHistoryDTO(conversation);
+        return chatHistoryMapper.toChatHistoryDTO(messageService.resolveHistory(conversation));
     }
 
-    private ChatHistoryDTO convertToChatHistoryDTO(Conversation conversation) {
-        ChatHistoryDTO dto = new ChatHistoryDTO();
-        dto.setAgentId(conversation.getAgent().getAgentId());
-        dto.setAgentName(conversation.getAgent().getName());
-        dto.setIntent(conversation.getIntent());
-        dto.setChatSummary(conversation.getChatSummary());
-        
-        // Convert chat history to the new format
-        List<List<ChatHistoryDTO.MessageDTO>> formattedHistory = conversation.getChatHistory().stream()
-            .map(messages -> messages.stream()
-                .map(msg -> {
-                    ChatHistoryDTO.MessageDTO messageDTO = new ChatHistoryDTO.MessageDTO();
-                    // Format timestamp to match "2024-03-20T18:01:00" format
-                    messageDTO.setTimestamp(msg.getTimestamp().format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
-                    messageDTO.setContent(msg.getContent());
-                    messageDTO.setRole(msg.getRole());
-                    return messageDTO;
-                })
-                .collect(Collectors.toList()))
-            .collect(Collectors.toList());
-        
-        dto.setChatHistory(formattedHistory);
-        return dto;
+    private Conversation findConversation(Long id) {
+        return conversationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + id));
+    }
+
+    /**
+     * In TABLE storage mode, writes the given history (when present) to the message table and returns
+     * the conversation with its history read back from there. In JSON mode this is a no-op.
+     */
+    private Conversation storeHistory(Conversation conversation, List<List<ChatMessage>> history) {
+        if (!messageService.isTableMode()) {
+            return conversation;
+        }
+        conversationRepository.flush();
+        if (history != null) {
+            messageService.replace(conversation.getConversationId(), history);
+        }
+        return messageService.resolveHistory(conversation);
+    }
+
+    /**
+     * Slow path for histories stored compressed, which MySQL cannot splice: the row is locked, decoded,
+     * extended and written back as plain JSON, so later appends take the SQL path again. The re-encode job
+     * compresses it again once the conversation is closed.
+     */
+    private void appendToCompressedHistory(Long conversationId, List<ChatMessage> chatMessages, boolean newSession) {
+        conversationRepository.lockById(conversationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + conversationId));
+        List<Object[]> raw = conversationRepository.findRawChatHistories(List.of(conversationId));
+        List<List<ChatMessage>> history = new ArrayList<>(chatHistoryConverter.convertToEntityAttribute((String) raw.get(0)[1]));
+        if (newSession || history.isEmpty()) {
+            history.add(chatMessages);
+        } else {
+            List<ChatMessage> current = new ArrayList<>(history.get(history.size() - 1));
+            current.addAll(chatMessages);
+            history.set(history.size() - 1, current);
+        }
+        conversationRepository.writeRawChatHistory(conversationId, chatHistoryConverter.convertToDatabaseColumn(history, true));
+    }
+
+    /**
+     * Tells routing and the workload counters, once the transaction commits, that the conversation is open
+     * or that it was open and has just been closed. Conversations stored already closed publish nothing.
+     */
+    private void publishLifecycle(Conversation conversation, boolean closedOpen) {
+        Long agentId = conversation.getAgent().getAgentId();
+        Long clientId = conversation.getClient().getClientId();
+        if (closedOpen) {
+            eventPublisher.publishEvent(new ConversationClosedEvent(conversation.getConversationId(), agentId, clientId, conversation.getEndTime()));
+        } else if (conversation.getEndTime() == null) {
+            eventPublisher.publishEvent(new ConversationOpenedEvent(conversation.getConversationId(), agentId, clientId));
+        }
+    }
+
+    private static ReentrantLock[] newLockStripes(int count) {
+        ReentrantLock[] locks = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static List<List<ChatMessage>> orEmpty(List<List<ChatMessage>> history) {
+        return history != null ? history : List.of();
     }
 } 
\ No newline at end of file
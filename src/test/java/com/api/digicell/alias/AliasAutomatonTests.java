@@ -0,0 +1,49 @@
+package com.api.digicell.alias;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AliasAutomatonTests {
+
+    private final AliasAutomaton automaton = AliasAutomaton.compile(Map.of(
+            "ty", "Thank you",
+            "wlc", "Welcome!",
+            "ty wlc", "Thanks and welcome",
+            "he", "HE",
+            "she", "SHE",
+            "hers", "HERS"));
+
+    @Test
+    void expandsWholeWordsOnly() {
+        assertEquals(new AliasAutomaton.Expansion("ok Thank you!", 1), automaton.expand("ok ty!"));
+        assertEquals(new AliasAutomaton.Expansion("party wlcty", 0), automaton.expand("party wlcty"));
+        assertEquals(new AliasAutomaton.Expansion("Thank you, Welcome!", 2), automaton.expand("ty, wlc"));
+    }
+
+    @Test
+    void prefersLeftmostThenLongestKey() {
+        assertEquals("Thanks and welcome now", automaton.expand("ty wlc now").text());
+        assertEquals("SHE HERS HE ushers", automaton.expand("she hers he ushers").text());
+    }
+
+    @Test
+    void reportsEveryExpandedKey() {
+        List<String> matched = new ArrayList<>();
+        automaton.expand("ty wlc, ty and wlc", matched::add);
+
+        assertEquals(List.of("ty wlc", "ty", "wlc"), matched);
+    }
+
+    @Test
+    void emptyAutomatonLeavesTextAlone() {
+        AliasAutomaton empty = AliasAutomaton.compile(Map.of());
+
+        assertEquals(1, empty.stateCount());
+        assertEquals(new AliasAutomaton.Expansion("ty", 0), empty.expand("ty"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.api.digicell.converters;
+
+import com.api.digicell.entities.ChatMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChatHistoryConverterTests {
+
+    private final ChatHistoryConverter converter = new ChatHistoryConverter();
+
+    @AfterEach
+    void resetCodec() {
+        ChatHistoryConverter.configure(ChatHistoryCodec.JSON, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void compressedHistoriesRoundTripWithEveryCodec() {
+        List<List<ChatMessage>> history = longHistory();
+        for (ChatHistoryCodec codec : ChatHistoryCodec.values()) {
+            ChatHistoryConverter.configure(codec, 1024);
+            String stored = converter.convertToDatabaseColumn(history);
+            assertEquals(codec != ChatHistoryCodec.JSON, ChatHistoryConverter.isEncoded(stored));
+            assertEquals(history, converter.convertToEntityAttribute(stored));
+        }
+    }
+
+    @Test
+    void openHistoriesStayPlainJson() {
+        List<List<ChatMessage>> history = longHistory();
+        ChatHistoryConverter.configure(ChatHistoryCodec.LZ4, 1024);
+
+        String open = converter.convertToDatabaseColumn(history, true);
+        assertFalse(ChatHistoryConverter.isEncoded(open));
+        assertTrue(ChatHistoryConverter.isEncoded(converter.convertToDatabaseColumn(history, false)));
+        assertEquals(history, converter.convertToEntityAttribute(open));
+    }
+
+    @Test
+    void plainRowsStillReadAfterCodecChange() {
+        List<List<ChatMessage>> history = longHistory();
+        String plain = converter.convertToDatabaseColumn(history);
+        ChatHistoryConverter.configure(ChatHistoryCodec.LZ4, 1024);
+        assertEquals(history, converter.convertToEntityAttribute(plain));
+    }
+
+    @Test
+    void streamingWriterMatchesObjectMapperOutput() throws Exception {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<List<ChatMessage>> history = longHistory();
+        String stored = converter.convertToDatabaseColumn(history);
+        assertEquals(mapper.writeValueAsString(history), stored);
+    }
+
+    @Test
+    void timestampsParseLikeLocalDateTime() {
+        for (String text : List.of("2024-03-20T10:00:05", "2024-03-20T10:00:05.5", "2024-03-20T10:00:05.123456789", "2024-03-20T10:00")) {
+            assertEquals(LocalDateTime.parse(text), ChatHistoryStreams.parseTimestamp(text));
+        }
+        LocalDateTime withNanos = LocalDateTime.of(2024, 3, 20, 10, 0, 5, 120_000_000);
+        assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(withNanos), ChatHistoryStreams.formatTimestamp(withNanos));
+    }
+
+    @Test
+    void smallHistoriesStayPlainJson() {
+        ChatHistoryConverter.configure(ChatHistoryCodec.DEFLATE, 4096);
+        String stored = converter.convertToDatabaseColumn(
+                List.of(List.of(new ChatMessage("user", "hi", LocalDateTime.of(2024, 3, 20, 18, 1)))));
+        assertFalse(ChatHistoryConverter.isEncoded(stored));
+        assertTrue(stored.startsWith("["));
+    }
+
+    private static List<List<ChatMessage>> longHistory() {
+        List<ChatMessage> session = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            session.add(new ChatMessage(i % 2 == 0 ? "user" : "agent", "Message number " + i + " about my billing issue",
+                    LocalDateTime.of(2024, 3, 20, 18, 1).plusSeconds(i)));
+        }
+        return List.of(session, List.of(session.get(0)));
+    }
+}
@@ -0,0 +1,35 @@
+package com.api.digicell.converters;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTests {
+
+    @Test
+    void readsQuotedFieldsAcrossLineBreaks() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "\uFEFFname,email,phone\r\n\"Doe, John\",john@example.com,\"+1 \"\"555\"\"\n0101\"\nJane,,5550102"), 100);
+
+        assertEquals(List.of("name", "email", "phone"), reader.next());
+        assertEquals(List.of("Doe, John", "john@example.com", "+1 \"555\"\n0101"), reader.next());
+        assertEquals(2, reader.recordNumber());
+        assertEquals(List.of("Jane", "", "5550102"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuotesAndOversizedFields() throws IOException {
+        CsvRecordReader unterminated = new CsvRecordReader(new StringReader("a,\"b\nc"), 100);
+        assertThrows(IllegalArgumentException.class, unterminated::next);
+
+        CsvRecordReader oversized = new CsvRecordReader(new StringReader("abcdef\n"), 5);
+        assertThrows(IllegalArgumentException.class, oversized::next);
+    }
+}
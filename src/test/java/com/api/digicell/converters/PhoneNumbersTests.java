@@ -0,0 +1,38 @@
+package com.api.digicell.converters;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PhoneNumbersTests {
+
+    @Test
+    void plusPrefixIsInternational() {
+        assertEquals("+15550101", PhoneNumbers.toE164("+1-555-0101", "1"));
+        assertEquals("+509123456", PhoneNumbers.toE164(" +509 12 34 56 ", "1"));
+    }
+
+    @Test
+    void doubleZeroPrefixIsInternational() {
+        assertEquals("+15550101", PhoneNumbers.toE164("0015550101", "1"));
+        assertEquals("+50912345678", PhoneNumbers.toE164("00509 1234 5678", "1"));
+    }
+
+    @Test
+    void nationalNumbersGetDefaultCountryCode() {
+        assertEquals("+15550101", PhoneNumbers.toE164("5550101", "1"));
+        assertEquals("+15550101", PhoneNumbers.toE164("(555) 0101", "1"));
+        assertEquals("+5095550101", PhoneNumbers.toE164("555-0101", "509"));
+    }
+
+    @Test
+    void rejectsWhatCannotBeANumber() {
+        assertNull(PhoneNumbers.toE164(null, "1"));
+        assertNull(PhoneNumbers.toE164("", "1"));
+        assertNull(PhoneNumbers.toE164("+12", "1"));
+        assertNull(PhoneNumbers.toE164("+0123456789", "1"));
+        assertNull(PhoneNumbers.toE164("+1234567890123456", "1"));
+        assertNull(PhoneNumbers.toE164("call me", "1"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.api.digicell.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfSamplerTests {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void drawsLowRanksInProportionToTheirWeight() {
+        ZipfSampler sampler = new ZipfSampler(100, 1.0);
+        int[] counts = draw(sampler);
+
+        double harmonic = 0;
+        for (int rank = 1; rank <= 100; rank++) {
+            harmonic += 1.0 / rank;
+        }
+        assertEquals(DRAWS / harmonic, counts[0], DRAWS * 0.01);
+        assertEquals(DRAWS / harmonic / 2, counts[1], DRAWS * 0.01);
+        assertTrue(counts[0] > 50 * counts[99]);
+    }
+
+    @Test
+    void zeroExponentIsUniform() {
+        int[] counts = draw(new ZipfSampler(10, 0));
+
+        for (int count : counts) {
+            assertEquals(DRAWS / 10.0, count, DRAWS * 0.01);
+        }
+    }
+
+    @Test
+    void scatterIsAPermutation() {
+        ZipfSampler sampler = new ZipfSampler(1000, 1.0);
+        Set<Integer> positions = new HashSet<>();
+        for (int rank = 0; rank < sampler.size(); rank++) {
+            int position = sampler.scatter(rank);
+            assertTrue(position >= 0 && position < sampler.size());
+            positions.add(position);
+        }
+
+        assertEquals(sampler.size(), positions.size());
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new ZipfSampler(10, -1));
+    }
+
+    private static int[] draw(ZipfSampler sampler) {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.next(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,98 @@
+package com.api.digicell.pagination;
+
+import com.api.digicell.entities.Client;
+import com.api.digicell.repository.ClientRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+class KeysetPagerTests {
+
+    private static final KeysetSort SORTS = KeysetSort.byId("clientId").with("name", "name", String.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Duplicate names force the id tie-breaker to keep pages stable.
+        for (int i = 0; i < 7; i++) {
+            Client client = new Client();
+            client.setName("Client " + (i % 3));
+            client.setEmail("client" + i + "@email.com");
+            client.setPhone("+1-555-010" + i);
+            client.setIsAssigned(i % 2 == 0);
+            entityManager.persist(client);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesCoverEveryRowOnceInSortOrder() {
+        List<Client> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Client> page = KeysetPager.page(clientRepository, Specification.where(null), SORTS, "-name", cursor, 3);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(7);
+        assertThat(seen.stream().map(Client::getClientId).distinct().count()).isEqualTo(7);
+        List<String> names = seen.stream().map(Client::getName).collect(Collectors.toList());
+        assertThat(names).isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    void pagesOfIdsLoadOnlyThePageAndShareCursorsWithQueriedPages() {
+        List<Long> ids = clientRepository.findAll().stream().map(Client::getClientId).sorted().collect(Collectors.toList());
+        List<Long> matching = List.of(ids.get(0), ids.get(2), ids.get(3), ids.get(6));
+        List<List<Long>> loaded = new ArrayList<>();
+
+        CursorPage<Client> first = KeysetPager.pageOfIds(matching, pageIds -> {
+            loaded.add(pageIds);
+            return clientRepository.findAllById(pageIds);
+        }, Client::getClientId, SORTS, null, null, 3);
+        CursorPage<Client> last = KeysetPager.pageOfIds(matching, clientRepository::findAllById, Client::getClientId,
+                SORTS, null, first.getNextCursor(), 3);
+
+        assertThat(loaded).containsExactly(matching.subList(0, 3));
+        assertThat(first.getItems()).extracting(Client::getClientId).containsExactlyElementsOf(matching.subList(0, 3));
+        assertThat(last.getItems()).extracting(Client::getClientId).containsExactly(ids.get(6));
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(KeysetPager.page(clientRepository, Specification.where(null), SORTS, null, first.getNextCursor(), 10).getItems())
+                .extracting(Client::getClientId).containsExactlyElementsOf(ids.subList(4, 7));
+    }
+
+    @Test
+    void cursorIsRejectedForAnotherSort() {
+        String cursor = KeysetPager.page(clientRepository, Specification.where(null), SORTS, "name", null, 2).getNextCursor();
+
+        assertThat(cursor).isNotNull();
+        assertThatThrownBy(() -> KeysetPager.page(clientRepository, Specification.where(null), SORTS, "-name", cursor, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPager.page(clientRepository, Specification.where(null), SORTS, "email", null, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
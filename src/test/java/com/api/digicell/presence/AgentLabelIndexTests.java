@@ -0,0 +1,53 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AgentLabelIndexTests {
+
+    @Test
+    void intersectsLabelsAndStatus() {
+        AgentLabelIndex index = new AgentLabelIndex();
+        index.put(1L, List.of("Billing", "technical"), AgentStatus.AVAILABLE);
+        index.put(2L, List.of("billing"), AgentStatus.AVAILABLE);
+        index.put(3L, List.of("billing", "technical"), AgentStatus.BREAK);
+
+        assertEquals(List.of(1L, 3L), index.find(List.of("billing", " TECHNICAL"), null));
+        assertEquals(List.of(1L), index.find(List.of("billing", "technical"), AgentStatus.AVAILABLE));
+        assertEquals(List.of(1L, 2L), index.find(null, AgentStatus.AVAILABLE));
+        assertEquals(List.of(), index.find(List.of("sales"), null));
+        assertEquals(List.of(), index.find(List.of(" ", ""), AgentStatus.AVAILABLE));
+    }
+
+    @Test
+    void followsStatusAndLabelChanges() {
+        AgentLabelIndex index = new AgentLabelIndex();
+        index.put(1L, List.of("billing"), AgentStatus.AVAILABLE);
+        index.put(2L, List.of("billing"), AgentStatus.AVAILABLE);
+
+        index.setStatus(1L, AgentStatus.BREAK);
+        index.put(2L, List.of("sales"), AgentStatus.AVAILABLE);
+
+        assertEquals(List.of(), index.find(List.of("billing"), AgentStatus.AVAILABLE));
+        assertEquals(List.of(1L), index.find(List.of("billing"), AgentStatus.BREAK));
+        assertEquals(List.of(2L), index.find(List.of("sales"), AgentStatus.AVAILABLE));
+    }
+
+    @Test
+    void reusesOrdinalsOfRemovedAgents() {
+        AgentLabelIndex index = new AgentLabelIndex();
+        index.put(1L, List.of("billing"), AgentStatus.AVAILABLE);
+        index.put(2L, List.of("billing"), AgentStatus.AVAILABLE);
+
+        index.remove(1L);
+        index.put(3L, List.of("technical"), AgentStatus.AVAILABLE);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(2L), index.find(List.of("billing"), null));
+        assertEquals(List.of(2L, 3L), index.find(null, AgentStatus.AVAILABLE));
+    }
+}
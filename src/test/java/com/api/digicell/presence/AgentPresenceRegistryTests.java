@@ -0,0 +1,100 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.repository.AgentPresenceRepository;
+import com.api.digicell.repository.AgentRepository;
+import com.api.digicell.routing.AgentChangedEvent;
+import com.api.digicell.routing.AgentPresenceChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgentPresenceRegistryTests {
+
+    private final AgentRepository agentRepository = mock(AgentRepository.class);
+    private final AgentPresenceRepository presenceRepository = mock(AgentPresenceRepository.class);
+    private final AgentStatusLog statusLog = mock(AgentStatusLog.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<AgentStatusTransition> transitions = Collections.synchronizedList(new ArrayList<>());
+    private final List<AgentPresenceChangedEvent> events = Collections.synchronizedList(new ArrayList<>());
+    private final List<List<AgentPresence>> flushed = new ArrayList<>();
+    private AgentPresenceRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1L, AgentStatus.LOGOUT, LocalDateTime.now().minusHours(1), List.of("sales")});
+        when(agentRepository.findAllStatuses()).thenReturn(rows);
+        doAnswer(invocation -> transitions.add(invocation.getArgument(0))).when(statusLog).append(any(), any());
+        doAnswer(invocation -> events.add(invocation.getArgument(0))).when(eventPublisher).publishEvent(any(Object.class));
+        doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0)))).when(presenceRepository).updateStatuses(any());
+        registry = new AgentPresenceRegistry(agentRepository, presenceRepository, statusLog, eventPublisher);
+        registry.load();
+    }
+
+    @Test
+    void concurrentUpdatesReachLogAndListenersInOrder() throws InterruptedException {
+        AgentStatus[] statuses = AgentStatus.values();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 2_000; i++) {
+            AgentStatus status = statuses[i % statuses.length];
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    registry.update(1L, status);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        AgentStatus current = registry.get(1L).orElseThrow().status();
+        for (int i = 1; i < transitions.size(); i++) {
+            assertEquals(transitions.get(i - 1).status(), transitions.get(i).previousStatus());
+        }
+        assertEquals(current, transitions.get(transitions.size() - 1).status());
+        assertEquals(current, events.get(events.size() - 1).status());
+        assertEquals(List.of(1L), registry.findAgentIds(List.of("sales"), current));
+
+        registry.flush();
+        assertEquals(current, flushed.get(0).get(0).status());
+    }
+
+    @Test
+    void agentChangedDuringFlushIsWrittenAgain() {
+        registry.update(1L, AgentStatus.AVAILABLE);
+        doAnswer(invocation -> {
+            flushed.add(List.copyOf(invocation.getArgument(0)));
+            registry.onAgentChanged(new AgentChangedEvent(1L, List.of("sales"), AgentStatus.BREAK, false));
+            return null;
+        }).when(presenceRepository).updateStatuses(any());
+
+        registry.flush();
+        doAnswer(invocation -> flushed.add(List.copyOf(invocation.getArgument(0)))).when(presenceRepository).updateStatuses(any());
+        registry.flush();
+
+        assertEquals(AgentStatus.AVAILABLE, flushed.get(0).get(0).status());
+        assertEquals(AgentStatus.BREAK, flushed.get(1).get(0).status());
+        assertEquals(AgentStatus.BREAK, registry.get(1L).orElseThrow().status());
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.repository.AgentPresenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class AgentStatusLogTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 20, 9, 0);
+
+    private final AgentPresenceRepository presenceRepository = mock(AgentPresenceRepository.class);
+    private final List<AgentStatusTransition> written = new ArrayList<>();
+
+    @Test
+    void failedFlushKeepsTransitionsInOrderForTheNextOne() {
+        AgentStatusLog log = new AgentStatusLog(presenceRepository, 7, 10);
+        log.append(transition(1L, 0), null);
+        log.append(transition(2L, 1), null);
+        doThrow(new DataAccessResourceFailureException("down")).when(presenceRepository).insertStatusEvents(anyList());
+
+        log.flush();
+        log.append(transition(3L, 2), null);
+        recordWrites();
+        log.flush();
+
+        assertEquals(List.of(1L, 2L, 3L), written.stream().map(AgentStatusTransition::agentId).toList());
+    }
+
+    @Test
+    void fullQueueDropsTheOldestTransitions() {
+        AgentStatusLog log = new AgentStatusLog(presenceRepository, 7, 2);
+        log.append(transition(1L, 0), null);
+        log.append(transition(2L, 1), null);
+        log.append(transition(3L, 2), null);
+        recordWrites();
+
+        log.flush();
+
+        assertEquals(List.of(2L, 3L), written.stream().map(AgentStatusTransition::agentId).toList());
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> written.addAll(invocation.getArgument(0))).when(presenceRepository).insertStatusEvents(anyList());
+    }
+
+    private static AgentStatusTransition transition(Long agentId, int minutes) {
+        return new AgentStatusTransition(agentId, AgentStatus.LOGOUT, AgentStatus.AVAILABLE, NOW.plusMinutes(minutes));
+    }
+}
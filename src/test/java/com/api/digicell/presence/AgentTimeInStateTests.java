@@ -0,0 +1,58 @@
+package com.api.digicell.presence;
+
+import com.api.digicell.entities.AgentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AgentTimeInStateTests {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 20);
+
+    @Test
+    void accumulatesTimeBetweenTransitionsIncludingRunningInterval() {
+        AgentTimeInState stats = new AgentTimeInState(7);
+        stats.start(1L, AgentStatus.LOGOUT, DAY.atTime(0, 0));
+        stats.record(new AgentStatusTransition(1L, AgentStatus.LOGOUT, AgentStatus.AVAILABLE, DAY.atTime(9, 0)), null);
+        stats.record(new AgentStatusTransition(1L, AgentStatus.AVAILABLE, AgentStatus.BREAK, DAY.atTime(12, 0)), null);
+        stats.record(new AgentStatusTransition(1L, AgentStatus.BREAK, AgentStatus.AVAILABLE, DAY.atTime(12, 30)), null);
+
+        Map<AgentStatus, Duration> totals = stats.totals(1L, DAY, DAY.atTime(14, 0));
+
+        assertEquals(Duration.ofHours(9), totals.get(AgentStatus.LOGOUT));
+        assertEquals(Duration.ofMinutes(270), totals.get(AgentStatus.AVAILABLE));
+        assertEquals(Duration.ofMinutes(30), totals.get(AgentStatus.BREAK));
+    }
+
+    @Test
+    void splitsIntervalsAtMidnightAndDropsOldDays() {
+        AgentTimeInState stats = new AgentTimeInState(2);
+        LocalDateTime lateEvening = DAY.atTime(22, 0);
+        stats.record(new AgentStatusTransition(1L, null, AgentStatus.AVAILABLE, lateEvening), null);
+        stats.record(new AgentStatusTransition(1L, AgentStatus.AVAILABLE, AgentStatus.LOGOUT, DAY.plusDays(1).atTime(1, 0)), null);
+
+        assertEquals(Duration.ofHours(2), stats.totals(1L, DAY, DAY.plusDays(1).atTime(2, 0)).get(AgentStatus.AVAILABLE));
+        assertEquals(Duration.ofHours(1), stats.totals(1L, DAY.plusDays(1), DAY.plusDays(1).atTime(2, 0)).get(AgentStatus.AVAILABLE));
+
+        stats.record(new AgentStatusTransition(1L, AgentStatus.LOGOUT, AgentStatus.AVAILABLE, DAY.plusDays(2).atTime(8, 0)), null);
+
+        assertEquals(Duration.ZERO, stats.totals(1L, DAY, DAY.plusDays(2).atTime(9, 0)).get(AgentStatus.AVAILABLE));
+        assertEquals(Duration.ofHours(23), stats.totals(1L, DAY.plusDays(1), DAY.plusDays(2).atTime(9, 0)).get(AgentStatus.LOGOUT));
+    }
+
+    @Test
+    void startsClockInPreviousStatusWhenReplayingWindow() {
+        AgentTimeInState stats = new AgentTimeInState(1);
+        stats.record(new AgentStatusTransition(1L, AgentStatus.BREAK, AgentStatus.AVAILABLE, DAY.atTime(1, 0)), DAY.atStartOfDay());
+
+        assertEquals(Duration.ofHours(1), stats.totals(1L, DAY, DAY.atTime(2, 0)).get(AgentStatus.BREAK));
+        assertEquals(Duration.ofHours(1), stats.totals(1L, DAY, DAY.atTime(2, 0)).get(AgentStatus.AVAILABLE));
+        assertThrows(IllegalArgumentException.class, () -> new AgentTimeInState(0));
+    }
+}
@@ -0,0 +1,144 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.dto.ConversationResponseDTO;
+import com.api.digicell.dto.ConvoDto;
+import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.entities.ChatMessage;
+import com.api.digicell.entities.Client;
+import com.api.digicell.entities.Conversation;
+import com.api.digicell.presence.AgentPresenceRegistry;
+import com.api.digicell.presence.AgentStatusLog;
+import com.api.digicell.presence.AgentWorkloadCounters;
+import com.api.digicell.routing.RoutingService;
+import com.api.digicell.services.AgentService;
+import com.api.digicell.services.ClientService;
+import com.api.digicell.services.ConversationMessageService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Summary endpoints must never read the chat history column. The stored history is overwritten with a
+ * value the converter cannot parse, so any code path that loads it fails.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@Import({ClientService.class, AgentService.class})
+class ConversationSummaryQueryTests {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private AgentService agentService;
+
+    @MockBean
+    private AgentPresenceRegistry presenceRegistry;
+
+    @MockBean
+    private RoutingService routingService;
+
+    @MockBean
+    private AgentWorkloadCounters workloadCounters;
+
+    @MockBean
+    private AgentStatusLog statusLog;
+
+    @MockBean
+    private ConversationMessageService messageService;
+
+    private Client client;
+    private Agent agent;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        agent = new Agent();
+        agent.setName("Sarah Johnson");
+        agent.setEmail("sarah.j@digicell.com");
+        agent.setStatus(AgentStatus.AVAILABLE);
+        entityManager.persist(agent);
+
+        client = new Client();
+        client.setName("Robert Taylor");
+        client.setEmail("robert.t@email.com");
+        client.setPhone("+1-555-0101");
+        client.setIsAssigned(true);
+        entityManager.persist(client);
+
+        conversation = new Conversation();
+        conversation.setAgent(agent);
+        conversation.setClient(client);
+        conversation.setIntent("Billing Inquiry");
+        conversation.setChatSummary("Customer inquired about billing details");
+        conversation.setChatHistory(List.of(List.of(new ChatMessage("user", "Hello", LocalDateTime.now()))));
+        entityManager.persist(conversation);
+        entityManager.flush();
+
+        entityManager.createNativeQuery("UPDATE conversations SET chat_history = '{\"unreadable\":true}' WHERE conversation_id = :id")
+                .setParameter("id", conversation.getConversationId())
+                .executeUpdate();
+        entityManager.clear();
+    }
+
+    @Test
+    void entityFinderReadsChatHistory() {
+        assertThatThrownBy(() -> conversationRepository.findByClient_ClientId(client.getClientId()))
+                .hasRootCauseInstanceOf(com.fasterxml.jackson.core.JsonProcessingException.class);
+    }
+
+    @Test
+    void conversationHeaderSkipsChatHistory() {
+        // H2 stores the labels JSON as a JSON string, which the labels converter cannot read back.
+        entityManager.createNativeQuery("UPDATE agents SET labels = NULL").executeUpdate();
+
+        assertThat(conversationRepository.findWithoutChatHistory(conversation.getConversationId())).hasValueSatisfying(header -> {
+            assertThat(header.getAgent().getName()).isEqualTo("Sarah Johnson");
+            assertThat(header.getClient().getClientId()).isEqualTo(client.getClientId());
+            assertThat(header.getIntent()).isEqualTo("Billing Inquiry");
+            assertThat(header.getEndTime()).isNull();
+        });
+    }
+
+    @Test
+    void clientConversationSummariesSkipChatHistory() {
+        List<ConvoDto> conversations = clientService.getClientConversations(client.getClientId());
+
+        assertThat(conversations).singleElement().satisfies(dto -> {
+            assertThat(dto.getConversationId()).isEqualTo(conversation.getConversationId());
+            assertThat(dto.getAgentId()).isEqualTo(agent.getAgentId());
+            assertThat(dto.getAgentName()).isEqualTo("Sarah Johnson");
+            assertThat(dto.getIntent()).isEqualTo("Billing Inquiry");
+        });
+    }
+
+    @Test
+    void agentConversationSummariesSkipChatHistory() {
+        List<ConversationResponseDTO> conversations = agentService.getAgentConversations(agent.getAgentId());
+
+        assertThat(conversations).singleElement().satisfies(dto -> {
+            assertThat(dto.getClientId()).isEqualTo(client.getClientId());
+            assertThat(dto.getUserName()).isEqualTo("Robert Taylor");
+            assertThat(dto.getChatHistory()).isNull();
+        });
+    }
+}
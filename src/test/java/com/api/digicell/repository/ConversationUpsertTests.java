@@ -0,0 +1,130 @@
+package com.api.digicell.repository;
+
+import com.api.digicell.entities.Agent;
+import com.api.digicell.entities.AgentStatus;
+import com.api.digicell.entities.Client;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The single-statement upsert of {@link ConversationBatchRepository} against the open conversation
+ * index. H2 in MySQL mode runs the same {@code ON DUPLICATE KEY UPDATE} and {@code LAST_INSERT_ID(expr)}
+ * statement; the virtual column and unique index that {@link OpenConversationIndex} adds on MySQL are
+ * created here in H2 syntax.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:upsert;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.sql.init.mode=never"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ConversationBatchRepository.class)
+class ConversationUpsertTests {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ConversationBatchRepository batchRepository;
+
+    private Long clientId;
+    private Long agentId;
+
+    @BeforeEach
+    void setUp() {
+        // DDL commits implicitly in H2, so it runs before anything is written in the test transaction.
+        jdbcTemplate.execute("ALTER TABLE conversations ADD COLUMN IF NOT EXISTS open_flag TINYINT " +
+                "AS (CASE WHEN end_time IS NULL THEN 1 END)");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + OpenConversationIndex.INDEX_NAME +
+                " ON conversations (client_id, agent_id, open_flag)");
+
+        Agent agent = new Agent();
+        agent.setName("Sarah Johnson");
+        agent.setEmail("sarah.j@digicell.com");
+        agent.setStatus(AgentStatus.AVAILABLE);
+        entityManager.persist(agent);
+
+        Client client = new Client();
+        client.setName("Robert Taylor");
+        client.setEmail("robert.t@email.com");
+        client.setPhone("+1-555-0101");
+        entityManager.persist(client);
+        entityManager.flush();
+        agentId = agent.getAgentId();
+        clientId = client.getClientId();
+
+    }
+
+    @Test
+    void mergesIntoTheOpenConversationOfThePair() {
+        Long id = batchRepository.upsertOpenConversation(row("billing", null, "[[]]"), true).conversationId();
+        String history = chatHistory(id);
+
+        ConversationBatchRepository.Upserted again = batchRepository.upsertOpenConversation(row("roaming", null, "[]"), false);
+
+        assertThat(again.conversationId()).isEqualTo(id);
+        assertThat(again.closedOpen()).isFalse();
+        assertThat(openCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT intent FROM conversations WHERE conversation_id = ?", String.class, id))
+                .isEqualTo("roaming");
+        assertThat(chatHistory(id)).isEqualTo(history);
+    }
+
+    @Test
+    void closingRowClosesTheOpenConversation() {
+        Long id = batchRepository.upsertOpenConversation(row("billing", null, "[]"), true).conversationId();
+
+        ConversationBatchRepository.Upserted closed = batchRepository.upsertOpenConversation(row("billing", LocalDateTime.now(), "[]"), false);
+
+        assertThat(closed.conversationId()).isEqualTo(id);
+        assertThat(closed.closedOpen()).isTrue();
+        assertThat(openCount()).isZero();
+        assertThat(batchRepository.upsertOpenConversation(row("billing", null, "[]"), true).conversationId()).isNotEqualTo(id);
+    }
+
+    @Test
+    void rowArrivingClosedIsInsertedClosed() {
+        ConversationBatchRepository.Upserted upserted = batchRepository.upsertOpenConversation(row("billing", LocalDateTime.now(), "[]"), true);
+
+        assertThat(upserted.closedOpen()).isFalse();
+        assertThat(openCount()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conversations WHERE conversation_id = ? AND end_time IS NOT NULL",
+                Integer.class, upserted.conversationId())).isEqualTo(1);
+    }
+
+    private Map<String, Object> row(String intent, LocalDateTime endTime, String chatHistory) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("clientId", clientId);
+        row.put("agentId", agentId);
+        row.put("intent", intent);
+        row.put("startTime", LocalDateTime.now());
+        row.put("endTime", endTime);
+        row.put("chatHistory", chatHistory);
+        row.put("chatSummary", "");
+        return row;
+    }
+
+    private String chatHistory(Long conversationId) {
+        return jdbcTemplate.queryForObject("SELECT chat_history FROM conversations WHERE conversation_id = ?", String.class, conversationId);
+    }
+
+    private int openCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conversations WHERE client_id = ? AND agent_id = ? AND end_time IS NULL",
+                Integer.class, clientId, agentId);
+    }
+}
@@ -0,0 +1,140 @@
+package com.api.digicell.routing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SkillRouterTests {
+
+    @Test
+    void picksLeastLoadedAvailableAgentWithSkill() {
+        SkillRouter router = new SkillRouter(3);
+        router.putAgent(1L, List.of("Billing"), true, 2);
+        router.putAgent(2L, List.of("billing", "sales"), true, 1);
+        router.putAgent(3L, List.of("billing"), false, 0);
+        router.putAgent(4L, List.of("technical"), true, 0);
+
+        List<SkillRouter.Assignment> assignments = router.route(10L, " billing ", System.nanoTime());
+
+        assertEquals(1, assignments.size());
+        assertEquals(2L, assignments.get(0).agentId());
+        assertEquals(2, router.load(2L));
+    }
+
+    @Test
+    void queuesUntilAgentIsReleasedInArrivalOrder() {
+        SkillRouter router = new SkillRouter(1);
+        router.putAgent(1L, List.of("sales"), true, 0);
+
+        assertEquals(1, router.route(10L, "sales", System.nanoTime()).size());
+        assertTrue(router.route(11L, "sales", System.nanoTime()).isEmpty());
+        assertTrue(router.route(12L, "sales", System.nanoTime()).isEmpty());
+        assertThrows(IllegalStateException.class, () -> router.route(11L, "sales", System.nanoTime()));
+        assertEquals(2, router.waitingCount());
+
+        List<SkillRouter.Assignment> released = router.release(1L);
+        assertEquals(1, released.size());
+        assertEquals(11L, released.get(0).request().clientId());
+        assertEquals(1, router.waitingCount());
+    }
+
+    @Test
+    void conversationsOpenedOutsideRoutingCountAgainstLoad() {
+        SkillRouter router = new SkillRouter(1);
+        router.putAgent(1L, List.of("sales"), true, 0);
+        router.acquire(1L);
+
+        assertTrue(router.route(10L, "sales", System.nanoTime()).isEmpty());
+        assertEquals(1, router.load(1L));
+        assertEquals(10L, router.release(1L).get(0).request().clientId());
+    }
+
+    @Test
+    void assignedClientCannotBeRoutedAgainUntilCompleted() {
+        SkillRouter router = new SkillRouter(2);
+        router.putAgent(1L, List.of("sales"), true, 0);
+
+        assertEquals(1, router.route(10L, "sales", System.nanoTime()).size());
+        assertThrows(IllegalStateException.class, () -> router.route(10L, "sales", System.nanoTime()));
+        assertEquals(0, router.waitingCount());
+
+        router.complete(10L);
+        assertEquals(1, router.route(10L, "sales", System.nanoTime()).size());
+    }
+
+    @Test
+    void clientsOfRemovedSkillMoveToAnyAgent() {
+        SkillRouter router = new SkillRouter(1);
+        router.putAgent(1L, List.of("roaming"), false, 0);
+        router.putAgent(2L, List.of("sales"), true, 1);
+
+        assertTrue(router.route(10L, "roaming", System.nanoTime()).isEmpty());
+        assertTrue(router.removeAgent(1L).isEmpty());
+        assertTrue(router.isWaiting(10L));
+
+        List<SkillRouter.Assignment> released = router.release(2L);
+        assertEquals(1, released.size());
+        assertEquals(10L, released.get(0).request().clientId());
+        assertEquals(SkillRouter.ANY_SKILL, released.get(0).request().skill());
+    }
+
+    @Test
+    void unknownIntentGoesToAnyAgent() {
+        SkillRouter router = new SkillRouter(1);
+        router.putAgent(1L, List.of("sales"), false, 0);
+
+        assertTrue(router.route(10L, "warranty", System.nanoTime()).isEmpty());
+        List<SkillRouter.Assignment> assignments = router.putAgent(1L, List.of("sales"), true, 0);
+
+        assertEquals(1, assignments.size());
+        assertEquals(10L, assignments.get(0).request().clientId());
+    }
+
+    @Test
+    void concurrentRoutingNeverExceedsAgentCapacity() throws InterruptedException {
+        int agents = 8;
+        int maxLoad = 5;
+        SkillRouter router = new SkillRouter(maxLoad);
+        for (long agentId = 1; agentId <= agents; agentId++) {
+            router.putAgent(agentId, List.of("support"), true, 0);
+        }
+
+        int clients = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<SkillRouter.Assignment> assigned = Collections.synchronizedList(new ArrayList<>());
+        for (long clientId = 1; clientId <= clients; clientId++) {
+            long id = clientId;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    assigned.addAll(router.route(id, "support", System.nanoTime()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Map<Long, AtomicInteger> perAgent = new ConcurrentHashMap<>();
+        assigned.forEach(a -> perAgent.computeIfAbsent(a.agentId(), id -> new AtomicInteger()).incrementAndGet());
+        assertEquals(agents * maxLoad, assigned.size());
+        perAgent.values().forEach(count -> assertEquals(maxLoad, count.get()));
+        assertEquals(clients - agents * maxLoad, router.waitingCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.api.digicell.search;
+
+import com.api.digicell.dto.ClientSuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientPrefixIndexTests {
+
+    private static final ClientSuggestionDTO JOHN = new ClientSuggestionDTO(1L, "Doe, John", "john.doe@example.com", "5550101");
+    private static final ClientSuggestionDTO JOSE = new ClientSuggestionDTO(2L, "Jos\u00e9 \u00c1lvarez", "jalvarez@example.com", "5550102");
+    private static final ClientSuggestionDTO JANE = new ClientSuggestionDTO(3L, "Jane Doe", "jane@example.com", "5550103");
+
+    @Test
+    void matchesAnyNameWordAndEmailIgnoringCaseAndAccents() {
+        ClientPrefixIndex index = index(JOHN, JOSE, JANE);
+
+        assertEquals(List.of(JANE, JOHN), index.search("DO", 10));
+        assertEquals(List.of(JOHN, JOSE), index.search("jo", 10));
+        assertEquals(List.of(JOSE), index.search("alva", 10));
+        assertEquals(List.of(JOHN), index.search("john.d", 10));
+        assertEquals(List.of(JANE), index.search("jane@", 10));
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void limitsResultsToDistinctClients() {
+        ClientPrefixIndex index = index(JOHN, JOSE, JANE);
+
+        assertEquals(List.of(JOSE), index.search("j", 1));
+        assertEquals(3, index.search("j", 10).size());
+    }
+
+    @Test
+    void replacesAndRemovesTermsOfAClient() {
+        ClientPrefixIndex index = index(JOHN, JANE);
+
+        index.put(new ClientSuggestionDTO(1L, "Johnny Smith", "johnny@example.com", "5550101"));
+        assertEquals(List.of(1L), index.search("smi", 10).stream().map(ClientSuggestionDTO::clientId).toList());
+        assertEquals(List.of(JANE), index.search("doe", 10));
+
+        index.remove(3L);
+        assertTrue(index.search("jane", 10).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    private static ClientPrefixIndex index(ClientSuggestionDTO... clients) {
+        ClientPrefixIndex index = new ClientPrefixIndex();
+        for (ClientSuggestionDTO client : clients) {
+            index.put(client);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.digicell.services;
+
+import com.api.digicell.entities.Client;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.repository.ConversationRepository;
+import com.api.digicell.repository.ConversationSummary;
+import com.api.digicell.responses.ClientDetailsResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientDetailsServiceTests {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final ConversationMessageService messageService = mock(ConversationMessageService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<TransactionDefinition> transactions = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ClientDetailsService detailsService;
+
+    ClientDetailsServiceTests() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            transactions.add(invocation.getArgument(0));
+            return new SimpleTransactionStatus();
+        });
+        detailsService = new ClientDetailsService(clientRepository, conversationRepository, messageService,
+                new TransactionTemplate(transactionManager), 4, 200);
+        when(clientRepository.findById(1L)).thenReturn(Optional.of(Client.builder().clientId(1L).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        detailsService.shutdown();
+    }
+
+    @Test
+    void conversationsMissingTheDeadlineAreNamedInMissing() {
+        when(conversationRepository.findSummariesByClientId(1L)).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        when(messageService.getHistoriesByClient(1L)).thenReturn(Map.of());
+
+        ClientDetailsResponse response = detailsService.getClientDetails(1L);
+
+        assertEquals(1L, response.getClient().getClientId());
+        assertEquals(List.of(), response.getConversations());
+        assertEquals(List.of("conversations"), response.getMissing());
+        assertTrue(transactions.stream().allMatch(t -> t.isReadOnly() && t.getTimeout() == 1));
+    }
+
+    @Test
+    void failedHistoriesLeaveConversationsWithoutChatHistory() {
+        ConversationSummary summary = mock(ConversationSummary.class);
+        when(summary.getConversationId()).thenReturn(10L);
+        when(conversationRepository.findSummariesByClientId(1L)).thenReturn(List.of(summary));
+        when(messageService.getHistoriesByClient(1L)).thenThrow(new QueryTimeoutException("statement cancelled"));
+
+        ClientDetailsResponse response = detailsService.getClientDetails(1L);
+
+        assertEquals(1, response.getConversations().size());
+        assertEquals(10L, response.getConversations().get(0).getConversationId());
+        assertNull(response.getConversations().get(0).getChatHistory());
+        assertEquals(List.of("chatHistory"), response.getMissing());
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.digicell.services;
+
+import com.api.digicell.entities.Client;
+import com.api.digicell.exceptions.ResourceNotFoundException;
+import com.api.digicell.repository.ClientPhoneIndex;
+import com.api.digicell.repository.ClientRepository;
+import com.api.digicell.routing.ClientChangedEvent;
+import com.api.digicell.routing.ClientsImportedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientLookupServiceTests {
+
+    private final ClientRepository clientRepository = mock(ClientRepository.class);
+    private final ClientPhoneIndex phoneIndex = mock(ClientPhoneIndex.class);
+    private final ClientLookupService lookupService = new ClientLookupService(clientRepository, phoneIndex, "1", 100, 60_000);
+
+    @Test
+    void cachesLookupsUntilTheClientChanges() {
+        Client client = Client.builder().clientId(7L).phone("+1-555-0101").build();
+        when(phoneIndex.isAvailable()).thenReturn(true);
+        when(clientRepository.findByPhoneKey("+15550101")).thenReturn(List.of(client));
+
+        assertEquals(List.of(client), lookupService.findByPhone("+1-555-0101"));
+        assertEquals(List.of(client), lookupService.findByPhone("5550101"));
+        verify(clientRepository, times(1)).findByPhoneKey("+15550101");
+
+        lookupService.onClientChanged(new ClientChangedEvent(7L));
+        lookupService.findByPhone("(555) 0101");
+        verify(clientRepository, times(2)).findByPhoneKey("+15550101");
+    }
+
+    @Test
+    void importDropsCachedMisses() {
+        Client client = Client.builder().clientId(8L).email("ana@example.com").build();
+        when(clientRepository.findByEmail("ana@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> lookupService.findByEmail("ana@example.com"));
+        when(clientRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(client));
+        assertThrows(ResourceNotFoundException.class, () -> lookupService.findByEmail("ANA@example.com "));
+
+        lookupService.onClientsImported(new ClientsImportedEvent(List.of("ana@example.com")));
+        assertEquals(client, lookupService.findByEmail("ana@example.com"));
+    }
+
+    @Test
+    void rejectsInvalidPhoneWithoutQuerying() {
+        assertThrows(IllegalArgumentException.class, () -> lookupService.findByPhone("12"));
+        verify(phoneIndex, times(0)).isAvailable();
+    }
+}